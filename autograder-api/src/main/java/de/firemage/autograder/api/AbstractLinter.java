@@ -4,7 +4,9 @@ import fluent.bundle.FluentResource;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -21,6 +23,68 @@ public interface AbstractLinter {
                                                       Consumer<Translatable> statusConsumer,
                                                       Consumer<FailureInformation> failureConsumer) throws LinterException, IOException;
 
+    /**
+     * Grades a submission like {@link #checkFileFallible(Path, JavaVersion, CheckConfiguration, Consumer, Consumer)},
+     * but passes the problems to the consumer as soon as they are known, instead of returning them at the end.
+     * <p>
+     * The problems are the same as the ones that would have been returned, but they might be reported in a
+     * different order. The consumer is never called concurrently.
+     * <p>
+     * The default implementation passes all problems to the consumer after the submission has been graded.
+     *
+     * @param file the root folder of the submission
+     * @param version the java version with which the submission should be compiled
+     * @param checkConfiguration the checks to run
+     * @param statusConsumer receives the status messages
+     * @param failureConsumer receives the failures of single checks
+     * @param problemConsumer receives the problems
+     * @throws LinterException if the submission could not be graded
+     * @throws IOException if the submission could not be read
+     */
+    default void checkFileStreaming(Path file, JavaVersion version, CheckConfiguration checkConfiguration,
+                                    Consumer<Translatable> statusConsumer,
+                                    Consumer<FailureInformation> failureConsumer,
+                                    Consumer<? super AbstractProblem> problemConsumer) throws LinterException, IOException {
+        this.checkFileFallible(file, version, checkConfiguration, statusConsumer, failureConsumer).forEach(problemConsumer);
+    }
+
+    /**
+     * Grades multiple submissions, for example all submissions of an assignment.
+     * <p>
+     * A failure while grading one submission does not affect the others, it is reported through the result of
+     * that submission. This includes errors, so there is exactly one result for each submission.
+     * The results are passed to the consumer as soon as a submission has been graded, so they might
+     * not be in the same order as the submissions. The consumer is never called concurrently.
+     * <p>
+     * The default implementation grades one submission after another, implementations may grade them in parallel.
+     *
+     * @param submissions the root folders of the submissions to grade
+     * @param version the java version with which the submissions should be compiled
+     * @param checkConfiguration the configuration that is used for all submissions
+     * @param resultConsumer will be called once for each submission
+     * @throws InterruptedException if the thread was interrupted while waiting for the submissions to be graded
+     */
+    default void checkFilesFallible(Collection<Path> submissions, JavaVersion version, CheckConfiguration checkConfiguration,
+                                    Consumer<? super SubmissionResult> resultConsumer) throws InterruptedException {
+        for (Path submission : submissions) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            List<FailureInformation> failures = new ArrayList<>();
+            SubmissionResult result;
+            try {
+                var problems = this.checkFileFallible(submission, version, checkConfiguration, status -> {}, failures::add);
+                result = SubmissionResult.forSuccess(submission, problems, failures);
+            } catch (Throwable exception) {
+                // every submission must have a result, even if grading it failed with an error (e.g. a StackOverflowError)
+                result = SubmissionResult.forFailure(submission, exception);
+            }
+
+            resultConsumer.accept(result);
+        }
+    }
+
     String translateMessage(Translatable translatable);
 
     static Builder builder(Locale locale) {
@@ -31,8 +95,16 @@ public interface AbstractLinter {
         private final Locale locale;
         private AbstractTempLocation tempLocation;
         private int threads;
+        private int linterThreads = 1;
         private ClassLoader classLoader;
         private int maxProblemsPerCheck = -1;
+        private boolean skipClassGeneration;
+        private Path resultCache;
+        private long resultCacheMaxSize = 512L * 1024 * 1024;
+        private Duration resultCacheMaxAge = Duration.ofDays(30);
+        private double resultCacheVerificationRate;
+        private boolean incrementalAnalysis;
+        private Consumer<? super AnalysisMetrics> metricsConsumer;
         private List<FluentResource> messageOverrides = new ArrayList<>();
         private Map<AbstractProblemType, List<FluentResource>> conditionalOverrides = new HashMap<>();
 
@@ -49,6 +121,15 @@ public interface AbstractLinter {
             return tempLocation;
         }
 
+        /**
+         * Sets the number of threads that the linter may use.
+         * <p>
+         * When grading multiple submissions at once, this is the number of submissions graded in parallel.
+         * A value of 0 means that the number of available processors is used.
+         *
+         * @param threads the number of threads
+         * @return this
+         */
         public Builder threads(int threads) {
             this.threads = threads;
             return this;
@@ -58,6 +139,27 @@ public interface AbstractLinter {
             return threads;
         }
 
+        /**
+         * Sets how many linters (e.g. PMD, error-prone and the integrated checks) may run at the same time
+         * for a single submission.
+         * <p>
+         * The default is 1, which runs one linter after another on the calling thread. A value of 0 means that
+         * all linters run at the same time. The status messages are still passed to the status consumer one at
+         * a time, but messages of different linters might interleave. When grading multiple submissions at once,
+         * this is ignored and the linters of each submission run one after another.
+         *
+         * @param linterThreads the maximum number of linters that run at the same time
+         * @return this
+         */
+        public Builder linterThreads(int linterThreads) {
+            this.linterThreads = linterThreads;
+            return this;
+        }
+
+        public int getLinterThreads() {
+            return linterThreads;
+        }
+
         public Builder maxProblemsPerCheck(int maxProblemsPerCheck) {
             this.maxProblemsPerCheck = maxProblemsPerCheck;
             return this;
@@ -67,6 +169,131 @@ public interface AbstractLinter {
             return maxProblemsPerCheck;
         }
 
+        /**
+         * Experimental: the compiler stops after it has reported its diagnostics and does not generate class files,
+         * unless one of the selected linters needs them. The model of the code is then built without class files.
+         * <p>
+         * This only skips the code generation of the compiler, the code is still parsed by both the compiler and
+         * the model builder. It is disabled by default, because it relies on nothing else loading the classes
+         * of the submission.
+         *
+         * @param skipClassGeneration whether to skip the class file generation
+         * @return this
+         */
+        public Builder skipClassGeneration(boolean skipClassGeneration) {
+            this.skipClassGeneration = skipClassGeneration;
+            return this;
+        }
+
+        public boolean isClassGenerationSkipped() {
+            return skipClassGeneration;
+        }
+
+        /**
+         * Stores the problems of each graded submission in the given folder, so grading the same code with the same
+         * checks again returns the stored problems instead of analyzing the code.
+         * <p>
+         * The stored problems are identified by the contents of the source files, the java version, the enabled checks
+         * and the build of the autograder. Changing the translations does not invalidate the cache, because the problems
+         * are stored before they are translated. By default, no cache is used.
+         *
+         * @param directory the folder in which the problems are stored, or null to disable the cache
+         * @return this
+         */
+        public Builder resultCache(Path directory) {
+            this.resultCache = directory;
+            return this;
+        }
+
+        public Path getResultCache() {
+            return resultCache;
+        }
+
+        /**
+         * Sets when stored results are removed from the cache.
+         * <p>
+         * The least recently used results are removed once the cache is larger than the given size. Results that
+         * have not been used for longer than the given age are removed as well. The defaults are 512 MiB and 30 days.
+         *
+         * @param maxSize the maximum size of the cache in bytes
+         * @param maxAge the maximum time a result is kept without being used
+         * @return this
+         */
+        public Builder resultCacheLimits(long maxSize, Duration maxAge) {
+            this.resultCacheMaxSize = maxSize;
+            this.resultCacheMaxAge = maxAge;
+            return this;
+        }
+
+        public long getResultCacheMaxSize() {
+            return resultCacheMaxSize;
+        }
+
+        public Duration getResultCacheMaxAge() {
+            return resultCacheMaxAge;
+        }
+
+        /**
+         * Sets the fraction of cache hits for which the submission is graded again anyway.
+         * <p>
+         * The new result is compared to the stored one, a difference is logged and the stored result is replaced.
+         * The default is 0, so stored results are never verified. A value of 1 verifies every result.
+         *
+         * @param verificationRate a value between 0 and 1
+         * @return this
+         */
+        public Builder resultCacheVerificationRate(double verificationRate) {
+            if (verificationRate < 0.0 || verificationRate > 1.0) {
+                throw new IllegalArgumentException("The verification rate must be between 0 and 1");
+            }
+
+            this.resultCacheVerificationRate = verificationRate;
+            return this;
+        }
+
+        public double getResultCacheVerificationRate() {
+            return resultCacheVerificationRate;
+        }
+
+        /**
+         * Reuses the problems of file-local checks for files that have not changed since they have been graded,
+         * e.g. when a student resubmits with only some files changed.
+         * <p>
+         * The file-local checks then only analyze the changed files, all other checks still analyze the whole
+         * submission. The problems of each file are stored in the {@link #resultCache(Path) result cache}, so this
+         * has no effect without it. The problems of file-local checks are reported in the order of their files,
+         * which might differ from the order without incremental analysis. By default, it is disabled.
+         *
+         * @param incrementalAnalysis whether to reuse the problems of unchanged files
+         * @return this
+         */
+        public Builder incrementalAnalysis(boolean incrementalAnalysis) {
+            this.incrementalAnalysis = incrementalAnalysis;
+            return this;
+        }
+
+        public boolean isIncrementalAnalysis() {
+            return incrementalAnalysis;
+        }
+
+        /**
+         * Measures the phases and checks while grading and passes the metrics of each graded submission
+         * to the given consumer, before the problems of the submission are returned.
+         * <p>
+         * The consumer is never called concurrently. By default, nothing is measured.
+         *
+         * @param metricsConsumer the consumer of the metrics, or null to disable the measurements
+         * @return this
+         */
+        public Builder metricsConsumer(Consumer<? super AnalysisMetrics> metricsConsumer) {
+            this.metricsConsumer = metricsConsumer;
+            return this;
+        }
+
+        public Consumer<? super AnalysisMetrics> getMetricsConsumer() {
+            return metricsConsumer;
+        }
+
         public Builder classLoader(ClassLoader classLoader) {
             this.classLoader = classLoader;
             return this;
@@ -0,0 +1,63 @@
+package de.firemage.autograder.api;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Describes how long grading a single submission took and how large the submission is.
+ *
+ * @param submission the folder of the submission that has been graded
+ * @param phases the phases of grading (e.g. the compilation, building the model and running each linter) in the order
+ *               in which they have been completed
+ * @param checks the checks that have been executed in the order in which they have been run by the linters
+ * @param model the size of the submission or null if no model has been built, e.g. because the result was cached
+ */
+public record AnalysisMetrics(
+    Path submission,
+    List<Measurement> phases,
+    List<CheckMetrics> checks,
+    ModelStatistics model
+) {
+    public AnalysisMetrics {
+        phases = List.copyOf(phases);
+        checks = List.copyOf(checks);
+    }
+
+    /**
+     * The resources used by a phase or check.
+     * <p>
+     * The cpu time and the allocated bytes are only measured for the thread that executed it.
+     * If a phase runs things on other threads (e.g. when the checks run in parallel), those are not included.
+     *
+     * @param name the name of the phase or check
+     * @param wallTimeNanos the elapsed time in nanoseconds
+     * @param cpuTimeNanos the cpu time of the executing thread in nanoseconds or -1 if it could not be measured
+     * @param allocatedBytes the bytes allocated by the executing thread or -1 if they could not be measured
+     */
+    public record Measurement(String name, long wallTimeNanos, long cpuTimeNanos, long allocatedBytes) {
+    }
+
+    /**
+     * The metrics of a single check.
+     *
+     * @param check the simple name of the class of the check
+     * @param linter the name of the linter that executed the check
+     * @param measurement the resources used by the check or null if the check has not been executed on its own,
+     *                    e.g. because the linter runs all of its checks at once
+     * @param problems the number of problems reported by the check, before they are merged or filtered
+     */
+    public record CheckMetrics(String check, String linter, Measurement measurement, int problems) {
+    }
+
+    /**
+     * The size of the submission.
+     *
+     * @param files the number of source files
+     * @param lines the number of lines in all source files
+     * @param types the number of types declared in the submission, including nested, local and anonymous ones
+     * @param methods the number of methods declared in the submission
+     * @param elements the number of elements in the model of the submission
+     */
+    public record ModelStatistics(int files, int lines, int types, int methods, int elements) {
+    }
+}
@@ -0,0 +1,31 @@
+package de.firemage.autograder.api;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The result of grading a single submission in batch mode.
+ *
+ * @param submission the folder of the submission that has been graded
+ * @param problems the problems found in the submission, empty if the submission could not be graded
+ * @param failures the checks that failed to execute, the other checks were still executed
+ * @param exception the exception or error that prevented the submission from being graded or null if it has been graded
+ */
+public record SubmissionResult(
+    Path submission,
+    List<? extends AbstractProblem> problems,
+    List<FailureInformation> failures,
+    Throwable exception
+) {
+    public static SubmissionResult forSuccess(Path submission, List<? extends AbstractProblem> problems, List<FailureInformation> failures) {
+        return new SubmissionResult(submission, problems, List.copyOf(failures), null);
+    }
+
+    public static SubmissionResult forFailure(Path submission, Throwable exception) {
+        return new SubmissionResult(submission, List.of(), List.of(), exception);
+    }
+
+    public boolean isSuccessful() {
+        return this.exception == null;
+    }
+}
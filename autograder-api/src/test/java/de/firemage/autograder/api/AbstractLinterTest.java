@@ -0,0 +1,62 @@
+package de.firemage.autograder.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AbstractLinterTest {
+    private static final Path SUCCEEDS = Path.of("succeeds");
+    private static final Path THROWS_EXCEPTION = Path.of("throws-exception");
+    private static final Path THROWS_ERROR = Path.of("throws-error");
+
+    private static final class FailingLinter implements AbstractLinter {
+        @Override
+        public List<? extends AbstractProblem> checkFileFallible(Path file, JavaVersion version, CheckConfiguration checkConfiguration,
+                                                                 Consumer<Translatable> statusConsumer,
+                                                                 Consumer<FailureInformation> failureConsumer) throws LinterException {
+            if (file.equals(THROWS_EXCEPTION)) {
+                throw new LinterException("The submission does not compile");
+            }
+
+            if (file.equals(THROWS_ERROR)) {
+                throw new StackOverflowError();
+            }
+
+            return List.of();
+        }
+
+        @Override
+        public String translateMessage(Translatable translatable) {
+            return translatable.toString();
+        }
+    }
+
+    @Test
+    void testOneResultForEachSubmission() throws InterruptedException {
+        List<SubmissionResult> results = new ArrayList<>();
+        new FailingLinter().checkFilesFallible(
+            List.of(THROWS_ERROR, SUCCEEDS, THROWS_EXCEPTION),
+            JavaVersion.JAVA_17,
+            CheckConfiguration.empty(),
+            results::add
+        );
+
+        assertEquals(List.of(THROWS_ERROR, SUCCEEDS, THROWS_EXCEPTION), results.stream().map(SubmissionResult::submission).toList());
+
+        assertFalse(results.get(0).isSuccessful());
+        assertInstanceOf(StackOverflowError.class, results.get(0).exception());
+
+        assertTrue(results.get(1).isSuccessful());
+
+        assertFalse(results.get(2).isSuccessful());
+        assertInstanceOf(LinterException.class, results.get(2).exception());
+    }
+}
@@ -0,0 +1,42 @@
+package de.firemage.autograder.bench;
+
+import de.firemage.autograder.core.integrated.IntegratedCheck;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Runs the benchmarks, it accepts the same arguments as the {@link Main main class of JMH}.
+ * <p>
+ * The integrated checks are not known at compile time, so unless they are given with {@code -p check=...},
+ * the {@link IntegratedCheckBenchmark} is run for every enabled integrated check.
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+            || options.shouldListProfilers() || options.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (!options.getParameter(IntegratedCheckBenchmark.CHECK_PARAMETER).hasValue()) {
+            builder.param(
+                IntegratedCheckBenchmark.CHECK_PARAMETER,
+                Checks.namesOf(IntegratedCheck.class).toArray(String[]::new)
+            );
+        }
+
+        new Runner(builder.build()).run();
+    }
+}
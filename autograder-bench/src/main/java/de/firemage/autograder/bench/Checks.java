@@ -0,0 +1,60 @@
+package de.firemage.autograder.bench;
+
+import de.firemage.autograder.core.Linter;
+import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.Check;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Creates the checks that are benchmarked.
+ */
+final class Checks {
+    private static final Linter LINTER = Linter.defaultLinter(Locale.US);
+
+    private Checks() {
+    }
+
+    static Linter linter() {
+        return LINTER;
+    }
+
+    /**
+     * Creates new instances of all enabled checks of the given type.
+     *
+     * @param type the type of the checks, e.g. the check type that is supported by a linter
+     * @return the checks in the order in which they are run by the linter
+     * @param <T> the type of the checks
+     */
+    static <T extends Check> List<T> allOf(Class<T> type) {
+        return LINTER.findChecksForProblemTypes(Arrays.asList(ProblemType.values()))
+            .stream()
+            .filter(type::isInstance)
+            .map(type::cast)
+            .toList();
+    }
+
+    /**
+     * Creates a new instance of the check with the given simple name.
+     *
+     * @param type the type of the check
+     * @param name the simple name of the class of the check
+     * @return the check
+     * @param <T> the type of the check
+     */
+    static <T extends Check> T named(Class<T> type, String name) {
+        return allOf(type).stream()
+            .filter(check -> check.getClass().getSimpleName().equals(name))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("There is no enabled check named '%s'".formatted(name)));
+    }
+
+    static <T extends Check> List<String> namesOf(Class<T> type) {
+        return allOf(type).stream()
+            .map(check -> check.getClass().getSimpleName())
+            .distinct()
+            .toList();
+    }
+}
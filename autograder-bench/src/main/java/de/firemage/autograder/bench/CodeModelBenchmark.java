@@ -0,0 +1,97 @@
+package de.firemage.autograder.bench;
+
+import de.firemage.autograder.core.CodeModel;
+import de.firemage.autograder.core.compiler.CompilationFailureException;
+import de.firemage.autograder.core.compiler.CompilationResult;
+import de.firemage.autograder.core.compiler.Compiler;
+import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.integrated.AncestorIndex;
+import de.firemage.autograder.core.integrated.DuplicateCodeFinder;
+import de.firemage.autograder.core.integrated.MethodHierarchy;
+import de.firemage.autograder.core.integrated.UsesFinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import spoon.reflect.CtModel;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the spoon model of a compiled submission and the analyses of the model.
+ * <p>
+ * The analyses are rebuilt on a model that has already been built, so they are measured in isolation.
+ * Except for the ancestor index, they are built on demand, so they are registered again before each build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CodeModelBenchmark {
+    @Param({"A1", "Bank", "Test", "A1x8"})
+    public String submission;
+
+    private TempLocation tempLocation;
+    private SourceInfo source;
+    private CompilationResult compilationResult;
+    private CtModel model;
+
+    @Setup
+    public void setup() throws IOException, CompilationFailureException {
+        this.tempLocation = TempLocation.random();
+        this.source = Submissions.load(this.submission, this.tempLocation);
+        this.compilationResult = new Compiler(this.source.getVersion()).compile(this.source).orElseThrow();
+        this.model = this.buildModel();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.tempLocation.close();
+    }
+
+    @Benchmark
+    public CtModel buildModel() {
+        CodeModel codeModel = CodeModel.buildFor(this.source, this.compilationResult.classes(), null);
+        codeModel.ensureModelBuild();
+        return codeModel.getModel();
+    }
+
+    @Benchmark
+    public CtModel ancestorIndex() {
+        AncestorIndex.buildFor(this.model);
+        return this.model;
+    }
+
+    @Benchmark
+    public CtModel methodHierarchy() {
+        MethodHierarchy.prepareFor(this.model);
+        MethodHierarchy.buildFor(this.model);
+        return this.model;
+    }
+
+    @Benchmark
+    public CtModel usesFinder() {
+        UsesFinder.prepareFor(this.model);
+        UsesFinder.buildFor(this.model);
+        return this.model;
+    }
+
+    @Benchmark
+    public CtModel duplicateCodeFinder() {
+        DuplicateCodeFinder.prepareFor(this.model);
+        DuplicateCodeFinder.buildFor(this.model);
+        return this.model;
+    }
+}
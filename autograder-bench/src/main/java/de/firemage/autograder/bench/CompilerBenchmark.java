@@ -0,0 +1,58 @@
+package de.firemage.autograder.bench;
+
+import de.firemage.autograder.core.compiler.CompilationFailureException;
+import de.firemage.autograder.core.compiler.CompilationResult;
+import de.firemage.autograder.core.compiler.Compiler;
+import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the compilation of a submission with javac.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CompilerBenchmark {
+    @Param({"A1", "Bank", "Test", "A1x8"})
+    public String submission;
+
+    @Param({"true", "false"})
+    public boolean generateClasses;
+
+    private TempLocation tempLocation;
+    private SourceInfo source;
+
+    @Setup
+    public void setup() throws IOException {
+        this.tempLocation = TempLocation.random();
+        this.source = Submissions.load(this.submission, this.tempLocation);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.tempLocation.close();
+    }
+
+    @Benchmark
+    public CompilationResult compile() throws IOException, CompilationFailureException {
+        return new Compiler(this.source.getVersion(), this.generateClasses).compile(this.source).orElseThrow();
+    }
+}
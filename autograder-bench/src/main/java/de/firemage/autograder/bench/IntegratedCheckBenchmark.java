@@ -0,0 +1,73 @@
+package de.firemage.autograder.bench;
+
+import de.firemage.autograder.core.Problem;
+import de.firemage.autograder.core.compiler.CompilationFailureException;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.file.UploadedFile;
+import de.firemage.autograder.core.integrated.IntegratedCheck;
+import de.firemage.autograder.core.integrated.StaticAnalysis;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the integrated checks on a submission whose model has already been built.
+ * <p>
+ * The check that is run by {@link #check()} is selected by its simple class name with the parameter
+ * {@value #CHECK_PARAMETER}, the {@link BenchmarkMain} runs it for all enabled checks by default.
+ * Visitor checks traverse the model on their own here, all checks together are measured by the {@link LinterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IntegratedCheckBenchmark {
+    static final String CHECK_PARAMETER = "check";
+
+    @Param({"A1", "Bank", "Test", "A1x8"})
+    public String submission;
+
+    // there are no default values, they have to be passed to the runner
+    @Param
+    public String check;
+
+    private TempLocation tempLocation;
+    private UploadedFile file;
+    private StaticAnalysis staticAnalysis;
+    private IntegratedCheck integratedCheck;
+
+    @Setup
+    public void setup() throws IOException, CompilationFailureException {
+        this.tempLocation = TempLocation.random();
+        this.file = UploadedFile.build(Submissions.load(this.submission, this.tempLocation), this.tempLocation, status -> {}, null);
+        this.file.getModel().ensureModelBuild();
+        this.staticAnalysis = new StaticAnalysis(this.file.getModel(), this.file.getCompilationResult());
+        this.integratedCheck = Checks.named(IntegratedCheck.class, this.check);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.file.close();
+        this.tempLocation.close();
+    }
+
+    @Benchmark
+    public List<Problem> check() {
+        return this.integratedCheck.run(this.staticAnalysis, this.file.getSource());
+    }
+}
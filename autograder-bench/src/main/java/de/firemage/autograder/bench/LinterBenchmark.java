@@ -0,0 +1,108 @@
+package de.firemage.autograder.bench;
+
+import de.firemage.autograder.api.FailureInformation;
+import de.firemage.autograder.core.CodeLinter;
+import de.firemage.autograder.core.Problem;
+import de.firemage.autograder.core.check.Check;
+import de.firemage.autograder.core.compiler.CompilationFailureException;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.file.UploadedFile;
+import de.firemage.autograder.core.integrated.IntegratedAnalysis;
+import de.firemage.autograder.core.integrated.IntegratedCheck;
+import de.firemage.autograder.extra.errorprone.ErrorProneCheck;
+import de.firemage.autograder.extra.errorprone.ErrorProneLinter;
+import de.firemage.autograder.extra.pmd.PMDCheck;
+import de.firemage.autograder.extra.pmd.PMDLinter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each linter with all of its checks on a submission that has already been compiled.
+ * <p>
+ * The linters run on a single thread. The JVM is started with the exports error-prone needs,
+ * like the jar of the command line interface, so error-prone runs in the same JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {
+    "--add-exports=jdk.compiler/com.sun.tools.javac.api=ALL-UNNAMED",
+    "--add-exports=jdk.compiler/com.sun.tools.javac.file=ALL-UNNAMED",
+    "--add-exports=jdk.compiler/com.sun.tools.javac.code=ALL-UNNAMED",
+    "--add-exports=jdk.compiler/com.sun.tools.javac.comp=ALL-UNNAMED",
+    "--add-exports=jdk.compiler/com.sun.tools.javac.main=ALL-UNNAMED",
+    "--add-exports=jdk.compiler/com.sun.tools.javac.model=ALL-UNNAMED",
+    "--add-exports=jdk.compiler/com.sun.tools.javac.parser=ALL-UNNAMED",
+    "--add-exports=jdk.compiler/com.sun.tools.javac.processing=ALL-UNNAMED",
+    "--add-exports=jdk.compiler/com.sun.tools.javac.tree=ALL-UNNAMED",
+    "--add-exports=jdk.compiler/com.sun.tools.javac.util=ALL-UNNAMED",
+    "--add-exports=jdk.compiler/com.sun.source.tree=ALL-UNNAMED"
+})
+public class LinterBenchmark {
+    @Param({"A1", "Bank", "Test", "A1x8"})
+    public String submission;
+
+    private TempLocation tempLocation;
+    private UploadedFile file;
+    private List<IntegratedCheck> integratedChecks;
+    private List<PMDCheck> pmdChecks;
+    private List<ErrorProneCheck> errorProneChecks;
+
+    @Setup
+    public void setup() throws IOException, CompilationFailureException {
+        this.tempLocation = TempLocation.random();
+        this.file = UploadedFile.build(Submissions.load(this.submission, this.tempLocation), this.tempLocation, status -> {}, null);
+        this.file.getModel().ensureModelBuild();
+        this.integratedChecks = Checks.allOf(IntegratedCheck.class);
+        this.pmdChecks = Checks.allOf(PMDCheck.class);
+        this.errorProneChecks = Checks.allOf(ErrorProneCheck.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.file.close();
+        this.tempLocation.close();
+    }
+
+    private <T extends Check> List<Problem> lint(CodeLinter<T> linter, List<? extends T> checks) throws IOException {
+        return linter.lint(
+            this.file,
+            this.tempLocation,
+            null,
+            checks,
+            status -> {},
+            FailureInformation.failFastConsumer()
+        );
+    }
+
+    @Benchmark
+    public List<Problem> integratedAnalysis() throws IOException {
+        return this.lint(new IntegratedAnalysis(), this.integratedChecks);
+    }
+
+    @Benchmark
+    public List<Problem> pmd() throws IOException {
+        return this.lint(new PMDLinter(), this.pmdChecks);
+    }
+
+    @Benchmark
+    public List<Problem> errorProne() throws IOException {
+        return this.lint(new ErrorProneLinter(), this.errorProneChecks);
+    }
+}
@@ -0,0 +1,79 @@
+package de.firemage.autograder.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.firemage.autograder.api.AbstractCodePosition;
+import de.firemage.autograder.api.CheckConfiguration;
+import de.firemage.autograder.cmd.output.Annotation;
+import de.firemage.autograder.core.Linter;
+import de.firemage.autograder.core.Problem;
+import de.firemage.autograder.core.check.Check;
+import de.firemage.autograder.core.compiler.CompilationFailureException;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.file.UploadedFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the translation of the reported problems and writing them as JSON like the command line interface does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OutputBenchmark {
+    @Param({"A1", "Bank", "Test", "A1x8"})
+    public String submission;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Linter linter;
+    private List<Problem> problems;
+
+    @Setup
+    public void setup() throws IOException, CompilationFailureException {
+        this.linter = Checks.linter();
+        try (TempLocation tempLocation = TempLocation.random();
+             UploadedFile file = UploadedFile.build(Submissions.load(this.submission, tempLocation), tempLocation, status -> {}, null)) {
+            this.problems = this.linter.checkFile(file, CheckConfiguration.empty(), Checks.allOf(Check.class), status -> {});
+        }
+    }
+
+    @Benchmark
+    public void translate(Blackhole blackhole) {
+        for (Problem problem : this.problems) {
+            blackhole.consume(this.linter.translateMessage(problem.getExplanation()));
+        }
+    }
+
+    @Benchmark
+    public String json() throws JsonProcessingException {
+        return this.mapper.writeValueAsString(this.problems.stream().map(this::toAnnotation).toList());
+    }
+
+    private Annotation toAnnotation(Problem problem) {
+        AbstractCodePosition position = problem.getPosition();
+        return new Annotation(
+            problem.getType(),
+            this.linter.translateMessage(problem.getExplanation()),
+            position.path().toString().replace("\\", "/"),
+            position.startLine(),
+            position.endLine()
+        );
+    }
+}
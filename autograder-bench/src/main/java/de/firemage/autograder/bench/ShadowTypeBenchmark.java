@@ -0,0 +1,100 @@
+package de.firemage.autograder.bench;
+
+import de.firemage.autograder.core.CodeModel;
+import de.firemage.autograder.core.compiler.CompilationFailureException;
+import de.firemage.autograder.core.compiler.CompilationResult;
+import de.firemage.autograder.core.compiler.Compiler;
+import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import spoon.reflect.CtModel;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building the shadow types of the JDK through reflection for each model with copying them from the
+ * types that are shared by all models.
+ * <p>
+ * Each invocation builds a new model and resolves all types it references, which creates the shadow types
+ * that the checks would request. The benchmarks with multiple threads build the models concurrently, like the batch mode does.
+ * Run it with {@code -prof gc} to compare the allocations as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ShadowTypeBenchmark {
+    private static final String REFLECTED_SHADOW_TYPES = "-Dautograder.sharedShadowTypes=false";
+
+    @Param({"A1", "Bank", "Test"})
+    public String submission;
+
+    private TempLocation tempLocation;
+    private SourceInfo source;
+    private CompilationResult compilationResult;
+
+    @Setup
+    public void setup() throws IOException, CompilationFailureException {
+        this.tempLocation = TempLocation.random();
+        this.source = Submissions.load(this.submission, this.tempLocation);
+        this.compilationResult = new Compiler(this.source.getVersion()).compile(this.source).orElseThrow();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.tempLocation.close();
+    }
+
+    private CtModel buildModel() {
+        CtModel model = CodeModel.buildFor(this.source, this.compilationResult.classes(), null).getModel();
+        for (CtTypeReference<?> ctTypeReference : model.getElements(new TypeFilter<CtTypeReference<?>>(CtTypeReference.class))) {
+            try {
+                ctTypeReference.getTypeDeclaration();
+            } catch (RuntimeException exception) {
+                // some references can not be resolved (e.g. type parameters without bounds)
+            }
+        }
+        return model;
+    }
+
+    @Benchmark
+    public CtModel sharedShadowTypes() {
+        return this.buildModel();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = REFLECTED_SHADOW_TYPES)
+    public CtModel reflectedShadowTypes() {
+        return this.buildModel();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public CtModel sharedShadowTypesConcurrently() {
+        return this.buildModel();
+    }
+
+    @Benchmark
+    @Threads(4)
+    @Fork(value = 1, jvmArgsAppend = REFLECTED_SHADOW_TYPES)
+    public CtModel reflectedShadowTypesConcurrently() {
+        return this.buildModel();
+    }
+}
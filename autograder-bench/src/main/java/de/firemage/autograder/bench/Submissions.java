@@ -0,0 +1,124 @@
+package de.firemage.autograder.bench;
+
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.core.file.FileSourceInfo;
+import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads the submissions the benchmarks are run on.
+ * <p>
+ * A submission is either the name of a folder in {@code test_submissions} (e.g. {@code A1}) or such a name
+ * followed by {@code x} and a factor (e.g. {@code A1x8}). The latter is a synthetic submission that contains
+ * the code of the original submission that many times, each copy in its own package.
+ * <p>
+ * The folder with the submissions can be set with the system property {@value #SUBMISSIONS_PROPERTY},
+ * by default it is searched in the working directory and its parent.
+ */
+final class Submissions {
+    private static final String SUBMISSIONS_PROPERTY = "autograder.bench.submissions";
+    private static final String SUBMISSIONS_FOLDER = "test_submissions";
+    private static final JavaVersion JAVA_VERSION = JavaVersion.JAVA_17;
+    private static final Pattern SCALED_SUBMISSION = Pattern.compile("(.+)x(\\d+)");
+    private static final Pattern PACKAGE_DECLARATION = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+
+    private Submissions() {
+    }
+
+    /**
+     * Loads the given submission.
+     *
+     * @param submission the name of the submission, see the class documentation for the format
+     * @param tempLocation the location where synthetic submissions are written to
+     * @return the source code of the submission
+     * @throws IOException if the submission could not be read
+     */
+    static SourceInfo load(String submission, TempLocation tempLocation) throws IOException {
+        Matcher matcher = SCALED_SUBMISSION.matcher(submission);
+        if (!matcher.matches()) {
+            return new FileSourceInfo(findCode(submission), JAVA_VERSION);
+        }
+
+        Path code = findCode(matcher.group(1));
+        int factor = Integer.parseInt(matcher.group(2));
+        Path target = tempLocation.createTempDirectory("synthetic").toPath();
+        writeScaledCopy(code, factor, target);
+
+        return new FileSourceInfo(target, JAVA_VERSION);
+    }
+
+    private static Path findCode(String name) throws IOException {
+        String configuredFolder = System.getProperty(SUBMISSIONS_PROPERTY);
+        Path folder;
+        if (configuredFolder != null) {
+            folder = Path.of(configuredFolder);
+        } else if (Files.isDirectory(Path.of(SUBMISSIONS_FOLDER))) {
+            folder = Path.of(SUBMISSIONS_FOLDER);
+        } else {
+            // the benchmarks might be started from the module folder
+            folder = Path.of("..", SUBMISSIONS_FOLDER);
+        }
+
+        Path code = folder.resolve(name).resolve("code");
+        if (!Files.isDirectory(code)) {
+            throw new IOException("Could not find the submission '%s' in '%s'".formatted(name, folder.toAbsolutePath()));
+        }
+
+        return code;
+    }
+
+    private static void writeScaledCopy(Path code, int factor, Path target) throws IOException {
+        Map<Path, String> files = new LinkedHashMap<>();
+        try (Stream<Path> paths = Files.walk(code)) {
+            for (Path path : paths.filter(path -> path.toString().endsWith(".java")).sorted().toList()) {
+                files.put(code.relativize(path), Files.readString(path, StandardCharsets.UTF_8));
+            }
+        }
+
+        // the imports of the submission itself have to be moved to the package of the copy as well
+        Set<String> rootPackages = files.values()
+            .stream()
+            .map(PACKAGE_DECLARATION::matcher)
+            .filter(Matcher::find)
+            .map(matcher -> matcher.group(1).split("\\.")[0])
+            .collect(Collectors.toSet());
+        Pattern ownReference = rootPackages.isEmpty() ? null : Pattern.compile(
+            "^(\\s*(?:package|import|import\\s+static)\\s+)((?:%s)\\.|(?:%s)\\s*;)".formatted(
+                String.join("|", rootPackages),
+                String.join("|", rootPackages)
+            ),
+            Pattern.MULTILINE
+        );
+
+        for (int i = 0; i < factor; i++) {
+            String copyPackage = "copy" + i;
+            for (var entry : files.entrySet()) {
+                String content = entry.getValue();
+                if (ownReference != null) {
+                    content = ownReference.matcher(content).replaceAll("$1" + copyPackage + ".$2");
+                }
+
+                if (!PACKAGE_DECLARATION.matcher(content).find()) {
+                    // the default package is shared by all copies, so each copy gets its own package
+                    content = "package %s;%n%s".formatted(copyPackage, content);
+                }
+
+                Path file = target.resolve(copyPackage).resolve(entry.getKey().toString());
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, content, StandardCharsets.UTF_8);
+            }
+        }
+    }
+}
@@ -1,22 +1,30 @@
 package de.firemage.autograder.cmd;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import de.firemage.autograder.api.CheckConfiguration;
 import de.firemage.autograder.api.AbstractCodePosition;
 import de.firemage.autograder.api.JavaVersion;
 import de.firemage.autograder.api.AbstractLinter;
+import de.firemage.autograder.api.AnalysisMetrics;
 import de.firemage.autograder.api.LinterConfigurationException;
 import de.firemage.autograder.api.LinterException;
 import de.firemage.autograder.api.AbstractProblem;
 import de.firemage.autograder.api.AbstractTempLocation;
+import de.firemage.autograder.api.FailureInformation;
+import de.firemage.autograder.api.SubmissionResult;
 import de.firemage.autograder.api.Translatable;
 import de.firemage.autograder.api.loader.AutograderLoader;
 import de.firemage.autograder.cmd.output.Annotation;
+import de.firemage.autograder.cmd.output.BatchResult;
+import de.firemage.autograder.cmd.output.StreamSummary;
 import de.firemage.autograder.core.integrated.CoreUtil;
-import de.firemage.autograder.span.Formatter;
 import de.firemage.autograder.span.Highlight;
 import de.firemage.autograder.span.Position;
+import de.firemage.autograder.span.SourceRenderer;
 import de.firemage.autograder.span.Span;
 import de.firemage.autograder.span.Style;
 import de.firemage.autograder.span.Text;
@@ -32,16 +40,23 @@ import java.io.FileDescriptor;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Command(mixinStandardHelpOptions = true, version = "codelinter-cmd 1.0",
         description = "Static code analysis for student java code")
@@ -52,7 +67,7 @@ public class Application implements Callable<Integer> {
     @Parameters(index = "0", description = "The check configuration.")
     private String checkConfig;
 
-    @Parameters(index = "1", description = "The root folder which contains the files to check.")
+    @Parameters(index = "1", description = "The root folder which contains the files to check (or the submissions in batch mode).")
     private Path file;
 
     @Option(names = {"-j", "--java", "--java-version"}, defaultValue = "25", description = "Set the Java version.")
@@ -62,6 +77,10 @@ public class Application implements Callable<Integer> {
             "--output-json"}, description = "Output the found problems in JSON format instead of more readable plain text")
     private boolean outputJson;
 
+    @Option(names = {
+            "--output-ndjson"}, description = "Stream the found problems as newline-delimited JSON while the submission is graded, followed by a summary record")
+    private boolean outputNdjson;
+
     // TODO: remove this
     @Option(names = {
             "--static-only"}, description = "Only kept here so the grading tool keeps working, does nothing.")
@@ -77,13 +96,30 @@ public class Application implements Callable<Integer> {
     @Option(names = {"--max-problems"}, description = "The maximum number of problems to report per check", defaultValue = "10")
     private int maxProblemsPerCheck;
 
+    @Option(names = {"--batch"}, description = "Interpret the root folder as a folder with one submission per subfolder and grade all of them", defaultValue = "false")
+    private boolean isBatchMode;
+
     @Option(names = {"--debug"}, description = "Enables debug mode, note that this slows down execution", defaultValue = "false")
     private boolean isInDebugMode;
 
+    @Option(names = {"--result-cache"}, description = "A folder in which the results are stored, so unchanged submissions are not graded again")
+    private Path resultCache;
+
+    @Option(names = {"--verify-result-cache"}, description = "The fraction of cached results that are graded again and compared with the cached result", defaultValue = "0")
+    private double resultCacheVerificationRate;
+
+    @Option(names = {"--incremental"}, description = "Only analyze the changed files of a submission with checks that look at a single file, requires --result-cache", defaultValue = "false")
+    private boolean isIncrementalAnalysis;
+
+    @Option(names = {"--output-metrics"}, description = "Output how long each phase and check took as JSON after the problems, requires --output-json", defaultValue = "false")
+    private boolean outputMetrics;
+
     @Spec
     private CommandSpec spec;
 
     private final AbstractTempLocation tempLocation;
+    // the metrics of the graded submissions that have not been printed yet
+    private final Map<Path, AnalysisMetrics> metrics = new ConcurrentHashMap<>();
 
     public Application(AbstractTempLocation tempLocation) {
         this.tempLocation = tempLocation;
@@ -125,10 +161,19 @@ public class Application implements Callable<Integer> {
             CheckConfiguration checkConfiguration,
             Consumer<Translatable> statusConsumer
     ) throws LinterException, IOException {
+        if (outputNdjson) {
+            this.streamProblemsAsNdjson(linter, checkConfiguration, statusConsumer);
+            return;
+        }
+
         if (outputJson) {
             var problems = linter.checkFile(this.file, JavaVersion.fromString(this.javaVersion), checkConfiguration, statusConsumer);
             System.out.println(">> Problems <<");
             printProblemsAsJson(problems, linter);
+            if (this.outputMetrics) {
+                System.out.println(">> Metrics <<");
+                System.out.println(createObjectMapper().writeValueAsString(this.metrics.remove(this.file)));
+            }
             return;
         }
 
@@ -143,25 +188,36 @@ public class Application implements Callable<Integer> {
                 CmdUtil.println("No problems found - good job!");
             } else {
                 CmdUtil.println("Found " + problems.size() + " problem(s):");
-                problems.stream()
-                        .map(problem -> {
-                            AbstractCodePosition position = problem.getPosition();
-                            Text sourceText = Text.fromString(0, position.readSourceFile());
-                            Formatter formatter = new Formatter(
-                                    System.lineSeparator(),
-                                    highlightFromCodePosition(position, linter.translateMessage(problem.getExplanation()))
-                            );
-
-                            String result = "[%s]: %s - Found problem in '%s'%n".formatted(
+                // the source of each file is indexed once and all of its problems are rendered in one pass
+                Map<Path, List<AbstractProblem>> problemsByFile = new LinkedHashMap<>();
+                for (AbstractProblem problem : problems) {
+                    problemsByFile.computeIfAbsent(problem.getPosition().path(), path -> new ArrayList<>()).add(problem);
+                }
+
+                for (List<AbstractProblem> fileProblems : problemsByFile.values()) {
+                    AbstractCodePosition filePosition = fileProblems.get(0).getPosition();
+                    SourceRenderer renderer = new SourceRenderer(
+                            System.lineSeparator(),
+                            Text.fromString(0, filePosition.readSourceFile())
+                    );
+
+                    StringBuilder output = new StringBuilder();
+                    renderer.renderAll(
+                            fileProblems,
+                            problem -> highlightFromCodePosition(
+                                    problem.getPosition(),
+                                    linter.translateMessage(problem.getExplanation())
+                            ),
+                            (problem, out) -> out.append("[%s]: %s - Found problem in '%s'%n".formatted(
                                     problem.getType(),
                                     problem.getCheckName(),
-                                    position.toString()
-                            );
-                            result += formatter.render(sourceText);
+                                    problem.getPosition().toString()
+                            )),
+                            output
+                    );
 
-                            return result;
-                        })
-                        .forEach(string -> CmdUtil.println(string + System.lineSeparator()));
+                    CmdUtil.println(output.append(System.lineSeparator()).toString());
+                }
             }
 
             CmdUtil.endSection();
@@ -179,30 +235,133 @@ public class Application implements Callable<Integer> {
         CmdUtil.endSection();
     }
 
+    private int executeBatch(AbstractLinter linter, CheckConfiguration checkConfiguration) throws IOException {
+        List<Path> submissions;
+        try (Stream<Path> paths = Files.list(this.file)) {
+            submissions = paths.filter(Files::isDirectory)
+                    .sorted()
+                    .map(Application::resolveSourceFolder)
+                    .toList();
+        }
+
+        if (outputJson) {
+            System.out.println(">> Problems <<");
+        } else {
+            CmdUtil.beginSection("Checks");
+            CmdUtil.println("Grading " + submissions.size() + " submission(s)");
+            CmdUtil.println();
+        }
+
+        ObjectMapper mapper = createObjectMapper();
+        AtomicInteger failedSubmissions = new AtomicInteger(0);
+        try {
+            linter.checkFilesFallible(submissions, JavaVersion.fromString(this.javaVersion), checkConfiguration, result -> {
+                if (!result.isSuccessful()) {
+                    failedSubmissions.incrementAndGet();
+                }
+
+                if (outputJson) {
+                    this.printSubmissionResultAsJson(result, linter, mapper);
+                } else {
+                    this.printSubmissionResult(result, linter);
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return MISC_EXIT_CODE;
+        }
+
+        if (!outputJson) {
+            CmdUtil.println("Graded %d submission(s), %d failed".formatted(submissions.size(), failedSubmissions.get()));
+            CmdUtil.endSection();
+        }
+
+        return failedSubmissions.get() == 0 ? 0 : MISC_EXIT_CODE;
+    }
+
+    private String submissionName(SubmissionResult result) {
+        return this.file.relativize(result.submission()).toString().replace("\\", "/");
+    }
+
+    private void printSubmissionResult(SubmissionResult result, AbstractLinter linter) {
+        CmdUtil.println("Submission '%s':".formatted(this.submissionName(result)));
+        if (!result.isSuccessful()) {
+            CmdUtil.printlnErr("Failed to grade the submission: " + result.exception().getMessage());
+        } else {
+            printProblems(result.problems(), linter);
+            for (FailureInformation failure : result.failures()) {
+                CmdUtil.printlnErr("The check %s failed to execute: %s".formatted(failure.name(), failure.exception().getMessage()));
+            }
+        }
+        CmdUtil.println();
+    }
+
+    private void printSubmissionResultAsJson(SubmissionResult result, AbstractLinter linter, ObjectMapper mapper) {
+        BatchResult batchResult = new BatchResult(
+                this.submissionName(result),
+                result.problems().stream().map(problem -> toAnnotation(problem, linter)).toList(),
+                result.isSuccessful() ? null : String.valueOf(result.exception().getMessage()),
+                this.metrics.remove(result.submission())
+        );
+
+        try {
+            // one line per submission, so the output can be consumed while the other submissions are still graded
+            System.out.println(mapper.writeValueAsString(batchResult));
+        } catch (JsonProcessingException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    // Depending on the structure of the project, the code might be in a subdirectory.
+    // By default, we support explicitly specifying the folder to the first package (./src/main/java)
+    //
+    // Here we check if the project has a folder `src/<here the first package>` or `assignment/src/<here the first package>`
+    // and if so, we assume that the code is in that folder.
+    private static Path resolveSourceFolder(Path submission) {
+        Path result = submission;
+        if (Files.exists(result.resolve("src"))) {
+            result = result.resolve("src");
+        }
+
+        if (Files.exists(result.resolve("assignment/src"))) {
+            result = result.resolve("assignment/src");
+        }
+
+        return result;
+    }
+
     @Override
     public Integer call() {
         if (!JavaVersion.isValidJavaVersion(javaVersion)) {
             throw new ParameterException(this.spec.commandLine(), "Unknown java version '" + javaVersion + "'");
         }
 
-        // Depending on the structure of the project, the code might be in a subdirectory.
-        // By default, we support explicitly specifying the folder to the first package (./src/main/java)
-        //
-        // Here we check if the project has a folder `src/<here the first package>` or `assignment/src/<here the first package>`
-        // and if so, we assume that the code is in that folder.
-        if (Files.exists(this.file.resolve("src"))) {
-            this.file = this.file.resolve("src");
+        if (this.outputMetrics && !this.outputJson && !this.outputNdjson) {
+            throw new ParameterException(this.spec.commandLine(), "--output-metrics requires --output-json or --output-ndjson");
         }
 
-        if (Files.exists(this.file.resolve("assignment/src"))) {
-            this.file = this.file.resolve("assignment/src");
+        if (this.outputNdjson && (this.outputJson || this.isPrettyOutput || this.isBatchMode)) {
+            throw new ParameterException(this.spec.commandLine(), "--output-ndjson can not be combined with --output-json, --output-pretty or --batch");
+        }
+
+        if (this.resultCacheVerificationRate < 0.0 || this.resultCacheVerificationRate > 1.0) {
+            throw new ParameterException(this.spec.commandLine(), "The verification rate must be between 0 and 1");
+        }
+
+        if (this.isIncrementalAnalysis && this.resultCache == null) {
+            throw new ParameterException(this.spec.commandLine(), "--incremental requires --result-cache");
+        }
+
+        // in batch mode, the source folder is resolved for each submission
+        if (!this.isBatchMode) {
+            this.file = resolveSourceFolder(this.file);
         }
 
         if (this.isInDebugMode) {
             CoreUtil.setDebugMode();
         }
 
-        if (!outputJson) {
+        if (!outputJson && !outputNdjson) {
             System.out.println("Student source code directory is " + file);
         }
 
@@ -221,10 +380,15 @@ public class Application implements Callable<Integer> {
 
         AbstractLinter linter = AutograderLoader.instantiateLinter(AbstractLinter.builder(Locale.GERMANY)
                 .threads(0)
+                .resultCache(this.resultCache)
+                .resultCacheVerificationRate(this.resultCacheVerificationRate)
+                .incrementalAnalysis(this.isIncrementalAnalysis)
+                .metricsConsumer(this.outputMetrics ? analysisMetrics -> this.metrics.put(analysisMetrics.submission(), analysisMetrics) : null)
                 .tempLocation(this.tempLocation)
                 .maxProblemsPerCheck(this.maxProblemsPerCheck));
 
-        Consumer<Translatable> statusConsumer = status ->
+        // the status messages would break the NDJSON output
+        Consumer<Translatable> statusConsumer = this.outputNdjson ? status -> {} : status ->
                 System.out.println(linter.translateMessage(status));
 
         if (!Files.exists(file)) {
@@ -232,6 +396,15 @@ public class Application implements Callable<Integer> {
             return IO_EXIT_CODE;
         }
 
+        if (this.isBatchMode) {
+            try {
+                return this.executeBatch(linter, checkConfiguration);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return IO_EXIT_CODE;
+            }
+        }
+
         try {
             this.execute(linter, checkConfiguration, statusConsumer);
         } catch (LinterException e) {
@@ -256,23 +429,87 @@ public class Application implements Callable<Integer> {
 
     private void printProblemsAsJson(Collection<? extends AbstractProblem> problems, AbstractLinter linter) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            String jsonOutput = mapper.writeValueAsString(problems.stream().map(problem -> {
-                AbstractCodePosition position = problem.getPosition();
-                return new Annotation(
-                        problem.getType(),
-                        linter.translateMessage(problem.getExplanation()),
-                        position.path().toString().replace("\\", "/"),
-                        position.startLine(),
-                        position.endLine()
-                );
-            }).toList());
+            ObjectMapper mapper = createObjectMapper();
+            String jsonOutput = mapper.writeValueAsString(problems.stream().map(problem -> toAnnotation(problem, linter)).toList());
             System.out.println(jsonOutput);
         } catch (JsonProcessingException ex) {
             ex.printStackTrace();
         }
     }
 
+    private void streamProblemsAsNdjson(
+            AbstractLinter linter,
+            CheckConfiguration checkConfiguration,
+            Consumer<Translatable> statusConsumer
+    ) throws LinterException, IOException {
+        // a single generator is used for the whole output, every record is written as one line and flushed
+        // immediately, so the problems can be consumed while the slower linters are still running
+        try (JsonGenerator generator = createObjectMapper().createGenerator(System.out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            AtomicInteger problemCount = new AtomicInteger(0);
+            List<String> failedChecks = new ArrayList<>();
+            try {
+                linter.checkFileStreaming(
+                        this.file,
+                        JavaVersion.fromString(this.javaVersion),
+                        checkConfiguration,
+                        statusConsumer,
+                        failure -> failedChecks.add(failure.name()),
+                        problem -> {
+                            problemCount.incrementAndGet();
+                            try {
+                                writeRecord(generator, "problem", toAnnotation(problem, linter));
+                            } catch (IOException exception) {
+                                throw new UncheckedIOException(exception);
+                            }
+                        }
+                );
+            } catch (LinterException | IOException | RuntimeException exception) {
+                writeRecord(generator, "summary", new StreamSummary(
+                        problemCount.get(),
+                        failedChecks,
+                        String.valueOf(exception.getMessage()),
+                        this.metrics.remove(this.file)
+                ));
+                throw exception;
+            }
+
+            writeRecord(generator, "summary", new StreamSummary(
+                    problemCount.get(),
+                    failedChecks,
+                    null,
+                    this.metrics.remove(this.file)
+            ));
+        }
+    }
+
+    private static void writeRecord(JsonGenerator generator, String kind, Object value) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(kind);
+        generator.writeObject(value);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+
+    private static ObjectMapper createObjectMapper() {
+        // the paths in the metrics should be written like the user passed them
+        return new ObjectMapper().registerModule(new SimpleModule().addSerializer(Path.class, ToStringSerializer.instance));
+    }
+
+    private static Annotation toAnnotation(AbstractProblem problem, AbstractLinter linter) {
+        AbstractCodePosition position = problem.getPosition();
+        return new Annotation(
+                problem.getType(),
+                linter.translateMessage(problem.getExplanation()),
+                position.path().toString().replace("\\", "/"),
+                position.startLine(),
+                position.endLine()
+        );
+    }
+
     private String formatProblem(AbstractProblem problem, AbstractLinter linter) {
         return String.format("%s %s (Source: %s)",
                 problem.getDisplayLocation(),
@@ -0,0 +1,14 @@
+package de.firemage.autograder.cmd.output;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import de.firemage.autograder.api.AnalysisMetrics;
+
+import java.util.List;
+
+public record BatchResult(
+    String submission,
+    List<Annotation> annotations,
+    String error,
+    @JsonInclude(JsonInclude.Include.NON_NULL) AnalysisMetrics metrics
+) {
+}
@@ -0,0 +1,22 @@
+package de.firemage.autograder.cmd.output;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import de.firemage.autograder.api.AnalysisMetrics;
+
+import java.util.List;
+
+/**
+ * The last record of the NDJSON output, written after all problems of the submission.
+ *
+ * @param problems the number of problems that have been written before
+ * @param failedChecks the names of the checks that failed, their problems might be missing
+ * @param error the message of the error that stopped the grading, or null if the submission has been graded
+ * @param metrics the metrics of the submission, if they have been requested
+ */
+public record StreamSummary(
+    int problems,
+    List<String> failedChecks,
+    String error,
+    @JsonInclude(JsonInclude.Include.NON_NULL) AnalysisMetrics metrics
+) {
+}
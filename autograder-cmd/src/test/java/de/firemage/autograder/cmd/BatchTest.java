@@ -0,0 +1,60 @@
+package de.firemage.autograder.cmd;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchTest {
+    @Test
+    void testAllSubmissions() {
+        // Only checks whether the autograder fails for any of the submissions
+        int returnCode = Application.runApplication("../sample_config.yaml", "../test_submissions", "-j", "17", "--batch", "--output-json");
+        assertEquals(0, returnCode);
+    }
+
+    @Test
+    void testFailingSubmissionHasResult(@TempDir Path submissions) throws Exception {
+        Files.createDirectories(submissions.resolve("broken"));
+        Files.writeString(submissions.resolve("broken/Test.java"), "public class Test { void run() { undefined(); } }");
+        Files.createDirectories(submissions.resolve("valid"));
+        Files.writeString(submissions.resolve("valid/Test.java"), "public class Test { public static void main(String[] args) { } }");
+
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int returnCode;
+        try {
+            System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+            returnCode = Application.runApplication("../sample_config.yaml", submissions.toString(), "-j", "17", "--batch", "--output-json");
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        // each submission is printed as one json object per line
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> results = new HashMap<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).lines().toList()) {
+            if (line.startsWith("{")) {
+                JsonNode result = mapper.readTree(line);
+                results.put(result.get("submission").asText(), result);
+            }
+        }
+
+        assertEquals(2, results.size());
+        assertTrue(results.get("valid").get("error").isNull());
+        assertTrue(results.get("broken").get("error").isTextual());
+        assertNotEquals(0, returnCode);
+    }
+}
@@ -0,0 +1,81 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.core.check.AnalysisInput;
+import de.firemage.autograder.core.check.Check;
+import de.firemage.autograder.core.check.ExecutableCheck;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The inputs that have to be prepared to run a set of checks, so that narrow configurations
+ * (e.g. only PMD checks) do not pay for the whole pipeline.
+ *
+ * @param inputs the required inputs
+ */
+public record AnalysisPlan(Set<AnalysisInput> inputs) {
+    public AnalysisPlan {
+        inputs = Set.copyOf(inputs);
+    }
+
+    /**
+     * Derives the inputs from the linters that will run the checks and the inputs the checks declare.
+     *
+     * @param checks the checks that will be run
+     * @param linters the available linters, each check is run by the first linter that supports it
+     * @param skipClassGeneration whether the class files are only generated if they are required, then the model does not require them
+     * @return the plan
+     */
+    public static AnalysisPlan of(Iterable<? extends Check> checks, Collection<? extends CodeLinter<?>> linters, boolean skipClassGeneration) {
+        Set<AnalysisInput> inputs = EnumSet.noneOf(AnalysisInput.class);
+        for (Check check : checks) {
+            for (CodeLinter<?> linter : linters) {
+                if (linter.supportedCheckType().isInstance(check)) {
+                    inputs.addAll(linter.requiredInputs());
+                    break;
+                }
+            }
+
+            inputs.addAll(requiredBy(check));
+        }
+
+        if (inputs.contains(AnalysisInput.MODEL) && !skipClassGeneration) {
+            inputs.add(AnalysisInput.BYTECODE);
+        }
+
+        return new AnalysisPlan(inputs);
+    }
+
+    /**
+     * Returns the inputs the check declares in its {@link ExecutableCheck} annotation.
+     *
+     * @param check the check
+     * @return the declared inputs, without those of its linter
+     */
+    public static Set<AnalysisInput> requiredBy(Check check) {
+        ExecutableCheck annotation = check.getClass().getAnnotation(ExecutableCheck.class);
+        if (annotation == null || annotation.requires().length == 0) {
+            return Set.of();
+        }
+
+        return EnumSet.copyOf(Arrays.asList(annotation.requires()));
+    }
+
+    /**
+     * Returns whether the check declares in its {@link ExecutableCheck} annotation that it is file-local.
+     *
+     * @param check the check
+     * @return true if the problems of the check in a file only depend on that file
+     * @see ExecutableCheck#fileLocal()
+     */
+    public static boolean isFileLocal(Check check) {
+        ExecutableCheck annotation = check.getClass().getAnnotation(ExecutableCheck.class);
+        return annotation != null && annotation.fileLocal();
+    }
+
+    public boolean requires(AnalysisInput input) {
+        return this.inputs.contains(input);
+    }
+}
@@ -0,0 +1,18 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.api.Translatable;
+import de.firemage.autograder.core.check.Check;
+
+/**
+ * A problem that has been restored from the {@link ResultCache}.
+ */
+final class CachedProblem extends Problem {
+    CachedProblem(Check check, CodePosition position, Translatable explanation, ProblemType problemType) {
+        super(check, position, explanation, problemType);
+    }
+
+    @Override
+    public String toString() {
+        return "CachedProblem { check: '%s', position: '%s' }".formatted(this.getCheckName(), this.getPosition());
+    }
+}
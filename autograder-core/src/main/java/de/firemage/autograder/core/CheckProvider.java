@@ -0,0 +1,27 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.core.check.Check;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Lists the checks and linters of a module.
+ * <p>
+ * An implementation of this interface is generated at build time for each module with checks and registered
+ * as a service, see the autograder-processor module.
+ */
+public interface CheckProvider {
+    /**
+     * Creates a new instance of a check.
+     *
+     * @param type the class of the check, it is annotated with {@link de.firemage.autograder.core.check.ExecutableCheck}
+     * @param constructor creates a new instance of the check
+     */
+    record CheckFactory(Class<? extends Check> type, Supplier<? extends Check> constructor) {
+    }
+
+    List<CheckFactory> checks();
+
+    List<Supplier<? extends CodeLinter<?>>> linters();
+}
@@ -0,0 +1,147 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.api.AbstractProblemType;
+import de.firemage.autograder.core.check.Check;
+import de.firemage.autograder.core.check.ExecutableCheck;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ConfigurationBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * All checks and linters that are available, indexed by the problem types the checks report.
+ * <p>
+ * The checks and linters are loaded once from the {@link CheckProvider}s that are generated at build time.
+ * If there are none, e.g. because the code has been compiled without the annotation processor,
+ * the classpath is scanned instead.
+ */
+final class CheckRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(CheckRegistry.class);
+
+    private final List<CheckProvider.CheckFactory> checks;
+    private final Map<AbstractProblemType, List<CheckProvider.CheckFactory>> checksByProblemType;
+    private final List<Supplier<? extends CodeLinter<?>>> linters;
+
+    private CheckRegistry(List<CheckProvider.CheckFactory> checks, List<Supplier<? extends CodeLinter<?>>> linters) {
+        this.checks = List.copyOf(checks);
+        this.linters = List.copyOf(linters);
+
+        Map<AbstractProblemType, List<CheckProvider.CheckFactory>> index = new HashMap<>();
+        for (CheckProvider.CheckFactory check : this.checks) {
+            ExecutableCheck annotation = check.type().getAnnotation(ExecutableCheck.class);
+            if (!annotation.enabled()) {
+                continue;
+            }
+
+            for (ProblemType problemType : annotation.reportedProblems()) {
+                index.computeIfAbsent(problemType, key -> new ArrayList<>()).add(check);
+            }
+        }
+
+        this.checksByProblemType = Map.copyOf(index);
+    }
+
+    static CheckRegistry load(ClassLoader classLoader) {
+        List<CheckProvider> providers = ServiceLoader.load(CheckProvider.class, classLoader)
+            .stream()
+            .map(ServiceLoader.Provider::get)
+            .toList();
+
+        if (providers.isEmpty()) {
+            LOG.debug("No generated check provider found, scanning the classpath for checks");
+            return scanClasspath(classLoader);
+        }
+
+        List<CheckProvider.CheckFactory> checks = new ArrayList<>();
+        List<Supplier<? extends CodeLinter<?>>> linters = new ArrayList<>();
+        for (CheckProvider provider : providers) {
+            checks.addAll(provider.checks());
+            linters.addAll(provider.linters());
+        }
+
+        return new CheckRegistry(checks, linters);
+    }
+
+    private static CheckRegistry scanClasspath(ClassLoader classLoader) {
+        Collection<Class<?>> checkClasses = new LinkedHashSet<>(
+            new Reflections(new ConfigurationBuilder()
+                .forPackage("de.firemage.autograder", classLoader)
+                .addClassLoaders(classLoader)
+                .setScanners(Scanners.TypesAnnotated)
+            ).getTypesAnnotatedWith(ExecutableCheck.class)
+        );
+
+        Collection<Class<?>> linterClasses = new LinkedHashSet<>(
+            new Reflections(new ConfigurationBuilder()
+                .forPackage("de.firemage.autograder", classLoader)
+                .addClassLoaders(classLoader)
+                .setScanners(Scanners.SubTypes)
+            ).getSubTypesOf(CodeLinter.class)
+        );
+
+        List<CheckProvider.CheckFactory> checks = new ArrayList<>();
+        for (Class<?> checkClass : checkClasses) {
+            if (!Check.class.isAssignableFrom(checkClass)) {
+                throw new IllegalStateException(checkClass.getName() + " does not inherit from Check");
+            }
+
+            Class<? extends Check> type = checkClass.asSubclass(Check.class);
+            checks.add(new CheckProvider.CheckFactory(type, () -> instantiate(type)));
+        }
+
+        List<Supplier<? extends CodeLinter<?>>> linters = new ArrayList<>();
+        for (Class<?> linterClass : linterClasses) {
+            linters.add(() -> (CodeLinter<?>) instantiate(linterClass));
+        }
+
+        return new CheckRegistry(checks, linters);
+    }
+
+    private static <T> T instantiate(Class<T> type) {
+        try {
+            return type.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to instantiate " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Creates new instances of all enabled checks that report at least one of the given problem types.
+     *
+     * @param problems the problem types that should be reported
+     * @return the checks in the order in which they have been registered
+     */
+    List<Check> createChecksFor(Collection<? extends AbstractProblemType> problems) {
+        Set<CheckProvider.CheckFactory> requiredChecks = new LinkedHashSet<>();
+        for (AbstractProblemType problem : problems) {
+            requiredChecks.addAll(this.checksByProblemType.getOrDefault(problem, List.of()));
+        }
+
+        return this.checks.stream()
+            .filter(requiredChecks::contains)
+            .map(check -> (Check) check.constructor().get())
+            .toList();
+    }
+
+    /**
+     * Creates new instances of all linters.
+     *
+     * @return the linters
+     */
+    List<? extends CodeLinter<?>> createLinters() {
+        return this.linters.stream()
+            .<CodeLinter<?>>map(Supplier::get)
+            .toList();
+    }
+}
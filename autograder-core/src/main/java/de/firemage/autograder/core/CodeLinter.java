@@ -2,17 +2,30 @@ package de.firemage.autograder.core;
 
 import de.firemage.autograder.api.FailureInformation;
 import de.firemage.autograder.api.Translatable;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.Check;
 import de.firemage.autograder.api.AbstractTempLocation;
 import de.firemage.autograder.core.file.UploadedFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 
 public interface CodeLinter<T extends Check> {
     Class<? super T> supportedCheckType();
 
+    /**
+     * Returns what has to be prepared for this linter, regardless of the checks it runs.
+     * <p>
+     * By default, the linter only reads the source files.
+     *
+     * @return the required inputs
+     */
+    default Set<AnalysisInput> requiredInputs() {
+        return Set.of(AnalysisInput.SOURCE_TEXT);
+    }
+
     /**
      * Lints the given submission using the given checks.
      *
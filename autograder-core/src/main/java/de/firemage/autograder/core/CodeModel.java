@@ -1,11 +1,15 @@
 package de.firemage.autograder.core;
 
+import de.firemage.autograder.core.check.AnalysisInput;
+import de.firemage.autograder.core.compiler.CompiledClasses;
 import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.integrated.AncestorIndex;
 import de.firemage.autograder.core.integrated.DuplicateCodeFinder;
 import de.firemage.autograder.core.integrated.MethodHierarchy;
 import de.firemage.autograder.core.integrated.MethodUtil;
 import de.firemage.autograder.core.integrated.ModelBuildException;
 import de.firemage.autograder.core.integrated.UsesFinder;
+import de.firemage.autograder.core.jfr.ModelBuildEvent;
 import spoon.Launcher;
 import spoon.compiler.Environment;
 import spoon.compiler.ModelBuildingException;
@@ -18,6 +22,7 @@ import spoon.reflect.declaration.*;
 import spoon.reflect.factory.CodeFactory;
 import spoon.reflect.factory.Factory;
 import spoon.reflect.factory.FactoryImpl;
+import spoon.reflect.factory.TypeFactory;
 import spoon.reflect.reference.CtCatchVariableReference;
 import spoon.reflect.reference.CtReference;
 import spoon.reflect.visitor.*;
@@ -26,11 +31,9 @@ import spoon.support.DefaultCoreFactory;
 import spoon.support.StandardEnvironment;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,36 +42,26 @@ import java.util.Optional;
  */
 public final class CodeModel implements AutoCloseable {
     private final SourceInfo file;
-    private final Path jar;
-    private final ClassLoader userClassLoader;
-    private final URLClassLoader classLoader;
+    private final ClassLoader classLoader;
     private Factory factory;
     private CtModel model;
     private CtPackage basePackage;
     private MethodHierarchy methodHierarchy;
     private Optional<CtMethod<Void>> mainMethod;
 
-    private CodeModel(SourceInfo file, Path jar, ClassLoader classLoader) {
+    private CodeModel(SourceInfo file, CompiledClasses classes, ClassLoader classLoader) {
         this.file = file;
-        this.jar = jar;
 
         if (classLoader != null) {
-            this.userClassLoader = classLoader;
-            this.classLoader = null;
+            this.classLoader = classLoader;
         } else {
-            // Use a custom class loader because spoon won't close its standard URLClassLoader and will leak the handle to the jar file
-            try {
-                this.classLoader =
-                        new URLClassLoader(new URL[]{jar.toUri().toURL()}, Thread.currentThread().getContextClassLoader());
-                this.userClassLoader = null;
-            } catch (MalformedURLException e) {
-                throw new RuntimeException(e);
-            }
+            // The compiled classes are only kept in memory, so they are loaded from there
+            this.classLoader = classes.createClassLoader(Thread.currentThread().getContextClassLoader());
         }
     }
 
-    public static CodeModel buildFor(SourceInfo file, Path jar, ClassLoader classLoader) {
-        return new CodeModel(file, jar, classLoader);
+    public static CodeModel buildFor(SourceInfo file, CompiledClasses classes, ClassLoader classLoader) {
+        return new CodeModel(file, classes, classLoader);
     }
 
     public void ensureModelBuild() {
@@ -116,6 +109,29 @@ public final class CodeModel implements AutoCloseable {
         return this.findMain() != null;
     }
 
+    /**
+     * Builds the given indexes of the model now, instead of when they are requested for the first time.
+     * <p>
+     * This is called before the checks are run, so that the indexes they need are built together with the model
+     * and not by the first check that requests them.
+     *
+     * @param inputs the inputs that are required, those that are not indexes of the model are ignored
+     */
+    public void buildIndexes(Collection<AnalysisInput> inputs) {
+        this.buildModelMaybe();
+
+        for (AnalysisInput input : inputs) {
+            switch (input) {
+                case USES -> UsesFinder.buildFor(this.model);
+                case METHOD_HIERARCHY -> MethodHierarchy.buildFor(this.model);
+                case DUPLICATE_CODE -> DuplicateCodeFinder.buildFor(this.model);
+                default -> {
+                    // not an index of the model
+                }
+            }
+        }
+    }
+
     public CtPackage getBasePackage() {
         this.buildModelMaybe();
         return basePackage;
@@ -128,9 +144,7 @@ public final class CodeModel implements AutoCloseable {
 
     @Override
     public void close() throws IOException {
-        if (this.classLoader != null) {
-            this.classLoader.close();
-        }
+        // nothing to release, the compiled classes are kept in memory
     }
 
     @SuppressWarnings({"java:S3599", "java:S1171"}) // ignore some sonarlint warnings
@@ -150,6 +164,29 @@ public final class CodeModel implements AutoCloseable {
             // Fix for something similar to https://github.com/INRIA/spoon/issues/5868
             Factory baseFactory = new FactoryImpl(new DefaultCoreFactory(), new StandardEnvironment()) {
                 private transient CodeFactory code;
+                private transient TypeFactory type;
+
+                @Override
+                public TypeFactory Type() {
+                    if (this.type == null) {
+                        this.type = new TypeFactory(this) {
+                            @Override
+                            public <T> CtType<T> get(Class<?> cl) {
+                                if (!SharedShadowTypes.isShared(cl)) {
+                                    return super.get(cl);
+                                }
+
+                                // The types of the JDK are copied instead of being created through reflection
+                                CtType<T> ctType = this.get(cl.getName());
+                                if (ctType == null) {
+                                    ctType = SharedShadowTypes.copyInto(this.factory, cl);
+                                }
+                                return ctType;
+                            }
+                        };
+                    }
+                    return this.type;
+                }
 
                 @Override
                 public CodeFactory Code() {
@@ -178,7 +215,6 @@ public final class CodeModel implements AutoCloseable {
             Launcher launcher = new Launcher(baseFactory);
             launcher.addInputResource(file.getSpoonResource());
             launcher.getEnvironment().setShouldCompile(false);
-            launcher.getEnvironment().setSourceClasspath(new String[]{jar.toAbsolutePath().toString()});
             launcher.getEnvironment().setNoClasspath(false);
             launcher.getEnvironment().setCommentEnabled(true);
             launcher.getEnvironment().setComplianceLevel(this.file.getVersion().getVersionNumber());
@@ -214,17 +250,20 @@ public final class CodeModel implements AutoCloseable {
                 }
             });
 
-            if (this.userClassLoader != null) {
-                launcher.getEnvironment().setInputClassLoader(this.userClassLoader);
-            } else {
-                launcher.getEnvironment().setInputClassLoader(this.classLoader);
-            }
+            launcher.getEnvironment().setInputClassLoader(this.classLoader);
 
             CtModel model;
+            ModelBuildEvent event = new ModelBuildEvent();
+            event.begin();
             try {
                 model = launcher.buildModel();
             } catch (ModelBuildingException e) {
                 throw new RuntimeException(new ModelBuildException("Failed to parse the code", e));
+            } finally {
+                if (event.shouldCommit()) {
+                    event.setSubmission(this.file.path().toString());
+                    event.commit();
+                }
             }
             this.factory = launcher.getFactory();
 
@@ -248,9 +287,12 @@ public final class CodeModel implements AutoCloseable {
                 }
             });
 
-            MethodHierarchy.buildFor(model);
-            UsesFinder.buildFor(model);
-            DuplicateCodeFinder.buildFor(model);
+            // the other analyses already benefit from the index
+            AncestorIndex.buildFor(model);
+            // the other indexes are only built if they are requested, see buildIndexes
+            MethodHierarchy.prepareFor(model);
+            UsesFinder.prepareFor(model);
+            DuplicateCodeFinder.prepareFor(model);
 
             // Only set the model at the end when everything has been initialized
             this.model = model;
@@ -84,7 +84,7 @@ public record CodePosition(SourceInfo sourceInfo, SourcePath file, int startLine
     @Override
     public String readSourceFile() {
         try {
-            return this.sourceInfo.getCompilationUnit(this.file).readString();
+            return this.sourceInfo.getCompilationUnit(this.file).sourceText().text();
         } catch (IOException exception) {
             throw new IllegalStateException("Could not read source file", exception);
         }
@@ -0,0 +1,142 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.core.check.Check;
+import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.file.SourcePath;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The problems of {@link de.firemage.autograder.core.check.ExecutableCheck#fileLocal() file-local} checks
+ * in an incremental analysis.
+ * <p>
+ * The file-local checks only have to analyze the files that have changed, their problems in the other files
+ * are taken from the {@link ResultCache}. The problems of each linter are completed as soon as it has finished,
+ * so they can be passed on like without incremental analysis. The problems of a file-local check are ordered
+ * by their files, in the order of the files of the source.
+ */
+final class FileLocalProblems {
+    private final Set<Check> fileLocalChecks;
+    private final Map<SourcePath, ResultCache.Lookup> lookups;
+    private final Set<SourcePath> changedFiles;
+    // the problems of file-local checks that have been found in the changed files, they are stored once all linters have finished
+    private final Map<SourcePath, List<Problem>> newProblems;
+
+    private FileLocalProblems(List<? extends Check> fileLocalChecks, Map<SourcePath, ResultCache.Lookup> lookups, boolean reuseProblems) {
+        this.fileLocalChecks = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.fileLocalChecks.addAll(fileLocalChecks);
+        this.lookups = lookups;
+        this.changedFiles = lookups.entrySet()
+            .stream()
+            .filter(entry -> !reuseProblems || !entry.getValue().isHit())
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toUnmodifiableSet());
+        this.newProblems = new HashMap<>();
+        for (SourcePath file : this.changedFiles) {
+            this.newProblems.put(file, new ArrayList<>());
+        }
+    }
+
+    /**
+     * Looks up the stored problems of the file-local checks for each file of the source.
+     *
+     * @param resultCache the cache in which the problems of each file are stored
+     * @param source the source code of the submission
+     * @param checks all checks that will be run, the ones that are not file-local are ignored
+     * @param reuseProblems false if every file should be analyzed again, e.g. to verify a stored result
+     * @return the problems or null if none of the checks is file-local
+     * @throws IOException if the source files could not be read
+     */
+    static FileLocalProblems lookup(ResultCache resultCache, SourceInfo source, List<? extends Check> checks, boolean reuseProblems)
+        throws IOException {
+        List<? extends Check> fileLocalChecks = checks.stream().filter(AnalysisPlan::isFileLocal).toList();
+        if (fileLocalChecks.isEmpty()) {
+            return null;
+        }
+
+        return new FileLocalProblems(fileLocalChecks, resultCache.lookupFiles(source, fileLocalChecks), reuseProblems);
+    }
+
+    /**
+     * Returns the files that have to be analyzed by the file-local checks.
+     *
+     * @return the files whose problems are not known
+     */
+    Set<SourcePath> changedFiles() {
+        return this.changedFiles;
+    }
+
+    /**
+     * Adds the stored problems of the unchanged files to the problems of a linter.
+     * <p>
+     * Problems of file-local checks in unchanged files are replaced by the stored ones, in case the linter
+     * has analyzed those files anyway.
+     *
+     * @param checks the checks that have been run by the linter in the order in which they have been run
+     * @param problems the problems that have been reported by the linter
+     * @return all problems of the checks, grouped by check
+     */
+    synchronized List<Problem> complete(List<? extends Check> checks, List<Problem> problems) {
+        Map<Check, List<Problem>> problemsByCheck = new IdentityHashMap<>();
+        for (Problem problem : problems) {
+            problemsByCheck.computeIfAbsent(problem.getCheck(), check -> new ArrayList<>()).add(problem);
+        }
+
+        List<Problem> result = new ArrayList<>(problems.size());
+        for (Check check : checks) {
+            List<Problem> problemsOfCheck = problemsByCheck.getOrDefault(check, List.of());
+            if (!this.fileLocalChecks.contains(check)) {
+                result.addAll(problemsOfCheck);
+                continue;
+            }
+
+            Map<SourcePath, List<Problem>> problemsByFile = new HashMap<>();
+            for (Problem problem : problemsOfCheck) {
+                problemsByFile.computeIfAbsent(problem.getPosition().file(), file -> new ArrayList<>()).add(problem);
+            }
+
+            for (var entry : this.lookups.entrySet()) {
+                SourcePath file = entry.getKey();
+                if (this.changedFiles.contains(file)) {
+                    List<Problem> problemsInFile = problemsByFile.getOrDefault(file, List.of());
+                    this.newProblems.get(file).addAll(problemsInFile);
+                    result.addAll(problemsInFile);
+                } else {
+                    entry.getValue()
+                        .problems()
+                        .orElseThrow()
+                        .stream()
+                        .filter(problem -> problem.getCheck() == check)
+                        .forEach(result::add);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Stores the problems of the changed files, so they can be reused when the files are graded again.
+     * <p>
+     * This must only be called after all linters have finished without a failure.
+     *
+     * @param resultCache the cache in which the problems are stored
+     */
+    synchronized void store(ResultCache resultCache) {
+        Map<ResultCache.Lookup, List<Problem>> problemsByLookup = new LinkedHashMap<>();
+        for (SourcePath file : this.changedFiles) {
+            problemsByLookup.put(this.lookups.get(file), this.newProblems.get(file));
+        }
+
+        resultCache.storeAll(problemsByLookup);
+    }
+}
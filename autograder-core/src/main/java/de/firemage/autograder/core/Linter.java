@@ -1,41 +1,58 @@
 package de.firemage.autograder.core;
 
 import de.firemage.autograder.api.AbstractLinter;
+import de.firemage.autograder.api.AbstractProblem;
 import de.firemage.autograder.api.AbstractProblemType;
+import de.firemage.autograder.api.AnalysisMetrics;
 import de.firemage.autograder.api.CheckConfiguration;
 import de.firemage.autograder.api.FailureInformation;
 import de.firemage.autograder.api.JavaVersion;
 import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.api.SubmissionResult;
 import de.firemage.autograder.api.Translatable;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.Check;
-import de.firemage.autograder.core.check.ExecutableCheck;
+import de.firemage.autograder.core.file.FileSourceInfo;
+import de.firemage.autograder.core.file.SourceInfo;
 import de.firemage.autograder.core.file.SourcePath;
 import de.firemage.autograder.core.file.TempLocation;
 import de.firemage.autograder.core.file.UploadedFile;
-import org.reflections.Reflections;
-import org.reflections.scanners.Scanners;
-import org.reflections.util.ConfigurationBuilder;
+import de.firemage.autograder.core.jfr.LinterEvent;
+import de.firemage.autograder.core.jfr.SubmissionEvent;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public final class Linter implements AbstractLinter {
     private final int threads;
+    private final Concurrency concurrency;
     private final TempLocation tempLocation;
     private final ClassLoader classLoader;
     private final int maxProblemsPerCheck;
+    private final boolean skipClassGeneration;
+    private final ResultCache resultCache;
+    private final boolean incrementalAnalysis;
+    private final Consumer<? super AnalysisMetrics> metricsConsumer;
+    private final Object metricsLock = new Object();
     private final Translations translations;
 
     public static Linter defaultLinter(Locale locale) {
@@ -48,8 +65,18 @@ public final class Linter implements AbstractLinter {
         this.translations = new Translations(builder.getLocale(), builder.getMessageOverrides(), builder.getConditionalOverrides());
         this.tempLocation = builder.getTempLocation() != null ? (TempLocation) builder.getTempLocation() : TempLocation.random();
         this.threads = builder.getThreads();
+        this.concurrency = new Concurrency(builder.getLinterThreads() > 0 ? builder.getLinterThreads() : Integer.MAX_VALUE);
         this.classLoader = builder.getClassLoader();
         this.maxProblemsPerCheck = builder.getMaxProblemsPerCheck();
+        this.skipClassGeneration = builder.isClassGenerationSkipped();
+        this.resultCache = builder.getResultCache() == null ? null : new ResultCache(
+            builder.getResultCache(),
+            builder.getResultCacheMaxSize(),
+            builder.getResultCacheMaxAge(),
+            builder.getResultCacheVerificationRate()
+        );
+        this.incrementalAnalysis = builder.isIncrementalAnalysis();
+        this.metricsConsumer = builder.getMetricsConsumer();
     }
 
     public Translations getTranslations() {
@@ -61,8 +88,229 @@ public final class Linter implements AbstractLinter {
                                                              Consumer<Translatable> statusConsumer,
                                                              Consumer<FailureInformation> failureConsumer)
         throws LinterException, IOException {
-        try (var uploadedFile = UploadedFile.build(file, version, this.tempLocation, statusConsumer, this.classLoader)) {
-            return this.checkFileFallible(uploadedFile, checkConfiguration, statusConsumer, failureConsumer);
+        return this.checkFileFallible(file, version, checkConfiguration, statusConsumer, failureConsumer, this.concurrency);
+    }
+
+    private List<Problem> checkFileFallible(Path file, JavaVersion version, CheckConfiguration checkConfiguration,
+                                            Consumer<Translatable> statusConsumer,
+                                            Consumer<FailureInformation> failureConsumer,
+                                            Concurrency concurrency)
+        throws LinterException, IOException {
+        SubmissionEvent event = new SubmissionEvent();
+        event.begin();
+        try {
+            List<Problem> problems = this.gradeSubmission(
+                file, version, checkConfiguration, statusConsumer, failureConsumer, concurrency, linterProblems -> {}
+            );
+            return this.reduceProblems(problems, checkConfiguration);
+        } finally {
+            if (event.shouldCommit()) {
+                event.setSubmission(file.toString());
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public void checkFileStreaming(Path file, JavaVersion version, CheckConfiguration checkConfiguration,
+                                   Consumer<Translatable> statusConsumer,
+                                   Consumer<FailureInformation> failureConsumer,
+                                   Consumer<? super AbstractProblem> problemConsumer)
+        throws LinterException, IOException {
+        StreamingReduction reduction = new StreamingReduction(checkConfiguration, problemConsumer);
+        SubmissionEvent event = new SubmissionEvent();
+        event.begin();
+        try {
+            List<Problem> problems = this.gradeSubmission(
+                file, version, checkConfiguration, statusConsumer, failureConsumer, this.concurrency, reduction::acceptLinterProblems
+            );
+            reduction.finish(problems);
+        } finally {
+            if (event.shouldCommit()) {
+                event.setSubmission(file.toString());
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Grades the submission.
+     *
+     * @param linterProblemsConsumer receives the problems of each linter as soon as the linter has finished, it is
+     *                               not called for problems that are taken from the result cache
+     * @return all problems, before they are filtered and merged
+     */
+    private List<Problem> gradeSubmission(Path file, JavaVersion version, CheckConfiguration checkConfiguration,
+                                          Consumer<Translatable> statusConsumer,
+                                          Consumer<FailureInformation> failureConsumer,
+                                          Concurrency concurrency,
+                                          Consumer<List<Problem>> linterProblemsConsumer)
+        throws LinterException, IOException {
+        var checks = this.findChecksForProblemTypes(checkConfiguration.problemsToReport());
+        MetricsRecorder metrics = this.metricsConsumer == null ? MetricsRecorder.disabled() : MetricsRecorder.create();
+        SourceInfo source = new FileSourceInfo(file, version);
+        if (this.resultCache == null) {
+            List<Problem> problems;
+            try (var uploadedFile = this.buildFile(source, this.planAnalysis(checks), statusConsumer, metrics)) {
+                problems = this.lint(uploadedFile, checks, statusConsumer, failureConsumer, concurrency, null, linterProblemsConsumer);
+            }
+
+            this.reportMetrics(file, metrics);
+            return problems;
+        }
+
+        ResultCache.Lookup lookup = this.resultCache.lookup(source, checks, this.incrementalAnalysis);
+        boolean shouldVerify = lookup.isHit() && this.resultCache.shouldVerify();
+        if (lookup.isHit() && !shouldVerify) {
+            List<Problem> problems = lookup.problems().get();
+            this.reportMetrics(file, metrics);
+            return problems;
+        }
+
+        // results of checks that failed are incomplete, they must neither be cached nor replace a cached result
+        AtomicBoolean hasFailed = new AtomicBoolean(false);
+        Consumer<FailureInformation> trackingFailureConsumer = failure -> {
+            hasFailed.set(true);
+            failureConsumer.accept(failure);
+        };
+
+        // the file-local checks only analyze the files that have changed since they have been graded,
+        // unless the result is verified, then every file is analyzed again
+        FileLocalProblems fileLocalProblems = this.incrementalAnalysis
+            ? FileLocalProblems.lookup(this.resultCache, source, checks, !shouldVerify)
+            : null;
+
+        List<Problem> problems;
+        try (var uploadedFile = this.buildFile(source, this.planAnalysis(checks), statusConsumer, metrics)) {
+            if (uploadedFile != null && fileLocalProblems != null) {
+                uploadedFile.restrictFileLocalChecks(fileLocalProblems.changedFiles());
+            }
+
+            problems = this.lint(uploadedFile, checks, statusConsumer, trackingFailureConsumer, concurrency, fileLocalProblems, linterProblemsConsumer);
+        }
+
+        if (!hasFailed.get() && shouldVerify) {
+            this.resultCache.verify(lookup, file.toString(), problems);
+        } else if (!hasFailed.get()) {
+            this.resultCache.store(lookup, problems);
+        }
+
+        if (!hasFailed.get() && fileLocalProblems != null) {
+            fileLocalProblems.store(this.resultCache);
+        }
+
+        this.reportMetrics(file, metrics);
+        return problems;
+    }
+
+    /**
+     * Derives what has to be prepared to run the given checks.
+     *
+     * @param checks the checks that will be run
+     * @return the plan
+     */
+    public AnalysisPlan planAnalysis(Iterable<? extends Check> checks) {
+        return AnalysisPlan.of(checks, this.findCodeLinter(), this.skipClassGeneration);
+    }
+
+    /**
+     * Compiles the source and prepares the model of the code, the metrics of the analysis are recorded in the given recorder.
+     * <p>
+     * The code is always compiled. If the class generation is skipped, class files are only generated if the plan
+     * requires them.
+     *
+     * @return the uploaded file or null if there is no source code
+     */
+    private UploadedFile buildFile(
+        SourceInfo source,
+        AnalysisPlan plan,
+        Consumer<Translatable> statusConsumer,
+        MetricsRecorder metrics
+    ) throws IOException, LinterException {
+        boolean skipClassGeneration = this.skipClassGeneration && !plan.requires(AnalysisInput.BYTECODE);
+        UploadedFile uploadedFile;
+        try (MetricsRecorder.Timer timer = metrics.startPhase("compilation")) {
+            uploadedFile = UploadedFile.build(source, this.tempLocation, statusConsumer, this.classLoader, skipClassGeneration);
+        }
+
+        if (uploadedFile != null) {
+            uploadedFile.recordMetricsWith(metrics);
+        }
+
+        return uploadedFile;
+    }
+
+    private void reportMetrics(Path file, MetricsRecorder metrics) {
+        if (!metrics.isEnabled()) {
+            return;
+        }
+
+        AnalysisMetrics analysisMetrics = metrics.build(file);
+        // submissions might be graded in parallel, but the consumer must not be called concurrently
+        synchronized (this.metricsLock) {
+            this.metricsConsumer.accept(analysisMetrics);
+        }
+    }
+
+    @Override
+    public void checkFilesFallible(Collection<Path> submissions, JavaVersion version, CheckConfiguration checkConfiguration,
+                                   Consumer<? super SubmissionResult> resultConsumer) throws InterruptedException {
+        if (submissions.isEmpty()) {
+            return;
+        }
+
+        int poolSize = Math.min(
+            this.threads > 0 ? this.threads : Runtime.getRuntime().availableProcessors(),
+            submissions.size()
+        );
+
+        // The checks and linters are instantiated for each submission, because they are not thread-safe.
+        // Everything else (the classpath scan, the translations, ...) is shared between the submissions.
+        Object consumerLock = new Object();
+        try (ExecutorService executor = Executors.newFixedThreadPool(poolSize, new BatchThreadFactory(this.classLoader))) {
+            for (Path submission : submissions) {
+                executor.execute(() -> {
+                    SubmissionResult result = this.checkSubmission(submission, version, checkConfiguration);
+                    synchronized (consumerLock) {
+                        resultConsumer.accept(result);
+                    }
+                });
+            }
+        }
+
+        // closing the executor waits for all submissions, if it has been interrupted, the remaining ones are cancelled
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Grading the submissions has been interrupted");
+        }
+    }
+
+    private SubmissionResult checkSubmission(Path submission, JavaVersion version, CheckConfiguration checkConfiguration) {
+        List<FailureInformation> failures = new ArrayList<>();
+        try {
+            // the submissions are already graded in parallel, so each submission is graded on a single thread
+            List<Problem> problems = this.checkFileFallible(submission, version, checkConfiguration, status -> {}, failures::add, Concurrency.SEQUENTIAL);
+            return SubmissionResult.forSuccess(submission, problems, failures);
+        } catch (Throwable exception) {
+            // every submission must have a result, even if grading it failed with an error (e.g. a StackOverflowError)
+            return SubmissionResult.forFailure(submission, exception);
+        }
+    }
+
+    private static final class BatchThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadIndex = new AtomicInteger(0);
+        private final ClassLoader classLoader;
+
+        private BatchThreadFactory(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Autograder-Batch-Thread-" + this.threadIndex.getAndIncrement());
+            if (this.classLoader != null) {
+                thread.setContextClassLoader(this.classLoader);
+            }
+            return thread;
         }
     }
 
@@ -73,9 +321,15 @@ public final class Linter implements AbstractLinter {
         Consumer<FailureInformation> failureConsumer
     ) throws LinterException, IOException {
         var checks = this.findChecksForProblemTypes(checkConfiguration.problemsToReport());
-        return this.checkFileFallible(file, checkConfiguration, checks, statusConsumer, failureConsumer);
+        return this.checkFileFallible(file, checkConfiguration, checks, statusConsumer, failureConsumer, this.concurrency);
     }
 
+    private static final Set<ProblemType> PROBLEMATIC_ANNOTATIONS = Set.of(
+        ProblemType.UNUSED_DIAMOND_OPERATOR,
+        ProblemType.UNCHECKED_TYPE_CAST,
+        ProblemType.DO_NOT_USE_RAW_TYPES
+    );
+
     private static List<Problem> filterProblematicAnnotations(Iterable<? extends Problem> problems) {
         // HACK: for the following issue:
         //       https://github.com/Feuermagier/autograder/issues/672
@@ -84,7 +338,7 @@ public final class Linter implements AbstractLinter {
         List<Problem> result = new ArrayList<>();
         for (Problem problem : problems) {
             // skip unrelated problems:
-            if (!Set.of(ProblemType.UNUSED_DIAMOND_OPERATOR, ProblemType.UNCHECKED_TYPE_CAST, ProblemType.DO_NOT_USE_RAW_TYPES).contains(problem.getProblemType())) {
+            if (!PROBLEMATIC_ANNOTATIONS.contains(problem.getProblemType())) {
                 result.add(problem);
                 continue;
             }
@@ -117,7 +371,7 @@ public final class Linter implements AbstractLinter {
                 .map(Problem::getProblemType)
                 .collect(Collectors.toSet());
 
-            if (problemTypes.equals(Set.of(ProblemType.UNUSED_DIAMOND_OPERATOR, ProblemType.UNCHECKED_TYPE_CAST, ProblemType.DO_NOT_USE_RAW_TYPES))) {
+            if (problemTypes.equals(PROBLEMATIC_ANNOTATIONS)) {
                 // only keep the raw type annotations
                 entry.getValue()
                     .stream()
@@ -138,7 +392,7 @@ public final class Linter implements AbstractLinter {
         Iterable<? extends Check> checks,
         Consumer<Translatable> statusConsumer
     ) throws IOException {
-        return this.checkFileFallible(file, checkConfiguration, checks, statusConsumer, FailureInformation.failFastConsumer());
+        return this.checkFileFallible(file, checkConfiguration, checks, statusConsumer, FailureInformation.failFastConsumer(), this.concurrency);
     }
 
     private List<Problem> checkFileFallible(
@@ -146,14 +400,40 @@ public final class Linter implements AbstractLinter {
         CheckConfiguration checkConfiguration,
         Iterable<? extends Check> checks,
         Consumer<Translatable> statusConsumer,
-        Consumer<FailureInformation> failureConsumer
+        Consumer<FailureInformation> failureConsumer,
+        Concurrency concurrency
+    ) throws IOException {
+        return this.reduceProblems(
+            this.lint(file, checks, statusConsumer, failureConsumer, concurrency, null, linterProblems -> {}),
+            checkConfiguration
+        );
+    }
+
+    /**
+     * Runs the linters with the given checks.
+     *
+     * @param fileLocalProblems the stored problems of file-local checks that are added to the problems of each linter,
+     *                          or null without incremental analysis
+     * @param linterProblemsConsumer receives the problems of each linter as soon as the linter has finished,
+     *                               when the linters run concurrently it might be called from different threads
+     * @return the problems reported by the checks, before they are filtered and merged
+     */
+    private List<Problem> lint(
+        UploadedFile file,
+        Iterable<? extends Check> checks,
+        Consumer<Translatable> statusConsumer,
+        Consumer<FailureInformation> failureConsumer,
+        Concurrency concurrency,
+        FileLocalProblems fileLocalProblems,
+        Consumer<List<Problem>> linterProblemsConsumer
     ) throws IOException {
         // the file is null if the student did not upload source code
         if (file == null) {
             return new ArrayList<>();
         }
 
-        Map<CodeLinter<?>, List<Check>> linterChecks = new IdentityHashMap<>();
+        // the linters are kept in the order in which they were found, so the problems are reported in a consistent order
+        Map<CodeLinter<?>, List<Check>> linterChecks = new LinkedHashMap<>();
 
         List<? extends CodeLinter<?>> codeLinters = this.findCodeLinter();
         for (Check check : checks) {
@@ -166,8 +446,24 @@ public final class Linter implements AbstractLinter {
             }
         }
 
+        MetricsRecorder metrics = file.getMetrics();
         List<Problem> unreducedProblems = new ArrayList<>();
         try (TempLocation tempLinterLocation = this.tempLocation.createTempDirectory("linter")) {
+            boolean isConcurrent = concurrency.linterThreads() > 1 && linterChecks.size() > 1;
+            // when the linters run concurrently, each message is passed to the consumers as a whole
+            Object consumerLock = new Object();
+            Consumer<Translatable> linterStatusConsumer = !isConcurrent ? statusConsumer : status -> {
+                synchronized (consumerLock) {
+                    statusConsumer.accept(status);
+                }
+            };
+            Consumer<FailureInformation> linterFailureConsumer = !isConcurrent ? failureConsumer : failure -> {
+                synchronized (consumerLock) {
+                    failureConsumer.accept(failure);
+                }
+            };
+
+            List<LinterRun> linterRuns = new ArrayList<>();
             for (var entry : linterChecks.entrySet()) {
                 CodeLinter linter = entry.getKey();
                 var targetCheckType = linter.supportedCheckType();
@@ -179,17 +475,48 @@ public final class Linter implements AbstractLinter {
                     continue;
                 }
 
-                unreducedProblems.addAll(linter.lint(
-                    file,
-                    tempLinterLocation,
-                    this.classLoader,
-                    associatedChecks,
-                    statusConsumer,
-                    failureConsumer
-                ));
+                String linterName = linter.getClass().getSimpleName();
+                metrics.recordLinter(linterName, associatedChecks);
+                linterRuns.add(() -> {
+                    List<Problem> problems;
+                    LinterEvent event = new LinterEvent();
+                    event.begin();
+                    try (MetricsRecorder.Timer timer = metrics.startPhase(linterName)) {
+                        problems = linter.lint(
+                            file,
+                            tempLinterLocation,
+                            this.classLoader,
+                            associatedChecks,
+                            linterStatusConsumer,
+                            linterFailureConsumer
+                        );
+                    } finally {
+                        if (event.shouldCommit()) {
+                            event.setSubmission(file.getSource().path().toString());
+                            event.setLinter(linterName);
+                            event.commit();
+                        }
+                    }
+
+                    if (fileLocalProblems != null) {
+                        problems = fileLocalProblems.complete(entry.getValue(), problems);
+                    }
+
+                    linterProblemsConsumer.accept(problems);
+                    return problems;
+                });
+            }
+
+            for (List<Problem> problems : runLinters(linterRuns, isConcurrent ? concurrency.linterThreads() : 1)) {
+                unreducedProblems.addAll(problems);
             }
         }
 
+        metrics.recordProblems(unreducedProblems);
+        return unreducedProblems;
+    }
+
+    private List<Problem> reduceProblems(List<Problem> unreducedProblems, CheckConfiguration checkConfiguration) {
         unreducedProblems = filterProblematicAnnotations(unreducedProblems);
 
         if (!checkConfiguration.problemsToReport().isEmpty()) {
@@ -211,6 +538,63 @@ public final class Linter implements AbstractLinter {
         return this.mergeProblems(unreducedProblems);
     }
 
+    /**
+     * Runs the linters with at most the given number of threads.
+     *
+     * @return the problems of each linter in the order of the linters
+     */
+    private static List<List<Problem>> runLinters(List<LinterRun> linterRuns, int threads) throws IOException {
+        List<List<Problem>> result = new ArrayList<>();
+        if (threads <= 1 || linterRuns.size() <= 1) {
+            for (LinterRun linterRun : linterRuns) {
+                result.add(linterRun.run());
+            }
+
+            return result;
+        }
+
+        List<Future<List<Problem>>> futures = new ArrayList<>();
+        // the threads inherit the context class loader of the current thread
+        ThreadFactory threadFactory = Thread.ofPlatform().name("Autograder-Linter-Thread-", 0).factory();
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, linterRuns.size()), threadFactory)) {
+            for (LinterRun linterRun : linterRuns) {
+                futures.add(executor.submit(linterRun::run));
+            }
+        }
+
+        for (Future<List<Problem>> future : futures) {
+            try {
+                result.add(future.get());
+            } catch (ExecutionException exception) {
+                switch (exception.getCause()) {
+                    case IOException ioException -> throw ioException;
+                    case RuntimeException runtimeException -> throw runtimeException;
+                    case Error error -> throw error;
+                    default -> throw new IllegalStateException(exception.getCause());
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while running the linters", exception);
+            }
+        }
+
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface LinterRun {
+        List<Problem> run() throws IOException;
+    }
+
+    /**
+     * How many threads may be used for grading a single submission.
+     *
+     * @param linterThreads the number of linters that may run at the same time
+     */
+    private record Concurrency(int linterThreads) {
+        private static final Concurrency SEQUENTIAL = new Concurrency(1);
+    }
+
     private List<Problem> mergeProblems(Collection<? extends Problem> unreducedProblems) {
         // -1 means no limit (useful for unit tests, where one wants to see all problems)
         if (this.maxProblemsPerCheck == -1) {
@@ -250,61 +634,81 @@ public final class Linter implements AbstractLinter {
         return result;
     }
 
+    /**
+     * Reduces the problems of a submission while it is graded, so they can be passed on before all linters
+     * have finished.
+     * <p>
+     * The merging of problems only looks at the problems of a single check and all of them are reported by the same
+     * linter, so the problems of a linter can be reduced as soon as it has finished. The only exception is
+     * {@link #filterProblematicAnnotations(Iterable)}, which compares problems of different checks, so checks that
+     * reported one of those problem types are held back until the end. This way, the reduced problems are the
+     * same as the ones returned by {@link #reduceProblems(List, CheckConfiguration)}.
+     */
+    private final class StreamingReduction {
+        private final CheckConfiguration checkConfiguration;
+        private final Consumer<? super AbstractProblem> problemConsumer;
+        private final Set<Check> reportedChecks = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private StreamingReduction(CheckConfiguration checkConfiguration, Consumer<? super AbstractProblem> problemConsumer) {
+            this.checkConfiguration = checkConfiguration;
+            this.problemConsumer = problemConsumer;
+        }
+
+        private synchronized void acceptLinterProblems(List<Problem> problems) {
+            Map<Check, List<Problem>> problemsByCheck = new IdentityHashMap<>();
+            List<Check> checks = new ArrayList<>();
+            for (Problem problem : problems) {
+                problemsByCheck.computeIfAbsent(problem.getCheck(), check -> {
+                    checks.add(check);
+                    return new ArrayList<>();
+                }).add(problem);
+            }
+
+            List<Problem> ready = new ArrayList<>();
+            for (Check check : checks) {
+                List<Problem> problemsOfCheck = problemsByCheck.get(check);
+                if (problemsOfCheck.stream().noneMatch(problem -> PROBLEMATIC_ANNOTATIONS.contains(problem.getProblemType()))) {
+                    this.reportedChecks.add(check);
+                    ready.addAll(problemsOfCheck);
+                }
+            }
+
+            this.report(ready);
+        }
+
+        /**
+         * Reports all problems that have not been reported yet.
+         *
+         * @param problems all problems of the submission, including the ones that have already been reported
+         */
+        private synchronized void finish(List<Problem> problems) {
+            this.report(problems.stream().filter(problem -> !this.reportedChecks.contains(problem.getCheck())).toList());
+        }
+
+        private void report(List<Problem> problems) {
+            if (problems.isEmpty()) {
+                return;
+            }
+
+            for (Problem problem : Linter.this.reduceProblems(problems, this.checkConfiguration)) {
+                this.problemConsumer.accept(problem);
+            }
+        }
+    }
+
     @Override
     public String translateMessage(Translatable message) {
         return message.format(this.translations);
     }
 
-    private static final Collection<Class<?>> CHECKS = new LinkedHashSet<>(
-            new Reflections(new ConfigurationBuilder()
-                    .forPackage("de.firemage.autograder", Linter.class.getClassLoader())
-                    .addClassLoaders(Linter.class.getClassLoader())
-                    .setScanners(Scanners.TypesAnnotated)
-            ).getTypesAnnotatedWith(ExecutableCheck.class)
-    );
+    private static final CheckRegistry REGISTRY = CheckRegistry.load(Linter.class.getClassLoader());
 
     public List<Check> findChecksForProblemTypes(Collection<? extends AbstractProblemType> problems) {
-        return CHECKS
-            .stream()
-            .filter(check -> isRequiredCheck(check.getAnnotation(ExecutableCheck.class), problems))
-            .map(check -> {
-                try {
-                    return (Check) check.getConstructor().newInstance();
-                } catch (ReflectiveOperationException e) {
-                    throw new IllegalStateException("Failed to instantiate check " + check.getName(), e);
-                } catch (ClassCastException e) {
-                    throw new IllegalStateException(check.getName() + " does not inherit from Check");
-                }
-            })
-            .toList();
+        return REGISTRY.createChecksFor(problems);
     }
 
-    private static final Collection<Class<?>> CODE_LINTER = new LinkedHashSet<>(
-            new Reflections(new ConfigurationBuilder()
-                    .forPackage("de.firemage.autograder", Linter.class.getClassLoader())
-                    .addClassLoaders(Linter.class.getClassLoader())
-                    .setScanners(Scanners.SubTypes)
-            ).getSubTypesOf(CodeLinter.class)
-    );
-
     public List<? extends CodeLinter<?>> findCodeLinter() {
-        return CODE_LINTER
-            .stream()
-            .map(linter -> {
-                try {
-                    return (CodeLinter<?>) linter.getConstructor().newInstance();
-                } catch (ReflectiveOperationException e) {
-                    throw new IllegalStateException("Failed to instantiate check " + linter.getName(), e);
-                } catch (ClassCastException e) {
-                    throw new IllegalStateException(linter.getName() + " does not inherit from Check");
-                }
-            })
-            .toList();
-    }
-
-
-    private boolean isRequiredCheck(ExecutableCheck check, Collection<? extends AbstractProblemType> problems) {
-        return check.enabled() && problems.stream().anyMatch(p -> List.of(check.reportedProblems()).contains(p));
+        return REGISTRY.createLinters();
     }
 
     private static <T> List<T> castUnsafe(Iterable<?> list, Class<? extends T> clazz) {
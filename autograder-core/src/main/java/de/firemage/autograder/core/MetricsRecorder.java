@@ -0,0 +1,263 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.api.AnalysisMetrics;
+import de.firemage.autograder.core.check.Check;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtCompilationUnit;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.declaration.CtTypeParameter;
+import spoon.reflect.visitor.CtScanner;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Records the {@link AnalysisMetrics} while a submission is graded.
+ * <p>
+ * A disabled recorder does not measure anything, so it can be used without checking whether metrics have been
+ * requested. The recorder may be used from multiple threads, but each measurement has to be started and stopped
+ * on the same thread.
+ */
+public final class MetricsRecorder {
+    private static final MetricsRecorder DISABLED = new MetricsRecorder(false);
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final Timer NO_OP_TIMER = () -> {};
+
+    private final boolean isEnabled;
+    private final List<AnalysisMetrics.Measurement> phases;
+    // the checks in the order in which they have been passed to the linters
+    private final Map<Check, String> linters;
+    private final Map<Check, AnalysisMetrics.Measurement> checkMeasurements;
+    private final Map<Check, Integer> problemCounts;
+    private AnalysisMetrics.ModelStatistics modelStatistics;
+
+    private MetricsRecorder(boolean isEnabled) {
+        this.isEnabled = isEnabled;
+        this.phases = Collections.synchronizedList(new ArrayList<>());
+        this.linters = new LinkedHashMap<>();
+        this.checkMeasurements = Collections.synchronizedMap(new IdentityHashMap<>());
+        this.problemCounts = new IdentityHashMap<>();
+    }
+
+    public static MetricsRecorder create() {
+        return new MetricsRecorder(true);
+    }
+
+    /**
+     * Returns a recorder that ignores everything that is recorded.
+     *
+     * @return the disabled recorder
+     */
+    public static MetricsRecorder disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return this.isEnabled;
+    }
+
+    /**
+     * Starts measuring a phase, the measurement is recorded when the returned timer is closed.
+     *
+     * @param name the name of the phase
+     * @return the running timer
+     */
+    public Timer startPhase(String name) {
+        if (!this.isEnabled) {
+            return NO_OP_TIMER;
+        }
+
+        return new RunningTimer(name, this.phases::add);
+    }
+
+    /**
+     * Starts measuring a check that is executed on its own, the measurement is recorded when the returned timer is closed.
+     *
+     * @param check the check that is executed
+     * @return the running timer
+     */
+    public Timer startCheck(Check check) {
+        if (!this.isEnabled) {
+            return NO_OP_TIMER;
+        }
+
+        return new RunningTimer(check.getClass().getSimpleName(), measurement -> this.checkMeasurements.put(check, measurement));
+    }
+
+    /**
+     * Records which linter executes the given checks.
+     *
+     * @param linter the name of the linter
+     * @param checks the checks executed by the linter
+     */
+    public synchronized void recordLinter(String linter, Collection<? extends Check> checks) {
+        if (!this.isEnabled) {
+            return;
+        }
+
+        for (Check check : checks) {
+            this.linters.put(check, linter);
+        }
+    }
+
+    /**
+     * Records the problems reported by the checks, before they are merged or filtered.
+     *
+     * @param problems the reported problems
+     */
+    public synchronized void recordProblems(Collection<? extends Problem> problems) {
+        if (!this.isEnabled) {
+            return;
+        }
+
+        for (Problem problem : problems) {
+            this.problemCounts.merge(problem.getCheck(), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Records the size of the model. This traverses the whole model, so it should only be called once.
+     *
+     * @param model the built model of the submission
+     */
+    public void recordModel(CtModel model) {
+        if (!this.isEnabled) {
+            return;
+        }
+
+        int files = 0;
+        int lines = 0;
+        for (CtCompilationUnit ctCompilationUnit : model.getRootPackage().getFactory().CompilationUnit().getMap().values()) {
+            files += 1;
+            lines += ctCompilationUnit.getLineSeparatorPositions().length + 1;
+        }
+
+        ElementCounter counter = new ElementCounter();
+        counter.scan(model.getAllModules());
+
+        synchronized (this) {
+            this.modelStatistics = new AnalysisMetrics.ModelStatistics(files, lines, counter.types, counter.methods, counter.elements);
+        }
+    }
+
+    /**
+     * Creates the metrics from everything that has been recorded so far.
+     *
+     * @param submission the graded submission
+     * @return the metrics
+     */
+    public synchronized AnalysisMetrics build(Path submission) {
+        List<AnalysisMetrics.CheckMetrics> checks = new ArrayList<>();
+        for (var entry : this.linters.entrySet()) {
+            Check check = entry.getKey();
+            checks.add(new AnalysisMetrics.CheckMetrics(
+                check.getClass().getSimpleName(),
+                entry.getValue(),
+                this.checkMeasurements.get(check),
+                this.problemCounts.getOrDefault(check, 0)
+            ));
+        }
+
+        return new AnalysisMetrics(submission, new ArrayList<>(this.phases), checks, this.modelStatistics);
+    }
+
+    /**
+     * A running measurement, closing it records the measurement.
+     */
+    @FunctionalInterface
+    public interface Timer extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class RunningTimer implements Timer {
+        private final String name;
+        private final Consumer<AnalysisMetrics.Measurement> consumer;
+        private final long startWallTime;
+        private final long startCpuTime;
+        private final long startAllocatedBytes;
+
+        private RunningTimer(String name, Consumer<AnalysisMetrics.Measurement> consumer) {
+            this.name = name;
+            this.consumer = consumer;
+            this.startAllocatedBytes = currentAllocatedBytes();
+            this.startCpuTime = currentCpuTime();
+            this.startWallTime = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            long wallTime = System.nanoTime() - this.startWallTime;
+            long cpuTime = currentCpuTime();
+            long allocatedBytes = currentAllocatedBytes();
+
+            this.consumer.accept(new AnalysisMetrics.Measurement(
+                this.name,
+                wallTime,
+                difference(this.startCpuTime, cpuTime),
+                difference(this.startAllocatedBytes, allocatedBytes)
+            ));
+        }
+
+        private static long difference(long start, long end) {
+            // a negative value means that it could not be measured
+            if (start < 0 || end < 0) {
+                return -1;
+            }
+
+            return end - start;
+        }
+
+        private static long currentCpuTime() {
+            if (!THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) {
+                return -1;
+            }
+
+            return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        }
+
+        private static long currentAllocatedBytes() {
+            if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemorySupported()
+                && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return threadMXBean.getCurrentThreadAllocatedBytes();
+            }
+
+            return -1;
+        }
+    }
+
+    private static final class ElementCounter extends CtScanner {
+        private int types;
+        private int methods;
+        private int elements;
+
+        @Override
+        public void scan(CtElement element) {
+            // shadow types are created for the types of the JDK and libraries, they are not part of the submission
+            if (element == null || element instanceof CtType<?> ctType && ctType.isShadow()) {
+                return;
+            }
+
+            this.elements += 1;
+            if (element instanceof CtType<?> && !(element instanceof CtTypeParameter)) {
+                this.types += 1;
+            } else if (element instanceof CtMethod<?>) {
+                this.methods += 1;
+            }
+
+            super.scan(element);
+        }
+    }
+}
@@ -0,0 +1,496 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.api.Translatable;
+import de.firemage.autograder.core.check.Check;
+import de.firemage.autograder.core.file.CompilationUnit;
+import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.file.SourcePath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Stores the problems of graded submissions on disk, so unchanged submissions do not have to be graded again.
+ * <p>
+ * A result is identified by a hash of the source files, the java version, the checks and the build of the
+ * autograder. The problems are stored before they are filtered, merged and translated, so those steps are
+ * applied again when a stored result is used. For incremental analysis, the problems of file-local checks
+ * are additionally stored for each file, identified by a hash of only that file.
+ */
+final class ResultCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ResultCache.class);
+    // has to be incremented whenever the format of the stored entries changes
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_EXTENSION = ".problems";
+    // the whole directory is scanned after this many stores even if it is small enough,
+    // so results that are too old and entries written by other processes are noticed eventually
+    private static final int STORES_BETWEEN_SCANS = 256;
+    // only the classes that are stored in an entry may be deserialized, anything else is rejected
+    private static final ObjectInputFilter ENTRY_FILTER = ObjectInputFilter.Config.createFilter(String.join(";",
+        "maxdepth=16",
+        "java.util.ArrayList",
+        "java.util.HashMap",
+        "java.util.LinkedHashMap",
+        "java.util.CollSer",
+        "java.util.ImmutableCollections$*",
+        "java.lang.String",
+        "java.lang.Enum",
+        "java.lang.Number",
+        "java.lang.Boolean",
+        "java.lang.Character",
+        "java.lang.Byte",
+        "java.lang.Short",
+        "java.lang.Integer",
+        "java.lang.Long",
+        "java.lang.Float",
+        "java.lang.Double",
+        "java.lang.Object",
+        Entry.class.getName(),
+        ProblemType.class.getName(),
+        LocalizedMessage.class.getName(),
+        LocalizedMessageForProblem.class.getName(),
+        SourcePath.class.getName(),
+        "!*"
+    ));
+
+    private final Path directory;
+    private final long maxSize;
+    private final Duration maxAge;
+    private final double verificationRate;
+    private final Map<Path, String> buildFingerprints = new ConcurrentHashMap<>();
+    // the size of all entries as of the last scan plus the size of the entries written since then,
+    // -1 if the directory has not been scanned yet
+    private long estimatedSize = -1;
+    private int storesSinceScan;
+
+    ResultCache(Path directory, long maxSize, Duration maxAge, double verificationRate) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+        this.verificationRate = verificationRate;
+    }
+
+    /**
+     * The position and explanation of a problem without any reference to the code model.
+     */
+    private record Entry(
+        String check,
+        ProblemType problemType,
+        Translatable explanation,
+        SourcePath file,
+        int startLine,
+        int endLine,
+        int startColumn,
+        int endColumn
+    ) implements Serializable {
+        private static Entry of(Problem problem) {
+            CodePosition position = problem.getPosition();
+            return new Entry(
+                problem.getCheck().getClass().getName(),
+                problem.getProblemType(),
+                problem.getExplanation(),
+                position.file(),
+                position.startLine(),
+                position.endLine(),
+                position.startColumn(),
+                position.endColumn()
+            );
+        }
+    }
+
+    /**
+     * A result that has been found in the cache.
+     *
+     * @param key the key under which the result is stored
+     * @param problems the stored problems or an empty optional if there is no result for the key
+     */
+    record Lookup(String key, Optional<List<Problem>> problems) {
+        boolean isHit() {
+            return this.problems.isPresent();
+        }
+    }
+
+    /**
+     * Looks up the problems for the given source and checks.
+     *
+     * @param source the source code of the submission
+     * @param checks the checks that would be executed
+     * @param isIncremental whether the result is graded with incremental analysis, the problems are ordered
+     *                      differently then, so those results are stored separately
+     * @return the lookup, which is needed to store or verify the result
+     * @throws IOException if the source files could not be read
+     */
+    Lookup lookup(SourceInfo source, List<? extends Check> checks, boolean isIncremental) throws IOException {
+        MessageDigest digest = this.startKey(isIncremental ? "incremental-submission" : "submission", source, checks);
+        List<CompilationUnit> compilationUnits = new ArrayList<>(source.compilationUnits());
+        compilationUnits.sort(Comparator.comparing(CompilationUnit::path));
+        for (CompilationUnit compilationUnit : compilationUnits) {
+            updateDigest(digest, compilationUnit.path().toString());
+            updateDigest(digest, compilationUnit.readString());
+        }
+
+        String key = HexFormat.of().formatHex(digest.digest());
+        return new Lookup(key, this.load(key, source, checks));
+    }
+
+    /**
+     * Looks up the problems of file-local checks for each file of the source.
+     * <p>
+     * Those problems only depend on the content of the file, so they can be reused when other files have changed.
+     *
+     * @param source the source code of the submission
+     * @param fileLocalChecks the file-local checks that would be executed
+     * @return the lookup of each file in the order of the files of the source
+     * @throws IOException if the source files could not be read
+     */
+    Map<SourcePath, Lookup> lookupFiles(SourceInfo source, List<? extends Check> fileLocalChecks) throws IOException {
+        Map<SourcePath, Lookup> result = new LinkedHashMap<>();
+        for (CompilationUnit compilationUnit : source.compilationUnits()) {
+            MessageDigest digest = this.startKey("file", source, fileLocalChecks);
+            updateDigest(digest, compilationUnit.path().toString());
+            updateDigest(digest, compilationUnit.readString());
+
+            String key = HexFormat.of().formatHex(digest.digest());
+            result.put(compilationUnit.path(), new Lookup(key, this.load(key, source, fileLocalChecks)));
+        }
+
+        return result;
+    }
+
+    private Optional<List<Problem>> load(String key, SourceInfo source, List<? extends Check> checks) {
+        Path file = this.entryFile(key);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        List<Entry> entries;
+        try (InputStream inputStream = Files.newInputStream(file);
+             ObjectInputStream objectInputStream = new ObjectInputStream(inputStream)) {
+            objectInputStream.setObjectInputFilter(ENTRY_FILTER);
+            @SuppressWarnings("unchecked")
+            List<Entry> storedEntries = (List<Entry>) objectInputStream.readObject();
+            entries = storedEntries;
+        } catch (IOException | ClassNotFoundException | ClassCastException exception) {
+            // the entry might be incomplete, from an incompatible build or contain rejected classes, it will be overwritten
+            LOG.debug("Could not read cached result {}", file, exception);
+            return Optional.empty();
+        }
+
+        Map<String, Check> checksByName = new HashMap<>();
+        for (Check check : checks) {
+            checksByName.put(check.getClass().getName(), check);
+        }
+
+        List<Problem> problems = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            Check check = checksByName.get(entry.check());
+            if (check == null) {
+                return Optional.empty();
+            }
+
+            problems.add(new CachedProblem(
+                check,
+                new CodePosition(source, entry.file(), entry.startLine(), entry.endLine(), entry.startColumn(), entry.endColumn()),
+                entry.explanation(),
+                entry.problemType()
+            ));
+        }
+
+        // the modification time is used to find the least recently used results
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } catch (IOException exception) {
+            LOG.debug("Could not update the modification time of {}", file, exception);
+        }
+
+        return Optional.of(problems);
+    }
+
+    /**
+     * Decides whether a cache hit should be graded again to verify the stored result.
+     *
+     * @return true if the stored result should be verified
+     */
+    boolean shouldVerify() {
+        return this.verificationRate > 0.0 && ThreadLocalRandom.current().nextDouble() < this.verificationRate;
+    }
+
+    /**
+     * Compares the stored result with the recomputed one, logs the difference and replaces the stored result.
+     *
+     * @param lookup the lookup with the stored result
+     * @param submission the name of the submission, used for logging
+     * @param problems the recomputed problems, they must be complete (no check may have failed)
+     * @return true if both results are equal
+     */
+    boolean verify(Lookup lookup, String submission, List<? extends Problem> problems) {
+        List<Entry> expected = problems.stream().map(Entry::of).toList();
+        List<Entry> actual = lookup.problems().orElseThrow().stream().map(Entry::of).toList();
+
+        if (expected.equals(actual)) {
+            LOG.debug("Verified cached result of {}", submission);
+            return true;
+        }
+
+        LOG.warn(
+            "Cached result of {} differs from the recomputed one, the cached result is replaced. Missing in cache: {}, only in cache: {}",
+            submission,
+            expected.stream().filter(entry -> !actual.contains(entry)).toList(),
+            actual.stream().filter(entry -> !expected.contains(entry)).toList()
+        );
+        this.store(lookup, problems);
+        return false;
+    }
+
+    /**
+     * Stores the problems for the key of the lookup.
+     * <p>
+     * Results with explanations that can not be serialized are not stored.
+     *
+     * @param lookup the lookup for which nothing has been found
+     * @param problems the problems that have been found in the submission
+     */
+    synchronized void store(Lookup lookup, List<? extends Problem> problems) {
+        this.storeAll(Map.of(lookup, problems));
+    }
+
+    /**
+     * Stores the problems for the keys of multiple lookups, e.g. for the files of a submission.
+     *
+     * @param problemsByLookup the problems to store for each lookup
+     * @see #store(Lookup, List)
+     */
+    synchronized void storeAll(Map<Lookup, ? extends List<? extends Problem>> problemsByLookup) {
+        // the entries are written and evicted while holding the lock of the cache,
+        // so an entry that is being written is never evicted at the same time
+        long addedSize = 0;
+        for (var entry : problemsByLookup.entrySet()) {
+            addedSize += this.write(entry.getKey().key(), entry.getValue());
+        }
+
+        // scanning the directory is expensive for a large cache, so it is only done when the cache
+        // might be too large or the last scan has been a while ago
+        this.storesSinceScan += 1;
+        if (this.estimatedSize >= 0) {
+            this.estimatedSize += addedSize;
+        }
+
+        if (this.estimatedSize < 0 || this.estimatedSize > this.maxSize || this.storesSinceScan >= STORES_BETWEEN_SCANS) {
+            this.evict();
+        }
+    }
+
+    /**
+     * Writes the entry for the given key.
+     *
+     * @return by how many bytes the size of the cache has grown, 0 if nothing has been written
+     */
+    private long write(String key, List<? extends Problem> problems) {
+        ArrayList<Entry> entries = new ArrayList<>(problems.size());
+        for (Problem problem : problems) {
+            entries.add(Entry.of(problem));
+        }
+
+        Path file = this.entryFile(key);
+        try {
+            Files.createDirectories(this.directory);
+            // the entry is written to a temporary file first, so no other thread can read an incomplete entry
+            Path temporaryFile = Files.createTempFile(this.directory, key, ".tmp");
+            try {
+                try (OutputStream outputStream = Files.newOutputStream(temporaryFile);
+                     ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+                    objectOutputStream.writeObject(entries);
+                }
+
+                long addedSize = Files.size(temporaryFile);
+                if (Files.isRegularFile(file)) {
+                    // the entry is replaced, e.g. because its verification failed
+                    addedSize -= Files.size(file);
+                }
+
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return addedSize;
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (NotSerializableException exception) {
+            LOG.debug("Not caching the result, because a problem can not be serialized", exception);
+        } catch (IOException exception) {
+            LOG.warn("Failed to store the result in the cache {}", this.directory, exception);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Removes the results that are too old and then the least recently used results until the cache is small enough.
+     * <p>
+     * This scans the whole directory and updates the estimated size of the cache.
+     * Must only be called while holding the lock of the cache, see {@link #storeAll(Map)}.
+     */
+    private void evict() {
+        record StoredResult(Path path, long size, FileTime lastUsed) {
+        }
+
+        List<StoredResult> results = new ArrayList<>();
+        try (Stream<Path> files = Files.list(this.directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                if (!path.getFileName().toString().endsWith(FILE_EXTENSION)) {
+                    continue;
+                }
+
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                results.add(new StoredResult(path, attributes.size(), attributes.lastModifiedTime()));
+            }
+        } catch (IOException exception) {
+            LOG.warn("Failed to list the results in the cache {}", this.directory, exception);
+            return;
+        }
+
+        this.storesSinceScan = 0;
+
+        results.sort(Comparator.comparing(StoredResult::lastUsed).reversed());
+
+        FileTime oldestAllowed = FileTime.from(Instant.now().minus(this.maxAge));
+        long totalSize = 0;
+        long remainingSize = 0;
+        for (StoredResult result : results) {
+            totalSize += result.size();
+
+            if (totalSize > this.maxSize || result.lastUsed().compareTo(oldestAllowed) < 0) {
+                try {
+                    Files.deleteIfExists(result.path());
+                    continue;
+                } catch (IOException exception) {
+                    LOG.debug("Failed to remove {} from the cache", result.path(), exception);
+                }
+            }
+
+            remainingSize += result.size();
+        }
+
+        this.estimatedSize = remainingSize;
+    }
+
+    private Path entryFile(String key) {
+        return this.directory.resolve(key + FILE_EXTENSION);
+    }
+
+    /**
+     * Starts the key of an entry with everything that identifies the build and the checks.
+     *
+     * @param kind what the entry contains, so entries of different kinds never have the same key
+     * @return the digest to which the source files have to be added
+     */
+    private MessageDigest startKey(String kind, SourceInfo source, List<? extends Check> checks) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is required to be supported", exception);
+        }
+
+        updateDigest(digest, String.valueOf(FORMAT_VERSION));
+        updateDigest(digest, kind);
+        updateDigest(digest, this.buildFingerprint(Linter.class));
+        updateDigest(digest, source.getVersion().name());
+
+        List<String> checkNames = checks.stream().map(check -> check.getClass().getName()).sorted().toList();
+        for (String checkName : checkNames) {
+            updateDigest(digest, checkName);
+        }
+
+        for (Class<?> checkClass : checks.stream().map(Object::getClass).distinct().toList()) {
+            updateDigest(digest, this.buildFingerprint(checkClass));
+        }
+
+        return digest;
+    }
+
+    private static void updateDigest(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // the length is included, so the boundaries between the values are part of the hash
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    /**
+     * Identifies the build of the jar or folder from which the class has been loaded.
+     * <p>
+     * The modification times are used, which change whenever the autograder is rebuilt.
+     */
+    private String buildFingerprint(Class<?> type) {
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return "unknown";
+        }
+
+        Path location;
+        try {
+            location = Path.of(codeSource.getLocation().toURI());
+        } catch (URISyntaxException | IllegalArgumentException exception) {
+            return codeSource.getLocation().toString();
+        }
+
+        return this.buildFingerprints.computeIfAbsent(location, ResultCache::computeBuildFingerprint);
+    }
+
+    private static String computeBuildFingerprint(Path location) {
+        try {
+            if (Files.isRegularFile(location)) {
+                return "%s:%d:%s".formatted(location, Files.size(location), Files.getLastModifiedTime(location));
+            }
+
+            // for a folder (e.g. when running from the IDE), the newest class file is used
+            try (Stream<Path> files = Files.walk(location)) {
+                FileTime newest = files.filter(Files::isRegularFile)
+                    .map(path -> {
+                        try {
+                            return Files.getLastModifiedTime(path);
+                        } catch (IOException exception) {
+                            return FileTime.fromMillis(0);
+                        }
+                    })
+                    .max(Comparator.naturalOrder())
+                    .orElse(FileTime.fromMillis(0));
+
+                return "%s:%s".formatted(location, newest);
+            }
+        } catch (IOException exception) {
+            // without a fingerprint, the build can not be distinguished from other builds
+            return location + ":" + Instant.now();
+        }
+    }
+}
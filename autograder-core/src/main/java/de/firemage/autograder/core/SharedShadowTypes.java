@@ -0,0 +1,90 @@
+package de.firemage.autograder.core;
+
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.factory.FactoryImpl;
+import spoon.reflect.visitor.CtScanner;
+import spoon.support.DefaultCoreFactory;
+import spoon.support.StandardEnvironment;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds the shadow types of the JDK once for all models.
+ * <p>
+ * Spoon creates a shadow type through reflection when a type is requested that is not declared in the code.
+ * The types of the JDK are the same for every submission, so they are built once in a separate model that is
+ * not modified afterward, and each model gets a copy of them. The types themselves can not be shared, because
+ * the analyses (e.g. {@link de.firemage.autograder.core.integrated.UsesFinder}) find their data through the factory of an element.
+ * <p>
+ * This does not reduce the memory used by each model, it replaces the reflection with a copy, which is cheaper.
+ * The {@code ShadowTypeBenchmark} of autograder-bench compares both, the sharing can be disabled with the
+ * system property {@value #ENABLED_PROPERTY}.
+ */
+final class SharedShadowTypes {
+    static final String ENABLED_PROPERTY = "autograder.sharedShadowTypes";
+    private static final boolean IS_ENABLED = Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+
+    private static final Factory FACTORY = new FactoryImpl(new DefaultCoreFactory(), new StandardEnvironment());
+    // the types that have already been built, so they can be looked up without the lock of the factory
+    private static final Map<Class<?>, CtType<?>> BUILT_TYPES = new ConcurrentHashMap<>();
+
+    private SharedShadowTypes() {
+    }
+
+    /**
+     * Checks whether the shadow type of the class is built once for all models.
+     * <p>
+     * Nested types are part of the copy of their top-level type, the classes of the submission and its libraries
+     * might differ between the models, so they are built for each model on their own.
+     *
+     * @param clazz the class to check
+     * @return true if the class is a top-level class of the JDK and the sharing is enabled
+     */
+    static boolean isShared(Class<?> clazz) {
+        if (!IS_ENABLED || clazz.isPrimitive() || clazz.isArray() || clazz.getEnclosingClass() != null) {
+            return false;
+        }
+
+        ClassLoader classLoader = clazz.getClassLoader();
+        return classLoader == null || classLoader == ClassLoader.getPlatformClassLoader();
+    }
+
+    /**
+     * Copies the shadow type of the class into the model of the factory and adds it to its package,
+     * like Spoon does with the shadow types it creates.
+     *
+     * @param factory the factory of the model
+     * @param clazz a class for which {@link #isShared(Class)} is true
+     * @return the copy that is part of the model of the factory
+     * @param <T> the type of the class
+     */
+    static <T> CtType<T> copyInto(Factory factory, Class<?> clazz) {
+        @SuppressWarnings("unchecked")
+        CtType<T> original = (CtType<T>) BUILT_TYPES.get(clazz);
+        if (original == null) {
+            // only building a type modifies the shared model, so only that is done while holding the lock
+            synchronized (FACTORY) {
+                original = FACTORY.Type().get(clazz);
+            }
+            BUILT_TYPES.put(clazz, original);
+        }
+
+        // the original is only read, so it can be copied by multiple threads at once
+        CtType<T> copy = original.clone();
+        copy.accept(new CtScanner() {
+            @Override
+            public void scan(CtElement element) {
+                if (element != null) {
+                    element.setFactory(factory);
+                }
+                super.scan(element);
+            }
+        });
+
+        factory.Package().getOrCreate(original.getPackage().getQualifiedName()).addType(copy);
+        return copy;
+    }
+}
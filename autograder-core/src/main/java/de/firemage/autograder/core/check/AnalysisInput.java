@@ -0,0 +1,39 @@
+package de.firemage.autograder.core.check;
+
+/**
+ * What has to be prepared for a check, before it can analyze a submission.
+ * <p>
+ * The code is always compiled, so that code that does not compile is rejected. Everything else is only prepared
+ * if a check requires it, see {@link ExecutableCheck#requires()}.
+ */
+public enum AnalysisInput {
+    /**
+     * The source files of the submission.
+     */
+    SOURCE_TEXT,
+    /**
+     * The warnings that javac reported while compiling the submission.
+     */
+    COMPILER_DIAGNOSTICS,
+    /**
+     * The class files of the submission, they are used to build the model unless the model is built from the
+     * sources alone.
+     */
+    BYTECODE,
+    /**
+     * The Spoon model of the submission.
+     */
+    MODEL,
+    /**
+     * The uses of each element of the model, see {@link de.firemage.autograder.core.integrated.UsesFinder}.
+     */
+    USES,
+    /**
+     * The methods overriding each other, see {@link de.firemage.autograder.core.integrated.MethodHierarchy}.
+     */
+    METHOD_HIERARCHY,
+    /**
+     * The index of structurally equal statements, see {@link de.firemage.autograder.core.integrated.DuplicateCodeFinder}.
+     */
+    DUPLICATE_CODE
+}
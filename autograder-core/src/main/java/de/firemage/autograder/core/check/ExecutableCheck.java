@@ -12,4 +12,27 @@ import java.lang.annotation.Target;
 public @interface ExecutableCheck {
     ProblemType[] reportedProblems();
     boolean enabled() default true;
+
+    /**
+     * What has to be prepared for the check in addition to what its linter always needs
+     * (e.g. the model for integrated checks).
+     * <p>
+     * The indexes of the model (e.g. {@link AnalysisInput#USES}) are built when they are requested for the first time,
+     * so a missing input only means that it is built while the check runs, instead of before.
+     *
+     * @return the inputs the check requires
+     */
+    AnalysisInput[] requires() default {};
+
+    /**
+     * Whether the problems the check reports in a file only depend on the syntax of that file.
+     * <p>
+     * This is not the case for checks that resolve the types of expressions, look at the uses of an element
+     * or combine what they found in different files, because a change of another file could change their result.
+     * With incremental analysis, file-local checks only analyze the files that have changed and the problems
+     * of the other files are taken from the result cache.
+     *
+     * @return true if the check is file-local
+     */
+    boolean fileLocal() default false;
 }
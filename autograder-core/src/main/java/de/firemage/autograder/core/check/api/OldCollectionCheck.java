@@ -3,16 +3,18 @@ package de.firemage.autograder.core.check.api;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
-import de.firemage.autograder.core.integrated.IntegratedCheck;
-import de.firemage.autograder.core.integrated.StaticAnalysis;
-import spoon.processing.AbstractProcessor;
+import de.firemage.autograder.core.integrated.VisitorCheck;
 import spoon.reflect.code.CtConstructorCall;
 import spoon.reflect.declaration.CtElement;
 
 import java.util.Map;
 
 @ExecutableCheck(reportedProblems = {ProblemType.DEPRECATED_COLLECTION_USED})
-public class OldCollectionCheck extends IntegratedCheck {
+public class OldCollectionCheck extends VisitorCheck<CtConstructorCall<?>> {
+    public OldCollectionCheck() {
+        super(CtConstructorCall.class);
+    }
+
     private void reportProblem(CtElement ctElement, String original, String suggestion) {
         this.addLocalProblem(
             ctElement,
@@ -22,16 +24,11 @@ public class OldCollectionCheck extends IntegratedCheck {
     }
 
     @Override
-    protected void check(StaticAnalysis staticAnalysis) {
-        staticAnalysis.processWith(new AbstractProcessor<CtConstructorCall<?>>() {
-            @Override
-            public void process(CtConstructorCall ctConstructorCall) {
-                switch (ctConstructorCall.getType().getQualifiedName()) {
-                    case "java.util.Vector" -> reportProblem(ctConstructorCall, "Vector", "ArrayList");
-                    case "java.util.Hashtable" -> reportProblem(ctConstructorCall, "Hashtable", "HashMap");
-                    case "java.util.Stack" -> reportProblem(ctConstructorCall, "Stack", "Deque");
-                }
-            }
-        });
+    protected void visit(CtConstructorCall<?> ctConstructorCall) {
+        switch (ctConstructorCall.getType().getQualifiedName()) {
+            case "java.util.Vector" -> reportProblem(ctConstructorCall, "Vector", "ArrayList");
+            case "java.util.Hashtable" -> reportProblem(ctConstructorCall, "Hashtable", "HashMap");
+            case "java.util.Stack" -> reportProblem(ctConstructorCall, "Stack", "Deque");
+        }
     }
 }
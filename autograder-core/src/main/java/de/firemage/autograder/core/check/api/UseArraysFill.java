@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.api;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.ExpressionUtil;
 import de.firemage.autograder.core.integrated.ForLoopRange;
@@ -25,7 +26,7 @@ import spoon.reflect.declaration.CtVariable;
 import java.util.List;
 import java.util.Map;
 
-@ExecutableCheck(reportedProblems = {ProblemType.COMMON_REIMPLEMENTATION_ARRAYS_FILL})
+@ExecutableCheck(reportedProblems = {ProblemType.COMMON_REIMPLEMENTATION_ARRAYS_FILL}, requires = {AnalysisInput.USES})
 public class UseArraysFill extends IntegratedCheck {
     private static boolean canBeAssigned(CtExpression<?> ctExpression) {
         // This could be expanded to allow more expressions if needed
@@ -27,7 +27,7 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
-@ExecutableCheck(reportedProblems = {ProblemType.COMMENTED_OUT_CODE})
+@ExecutableCheck(reportedProblems = {ProblemType.COMMENTED_OUT_CODE}, fileLocal = true)
 public class CommentedOutCodeCheck extends IntegratedCheck {
     private static final Comparator<SourcePosition> POSITION_COMPARATOR =
         Comparator.comparingInt(SourcePosition::getSourceStart);
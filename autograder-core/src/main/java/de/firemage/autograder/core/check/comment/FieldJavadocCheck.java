@@ -15,7 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-@ExecutableCheck(reportedProblems = {ProblemType.JAVADOC_UNEXPECTED_TAG})
+@ExecutableCheck(reportedProblems = {ProblemType.JAVADOC_UNEXPECTED_TAG}, fileLocal = true)
 public class FieldJavadocCheck extends IntegratedCheck {
     private static final List<CtJavaDocTag.TagType> VALID_TAGS = List.of(
         CtJavaDocTag.TagType.SEE,
@@ -20,7 +20,7 @@ import java.util.Optional;
     ProblemType.JAVADOC_MISSING_PARAMETER_TAG,
     ProblemType.JAVADOC_UNKNOWN_PARAMETER_TAG,
     ProblemType.JAVADOC_UNEXPECTED_TAG,
-})
+}, fileLocal = true)
 public class MethodJavadocCheck extends IntegratedCheck {
     private static final List<CtJavaDocTag.TagType> VALID_TAGS = List.of(
         CtJavaDocTag.TagType.PARAM,
@@ -8,7 +8,7 @@ import de.firemage.autograder.core.integrated.StaticAnalysis;
 import spoon.processing.AbstractProcessor;
 import spoon.reflect.code.CtComment;
 
-@ExecutableCheck(reportedProblems = { ProblemType.TODO_COMMENT })
+@ExecutableCheck(reportedProblems = { ProblemType.TODO_COMMENT }, fileLocal = true)
 public class TodoComment extends IntegratedCheck {
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
@@ -19,7 +19,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-@ExecutableCheck(reportedProblems = { ProblemType.UNNECESSARY_COMMENT })
+@ExecutableCheck(reportedProblems = { ProblemType.UNNECESSARY_COMMENT }, fileLocal = true)
 public class UnnecessaryComment extends IntegratedCheck {
     private final Set<CtComment> visitedComments = Collections.newSetFromMap(new IdentityHashMap<>());
 
@@ -16,7 +16,7 @@ import spoon.reflect.code.CtStatement;
 import java.util.List;
 import java.util.Map;
 
-@ExecutableCheck(reportedProblems = { ProblemType.MERGE_NESTED_IF, ProblemType.UNMERGED_ELSE_IF })
+@ExecutableCheck(reportedProblems = { ProblemType.MERGE_NESTED_IF, ProblemType.UNMERGED_ELSE_IF }, fileLocal = true)
 public class ChainedIfCheck extends IntegratedCheck {
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
@@ -21,7 +21,7 @@ import java.util.List;
 @ExecutableCheck(reportedProblems = {
     ProblemType.FOR_WITH_MULTIPLE_VARIABLES,
     ProblemType.MULTIPLE_INLINE_STATEMENTS
-})
+}, fileLocal = true)
 public class MultipleInlineStatements extends IntegratedCheck {
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.complexity;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.check.unnecessary.UnusedCodeElementCheck;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
@@ -22,7 +23,7 @@ import spoon.reflect.reference.CtLocalVariableReference;
 import java.util.List;
 import java.util.Map;
 
-@ExecutableCheck(reportedProblems = { ProblemType.REDUNDANT_ASSIGNMENT })
+@ExecutableCheck(reportedProblems = { ProblemType.REDUNDANT_ASSIGNMENT }, requires = { AnalysisInput.USES })
 public class RedundantAssignment extends IntegratedCheck {
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
@@ -17,7 +17,7 @@ import spoon.reflect.reference.CtVariableReference;
 import java.util.List;
 import java.util.Optional;
 
-@ExecutableCheck(reportedProblems = { ProblemType.REDUNDANT_CATCH })
+@ExecutableCheck(reportedProblems = { ProblemType.REDUNDANT_CATCH }, fileLocal = true)
 public class RedundantCatch extends IntegratedCheck {
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
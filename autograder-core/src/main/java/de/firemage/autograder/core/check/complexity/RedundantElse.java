@@ -16,7 +16,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-@ExecutableCheck(reportedProblems = { ProblemType.REDUNDANT_ELSE })
+@ExecutableCheck(reportedProblems = { ProblemType.REDUNDANT_ELSE }, fileLocal = true)
 public class RedundantElse extends IntegratedCheck {
     private static final int MINIMUM_STATEMENTS = 5;
 
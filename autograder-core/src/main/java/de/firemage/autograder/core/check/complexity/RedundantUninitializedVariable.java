@@ -17,7 +17,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-@ExecutableCheck(reportedProblems = { ProblemType.REDUNDANT_UNINITIALIZED_VARIABLE })
+@ExecutableCheck(reportedProblems = { ProblemType.REDUNDANT_UNINITIALIZED_VARIABLE }, fileLocal = true)
 public class RedundantUninitializedVariable extends IntegratedCheck {
     private static String makeSuggestion(CtLocalVariable<?> ctLocalVariable, CtExpression<?> ctValue) {
         String modifier = ctLocalVariable.getModifiers()
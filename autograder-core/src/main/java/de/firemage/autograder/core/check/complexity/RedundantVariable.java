@@ -3,6 +3,7 @@ package de.firemage.autograder.core.check.complexity;
 import de.firemage.autograder.core.CodeModel;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.StatementUtil;
@@ -20,7 +21,7 @@ import spoon.reflect.visitor.CtScanner;
 
 import java.util.Map;
 
-@ExecutableCheck(reportedProblems = {ProblemType.REDUNDANT_VARIABLE})
+@ExecutableCheck(reportedProblems = {ProblemType.REDUNDANT_VARIABLE}, requires = {AnalysisInput.USES})
 public class RedundantVariable extends IntegratedCheck {
     private static final int MAX_EXPRESSION_SIZE = 40;
 
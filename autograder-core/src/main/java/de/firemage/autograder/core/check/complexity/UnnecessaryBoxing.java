@@ -3,6 +3,7 @@ package de.firemage.autograder.core.check.complexity;
 import de.firemage.autograder.core.CodeModel;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.ExpressionUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
@@ -17,7 +18,7 @@ import spoon.reflect.reference.CtTypeReference;
 
 import java.util.Map;
 
-@ExecutableCheck(reportedProblems = { ProblemType.UNNECESSARY_BOXING })
+@ExecutableCheck(reportedProblems = { ProblemType.UNNECESSARY_BOXING }, requires = { AnalysisInput.USES })
 public class UnnecessaryBoxing extends IntegratedCheck {
     private static boolean isBoxedType(CtTypeReference<?> ctTypeReference) {
         // a type is boxed if it changes when unboxed
@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.complexity;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.CoreUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
@@ -41,7 +42,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.function.Predicate;
 
-@ExecutableCheck(reportedProblems = { ProblemType.UNUSED_IMPORT })
+@ExecutableCheck(reportedProblems = { ProblemType.UNUSED_IMPORT }, requires = { AnalysisInput.USES })
 public class UnusedImport extends IntegratedCheck {
     private static final Set<CtImportKind> SUPPORTED_IMPORTS = Set.of(
         CtImportKind.FIELD,
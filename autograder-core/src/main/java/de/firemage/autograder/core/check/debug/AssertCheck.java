@@ -3,20 +3,17 @@ package de.firemage.autograder.core.check.debug;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
-import de.firemage.autograder.core.integrated.IntegratedCheck;
-import de.firemage.autograder.core.integrated.StaticAnalysis;
-import spoon.processing.AbstractProcessor;
+import de.firemage.autograder.core.integrated.VisitorCheck;
 import spoon.reflect.code.CtAssert;
 
-@ExecutableCheck(reportedProblems = {ProblemType.ASSERT})
-public class AssertCheck extends IntegratedCheck {
+@ExecutableCheck(reportedProblems = {ProblemType.ASSERT}, fileLocal = true)
+public class AssertCheck extends VisitorCheck<CtAssert<?>> {
+    public AssertCheck() {
+        super(CtAssert.class);
+    }
+
     @Override
-    protected void check(StaticAnalysis staticAnalysis) {
-        staticAnalysis.processWith(new AbstractProcessor<CtAssert<?>>() {
-            @Override
-            public void process(CtAssert<?> element) {
-                addLocalProblem(element, new LocalizedMessage("assert-used"), ProblemType.ASSERT);
-            }
-        });
+    protected void visit(CtAssert<?> element) {
+        addLocalProblem(element, new LocalizedMessage("assert-used"), ProblemType.ASSERT);
     }
 }
@@ -3,15 +3,17 @@ package de.firemage.autograder.core.check.debug;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
-import de.firemage.autograder.core.integrated.IntegratedCheck;
-import de.firemage.autograder.core.integrated.StaticAnalysis;
 import de.firemage.autograder.core.integrated.TypeUtil;
-import spoon.processing.AbstractProcessor;
+import de.firemage.autograder.core.integrated.VisitorCheck;
 import spoon.reflect.code.CtInvocation;
 import spoon.reflect.code.CtVariableRead;
 
 @ExecutableCheck(reportedProblems = {ProblemType.EXCEPTION_PRINT_STACK_TRACE})
-public class PrintStackTraceCheck extends IntegratedCheck {
+public class PrintStackTraceCheck extends VisitorCheck<CtInvocation<?>> {
+    public PrintStackTraceCheck() {
+        super(CtInvocation.class);
+    }
+
     private static boolean hasInvokedPrintStackTrace(CtInvocation<?> ctInvocation) {
         return ctInvocation.getTarget() instanceof CtVariableRead<?> ctVariableRead
             // workaround for https://github.com/INRIA/spoon/issues/5414
@@ -22,18 +24,13 @@ public class PrintStackTraceCheck extends IntegratedCheck {
     }
 
     @Override
-    protected void check(StaticAnalysis staticAnalysis) {
-        staticAnalysis.processWith(new AbstractProcessor<CtInvocation<?>>() {
-            @Override
-            public void process(CtInvocation<?> ctInvocation) {
-                if (hasInvokedPrintStackTrace(ctInvocation)) {
-                    addLocalProblem(
-                        ctInvocation,
-                        new LocalizedMessage("print-stack-trace"),
-                        ProblemType.EXCEPTION_PRINT_STACK_TRACE
-                    );
-                }
-            }
-        });
+    protected void visit(CtInvocation<?> ctInvocation) {
+        if (hasInvokedPrintStackTrace(ctInvocation)) {
+            addLocalProblem(
+                ctInvocation,
+                new LocalizedMessage("print-stack-trace"),
+                ProblemType.EXCEPTION_PRINT_STACK_TRACE
+            );
+        }
     }
 }
@@ -31,7 +31,7 @@ import java.util.stream.Collectors;
 public class DuplicateCatchBlock extends IntegratedCheck {
     public static boolean isDuplicateBlock(CtStatement left, CtStatement right, Predicate<? super StructuralEqualsVisitor.Difference> isAllowedDifference) {
         // We initially reject any difference, whether a difference is fine, will later be checked
-        StructuralEqualsVisitor visitor = new StructuralEqualsVisitor((ctRole, element) -> false);
+        StructuralEqualsVisitor visitor = new StructuralEqualsVisitor(StructuralEqualsVisitor.ALLOW_NO_DIFFERENCE);
 
         // don't emit a problem if the catch block was already a duplicate of another block flagged by the duplicate code check
         if (DuplicateCode.isConsideredDuplicateCode(List.of(left), List.of(right))) {
@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.exceptions;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 
 import de.firemage.autograder.core.integrated.ExpressionUtil;
@@ -20,7 +21,7 @@ import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtType;
 
-@ExecutableCheck(reportedProblems = ProblemType.EXCEPTION_WITHOUT_MESSAGE)
+@ExecutableCheck(reportedProblems = ProblemType.EXCEPTION_WITHOUT_MESSAGE, requires = {AnalysisInput.METHOD_HIERARCHY})
 public class ExceptionMessageCheck extends IntegratedCheck {
     private static boolean isExceptionWithoutMessage(CtExpression<?> expression) {
         if (!(expression instanceof CtConstructorCall<?> ctConstructorCall)
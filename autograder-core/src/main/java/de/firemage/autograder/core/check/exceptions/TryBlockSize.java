@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.exceptions;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.CoreUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
@@ -36,7 +37,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.function.Predicate;
 
-@ExecutableCheck(reportedProblems = { ProblemType.TRY_BLOCK_SIZE })
+@ExecutableCheck(reportedProblems = { ProblemType.TRY_BLOCK_SIZE }, requires = { AnalysisInput.USES })
 public class TryBlockSize extends IntegratedCheck {
     private static boolean noneThrow(CtStatement ctStatement, Predicate<? super CtTypeReference<?>> isMatch) {
         List<CtTypeReference<?>> thrownExceptions = new ArrayList<>();
@@ -3,26 +3,23 @@ package de.firemage.autograder.core.check.general;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
-import de.firemage.autograder.core.integrated.IntegratedCheck;
-import de.firemage.autograder.core.integrated.StaticAnalysis;
-import spoon.processing.AbstractProcessor;
+import de.firemage.autograder.core.integrated.VisitorCheck;
 import spoon.reflect.code.CtStatement;
 
-@ExecutableCheck(reportedProblems = { ProblemType.AVOID_LABELS })
-public class AvoidLabels extends IntegratedCheck {
+@ExecutableCheck(reportedProblems = { ProblemType.AVOID_LABELS }, fileLocal = true)
+public class AvoidLabels extends VisitorCheck<CtStatement> {
+    public AvoidLabels() {
+        super(CtStatement.class);
+    }
+
     @Override
-    protected void check(StaticAnalysis staticAnalysis) {
-        staticAnalysis.processWith(new AbstractProcessor<CtStatement>() {
-            @Override
-            public void process(CtStatement ctStatement) {
-                if (ctStatement.getLabel() != null) {
-                    addLocalProblem(
-                        ctStatement,
-                        new LocalizedMessage("avoid-labels"),
-                        ProblemType.AVOID_LABELS
-                    );
-                }
-            }
-        });
+    protected void visit(CtStatement ctStatement) {
+        if (ctStatement.getLabel() != null) {
+            addLocalProblem(
+                ctStatement,
+                new LocalizedMessage("avoid-labels"),
+                ProblemType.AVOID_LABELS
+            );
+        }
     }
 }
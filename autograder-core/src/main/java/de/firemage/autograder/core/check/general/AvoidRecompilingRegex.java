@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.general;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.ExpressionUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
@@ -18,7 +19,7 @@ import spoon.reflect.declaration.CtField;
 import java.util.List;
 import java.util.Map;
 
-@ExecutableCheck(reportedProblems = { ProblemType.AVOID_RECOMPILING_REGEX })
+@ExecutableCheck(reportedProblems = { ProblemType.AVOID_RECOMPILING_REGEX }, requires = { AnalysisInput.USES })
 public class AvoidRecompilingRegex extends IntegratedCheck {
     private boolean isPatternInvocation(CtInvocation<?> ctInvocation) {
         return ctInvocation.getTarget() instanceof CtTypeAccess<?> ctTypeAccess
@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.general;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
@@ -24,7 +25,7 @@ import java.util.List;
 import java.util.Map;
 
 
-@ExecutableCheck(reportedProblems = {ProblemType.AVOID_SHADOWING})
+@ExecutableCheck(reportedProblems = {ProblemType.AVOID_SHADOWING}, requires = {AnalysisInput.USES})
 public class AvoidShadowing extends IntegratedCheck {
     // a lower bound for the number of reads on a hidden field, before it is reported
     private static final int MINIMUM_FIELD_READS = 2;
@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.general;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.StatementUtil;
@@ -18,7 +19,7 @@ import spoon.reflect.declaration.CtField;
 import java.util.Map;
 import java.util.Optional;
 
-@ExecutableCheck(reportedProblems = {ProblemType.FIELD_SHOULD_BE_FINAL})
+@ExecutableCheck(reportedProblems = {ProblemType.FIELD_SHOULD_BE_FINAL}, requires = {AnalysisInput.USES})
 public class FieldShouldBeFinal extends IntegratedCheck {
     /**
      * Checks if a field can be final.
@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.general;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 
 import de.firemage.autograder.core.integrated.ForLoopRange;
@@ -30,7 +31,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
-@ExecutableCheck(reportedProblems = {ProblemType.FOR_CAN_BE_FOREACH})
+@ExecutableCheck(reportedProblems = {ProblemType.FOR_CAN_BE_FOREACH}, requires = {AnalysisInput.USES})
 public class ForToForEachLoop extends IntegratedCheck {
     private static final Function<CtVariableAccess<?>, Optional<CtVariableAccess<?>>> LOOP_VARIABLE_ACCESS_STRING = ctVariableAccess -> {
         if (ctVariableAccess.getParent() instanceof CtInvocation<?> ctInvocation
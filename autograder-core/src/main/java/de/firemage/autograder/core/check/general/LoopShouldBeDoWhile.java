@@ -16,7 +16,7 @@ import java.util.Deque;
 import java.util.Map;
 
 
-@ExecutableCheck(reportedProblems = { ProblemType.LOOP_SHOULD_BE_DO_WHILE })
+@ExecutableCheck(reportedProblems = { ProblemType.LOOP_SHOULD_BE_DO_WHILE }, fileLocal = true)
 public class LoopShouldBeDoWhile extends IntegratedCheck {
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
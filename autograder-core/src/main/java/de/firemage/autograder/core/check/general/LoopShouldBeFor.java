@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.general;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.FactoryUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
@@ -32,7 +33,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
-@ExecutableCheck(reportedProblems = {ProblemType.LOOP_SHOULD_BE_FOR})
+@ExecutableCheck(reportedProblems = {ProblemType.LOOP_SHOULD_BE_FOR}, requires = {AnalysisInput.USES})
 public class LoopShouldBeFor extends IntegratedCheck {
     private static CtFor createCtFor(
         Collection<? extends CtStatement> init,
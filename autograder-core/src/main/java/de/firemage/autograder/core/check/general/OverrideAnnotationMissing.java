@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.general;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.MethodHierarchy;
@@ -11,7 +12,7 @@ import spoon.reflect.declaration.CtMethod;
 
 import java.util.Map;
 
-@ExecutableCheck(reportedProblems = { ProblemType.OVERRIDE_ANNOTATION_MISSING })
+@ExecutableCheck(reportedProblems = { ProblemType.OVERRIDE_ANNOTATION_MISSING }, requires = { AnalysisInput.METHOD_HIERARCHY })
 public class OverrideAnnotationMissing extends IntegratedCheck {
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
@@ -12,7 +12,7 @@ import spoon.reflect.declaration.CtParameter;
 
 import java.util.Map;
 
-@ExecutableCheck(reportedProblems = {ProblemType.REASSIGNED_PARAMETER})
+@ExecutableCheck(reportedProblems = {ProblemType.REASSIGNED_PARAMETER}, fileLocal = true)
 public class ReassignedParameterCheck extends IntegratedCheck {
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
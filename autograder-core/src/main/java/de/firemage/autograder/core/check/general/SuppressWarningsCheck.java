@@ -3,26 +3,23 @@ package de.firemage.autograder.core.check.general;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
-import de.firemage.autograder.core.integrated.IntegratedCheck;
-import de.firemage.autograder.core.integrated.StaticAnalysis;
-import spoon.processing.AbstractProcessor;
+import de.firemage.autograder.core.integrated.VisitorCheck;
 import spoon.reflect.declaration.CtAnnotation;
 
 @ExecutableCheck(reportedProblems = {ProblemType.SUPPRESS_WARNINGS_USED})
-public class SuppressWarningsCheck extends IntegratedCheck {
+public class SuppressWarningsCheck extends VisitorCheck<CtAnnotation<?>> {
+    public SuppressWarningsCheck() {
+        super(CtAnnotation.class);
+    }
+
     @Override
-    protected void check(StaticAnalysis staticAnalysis) {
-        staticAnalysis.processWith(new AbstractProcessor<CtAnnotation<?>>() {
-            @Override
-            public void process(CtAnnotation<?> annotation) {
-                if (annotation.getAnnotationType().getQualifiedName().equals("java.lang.SuppressWarnings")) {
-                    addLocalProblem(
-                            annotation,
-                            new LocalizedMessage("suppress-warnings"),
-                            ProblemType.SUPPRESS_WARNINGS_USED
-                    );
-                }
-            }
-        });
+    protected void visit(CtAnnotation<?> annotation) {
+        if (annotation.getAnnotationType().getQualifiedName().equals("java.lang.SuppressWarnings")) {
+            addLocalProblem(
+                    annotation,
+                    new LocalizedMessage("suppress-warnings"),
+                    ProblemType.SUPPRESS_WARNINGS_USED
+            );
+        }
     }
 }
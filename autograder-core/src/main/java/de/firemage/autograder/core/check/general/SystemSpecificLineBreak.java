@@ -11,7 +11,7 @@ import spoon.reflect.code.CtTextBlock;
 
 import java.util.Optional;
 
-@ExecutableCheck(reportedProblems = { ProblemType.SYSTEM_SPECIFIC_LINE_BREAK })
+@ExecutableCheck(reportedProblems = { ProblemType.SYSTEM_SPECIFIC_LINE_BREAK }, fileLocal = true)
 public class SystemSpecificLineBreak extends IntegratedCheck {
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
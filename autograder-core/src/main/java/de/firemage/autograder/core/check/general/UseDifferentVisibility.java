@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.general;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.ElementUtil;
@@ -30,7 +31,7 @@ import java.util.stream.Stream;
     ProblemType.USE_DIFFERENT_VISIBILITY,
     ProblemType.USE_DIFFERENT_VISIBILITY_PEDANTIC,
     ProblemType.USE_DIFFERENT_VISIBILITY_PUBLIC_FIELD
-})
+}, requires = {AnalysisInput.USES, AnalysisInput.METHOD_HIERARCHY})
 public class UseDifferentVisibility extends IntegratedCheck {
     private enum Visibility implements Comparable<Visibility> {
         PRIVATE,
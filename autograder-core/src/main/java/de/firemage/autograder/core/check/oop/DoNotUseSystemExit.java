@@ -3,14 +3,16 @@ package de.firemage.autograder.core.check.oop;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
-import de.firemage.autograder.core.integrated.IntegratedCheck;
-import de.firemage.autograder.core.integrated.StaticAnalysis;
-import spoon.processing.AbstractProcessor;
+import de.firemage.autograder.core.integrated.VisitorCheck;
 import spoon.reflect.code.CtInvocation;
 import spoon.reflect.code.CtTypeAccess;
 
 @ExecutableCheck(reportedProblems = { ProblemType.DO_NOT_USE_SYSTEM_EXIT })
-public class DoNotUseSystemExit extends IntegratedCheck {
+public class DoNotUseSystemExit extends VisitorCheck<CtInvocation<?>> {
+    public DoNotUseSystemExit() {
+        super(CtInvocation.class);
+    }
+
     private boolean hasInvokedSystemExit(CtInvocation<?> ctInvocation) {
         // System.exit(int) is a CtInvocation of the method exit(int)
         // The target of the invocation is System, which is a CtTypeAccess
@@ -33,12 +35,7 @@ public class DoNotUseSystemExit extends IntegratedCheck {
     }
 
     @Override
-    protected void check(StaticAnalysis staticAnalysis) {
-        staticAnalysis.processWith(new AbstractProcessor<CtInvocation<?>>() {
-            @Override
-            public void process(CtInvocation<?> ctInvocation) {
-                checkCtInvocation(ctInvocation);
-            }
-        });
+    protected void visit(CtInvocation<?> ctInvocation) {
+        this.checkCtInvocation(ctInvocation);
     }
 }
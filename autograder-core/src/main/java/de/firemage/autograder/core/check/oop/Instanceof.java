@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.oop;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.MethodHierarchy;
@@ -19,7 +20,7 @@ import spoon.reflect.visitor.CtScanner;
 
 import java.util.Set;
 
-@ExecutableCheck(reportedProblems = { ProblemType.INSTANCEOF, ProblemType.INSTANCEOF_EMULATION })
+@ExecutableCheck(reportedProblems = { ProblemType.INSTANCEOF, ProblemType.INSTANCEOF_EMULATION }, requires = { AnalysisInput.METHOD_HIERARCHY })
 public class Instanceof extends IntegratedCheck {
     private static final Set<String> FORBIDDEN_CLASS_METHODS = Set.of(
         "descriptorString",
@@ -14,7 +14,7 @@ import java.util.List;
 import java.util.Set;
 
 @ExecutableCheck(reportedProblems = { ProblemType.DO_NOT_HAVE_CONSTANTS_CLASS,
-                                      ProblemType.EMPTY_INTERFACE })
+                                      ProblemType.EMPTY_INTERFACE }, fileLocal = true)
 public class InterfaceBadPractices extends IntegratedCheck {
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
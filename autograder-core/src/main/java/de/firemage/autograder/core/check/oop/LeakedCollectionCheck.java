@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.oop;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.check.utils.Option;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
@@ -81,7 +82,7 @@ import java.util.stream.Stream;
 @ExecutableCheck(reportedProblems = {
     ProblemType.LEAKED_COLLECTION_RETURN,
     ProblemType.LEAKED_COLLECTION_ASSIGN
-})
+}, requires = {AnalysisInput.USES})
 public class LeakedCollectionCheck extends IntegratedCheck {
     private static boolean isMutableType(CtTypedElement<?> ctTypedElement) {
         return ctTypedElement.getType().isArray() || TypeUtil.isSubtypeOf(ctTypedElement.getType(), java.util.Collection.class) ||
@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.oop;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.MethodHierarchy;
@@ -21,7 +22,7 @@ import spoon.reflect.declaration.CtMethod;
 import java.util.List;
 import java.util.Map;
 
-@ExecutableCheck(reportedProblems = {ProblemType.METHOD_USES_PLACEHOLDER_IMPLEMENTATION})
+@ExecutableCheck(reportedProblems = {ProblemType.METHOD_USES_PLACEHOLDER_IMPLEMENTATION}, requires = {AnalysisInput.METHOD_HIERARCHY})
 public class MethodShouldBeAbstractCheck extends IntegratedCheck {
     private static LocalizedMessage formatExplanation(CtMethod<?> method) {
         return new LocalizedMessage("method-should-be-abstract", Map.of(
@@ -2,6 +2,7 @@ package de.firemage.autograder.core.check.structure;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.CoreUtil;
 import de.firemage.autograder.core.integrated.DuplicateCodeFinder;
@@ -22,7 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-@ExecutableCheck(reportedProblems = { ProblemType.DUPLICATE_CODE })
+@ExecutableCheck(reportedProblems = { ProblemType.DUPLICATE_CODE }, requires = { AnalysisInput.DUPLICATE_CODE })
 public class DuplicateCode extends IntegratedCheck {
     private static final int MINIMUM_DUPLICATE_STATEMENT_SIZE = 10;
 
@@ -60,11 +61,13 @@ public class DuplicateCode extends IntegratedCheck {
         Set<CtElement> reported = Collections.newSetFromMap(new IdentityHashMap<>());
         staticAnalysis.getModel().getRootPackage().accept(new CtScanner() {
             private void checkCtStatement(CtStatement ctStatement) {
-                if (ctStatement.isImplicit() || !ctStatement.getPosition().isValidPosition()) {
+                // every duplicate would contain the statement, so it could not be reported
+                if (ctStatement.isImplicit() || !ctStatement.getPosition().isValidPosition() || reported.contains(ctStatement)) {
                     return;
                 }
 
-                for (var duplicate : DuplicateCodeFinder.findDuplicates(ctStatement)) {
+                // only duplicates that are large enough are found, so the expensive checks run for few candidates
+                for (var duplicate : DuplicateCodeFinder.findDuplicates(ctStatement, MINIMUM_DUPLICATE_STATEMENT_SIZE)) {
                     if (isAnyStatementIn(duplicate, reported) || !isConsideredDuplicateCode(duplicate.left(), duplicate.right())) {
                         continue;
                     }
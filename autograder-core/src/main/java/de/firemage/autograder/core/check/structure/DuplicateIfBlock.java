@@ -7,6 +7,8 @@ import de.firemage.autograder.core.check.exceptions.DuplicateCatchBlock;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.StatementUtil;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
+import de.firemage.autograder.core.integrated.structure.StructuralEqualsVisitor;
+import de.firemage.autograder.core.integrated.structure.StructuralHashCodeVisitor;
 import spoon.processing.AbstractProcessor;
 import spoon.reflect.code.CtIf;
 import spoon.reflect.code.CtStatement;
@@ -23,7 +25,7 @@ import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-@ExecutableCheck(reportedProblems = { ProblemType.DUPLICATE_IF_BLOCK })
+@ExecutableCheck(reportedProblems = { ProblemType.DUPLICATE_IF_BLOCK }, fileLocal = true)
 public class DuplicateIfBlock extends IntegratedCheck {
     private static List<CtStatement> getElseStatements(CtIf ctIf, List<CtStatement> followingStatements) {
         List<CtStatement> elseStatements;
@@ -138,9 +140,13 @@ public class DuplicateIfBlock extends IntegratedCheck {
                     return;
                 }
 
+                // blocks with different hash codes can not be equal, so most blocks are rejected without comparing them
+                CtStatement thenStatement = ctIf.getThenStatement();
+                int thenHashCode = thenStatement == null ? 0 : StructuralHashCodeVisitor.computeHashCode(thenStatement, StructuralEqualsVisitor.ALLOW_NO_DIFFERENCE);
                 List<CtIf> duplicates = listDuplicates(
                     ctIf,
-                    ctStatement -> DuplicateCatchBlock.isDuplicateBlock(ctIf.getThenStatement(), ctStatement, difference -> false)
+                    ctStatement -> (thenStatement == null || StructuralHashCodeVisitor.computeHashCode(ctStatement, StructuralEqualsVisitor.ALLOW_NO_DIFFERENCE) == thenHashCode)
+                        && DuplicateCatchBlock.isDuplicateBlock(thenStatement, ctStatement, difference -> false)
                 );
 
                 if (duplicates.stream().anyMatch(visited::contains)) {
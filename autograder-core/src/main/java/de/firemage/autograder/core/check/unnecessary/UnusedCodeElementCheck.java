@@ -3,6 +3,7 @@ package de.firemage.autograder.core.check.unnecessary;
 import de.firemage.autograder.core.CodeModel;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
@@ -30,7 +31,7 @@ import spoon.reflect.visitor.CtScanner;
 import java.util.Map;
 import java.util.Optional;
 
-@ExecutableCheck(reportedProblems = { ProblemType.UNUSED_CODE_ELEMENT, ProblemType.UNUSED_CODE_ELEMENT_PRIVATE })
+@ExecutableCheck(reportedProblems = { ProblemType.UNUSED_CODE_ELEMENT, ProblemType.UNUSED_CODE_ELEMENT_PRIVATE }, requires = { AnalysisInput.USES, AnalysisInput.METHOD_HIERARCHY })
 public class UnusedCodeElementCheck extends IntegratedCheck {
     /**
      * This method implements a number of special cases for elements that we allow to be unused,
@@ -1,8 +1,7 @@
 package de.firemage.autograder.core.compiler;
 
-import java.nio.file.Path;
 import java.util.List;
 
-public record CompilationResult(Path jar, List<CompilationDiagnostic> diagnostics) {
+public record CompilationResult(CompiledClasses classes, List<CompilationDiagnostic> diagnostics) {
 
 }
@@ -0,0 +1,80 @@
+package de.firemage.autograder.core.compiler;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The class files that were produced by the compiler. They are only kept in memory and never written to disk.
+ */
+public final class CompiledClasses {
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    // binary name of the class -> content of the class file
+    private final Map<String, byte[]> classFiles;
+
+    CompiledClasses(Map<String, byte[]> classFiles) {
+        this.classFiles = Map.copyOf(classFiles);
+    }
+
+    /**
+     * Returns the binary names of all compiled classes.
+     *
+     * @return the binary names, like {@code com.example.Outer$Inner}
+     */
+    public Set<String> classNames() {
+        return this.classFiles.keySet();
+    }
+
+    public Optional<byte[]> getClassFile(String binaryName) {
+        return Optional.ofNullable(this.classFiles.get(binaryName)).map(byte[]::clone);
+    }
+
+    /**
+     * Creates a class loader that loads the compiled classes from memory.
+     *
+     * @param parent the parent class loader which is asked first
+     * @return a new class loader, there is nothing to close after it is no longer used
+     */
+    public ClassLoader createClassLoader(ClassLoader parent) {
+        return new InMemoryClassLoader(this.classFiles, parent);
+    }
+
+    private static final class InMemoryClassLoader extends ClassLoader {
+        static {
+            ClassLoader.registerAsParallelCapable();
+        }
+
+        private final Map<String, byte[]> classFiles;
+
+        private InMemoryClassLoader(Map<String, byte[]> classFiles, ClassLoader parent) {
+            super(parent);
+            this.classFiles = classFiles;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] classFile = this.classFiles.get(name);
+            if (classFile == null) {
+                throw new ClassNotFoundException(name);
+            }
+
+            return this.defineClass(name, classFile, 0, classFile.length);
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            if (name.endsWith(CLASS_FILE_EXTENSION)) {
+                String binaryName = name.substring(0, name.length() - CLASS_FILE_EXTENSION.length()).replace('/', '.');
+                byte[] classFile = this.classFiles.get(binaryName);
+                if (classFile != null) {
+                    return new ByteArrayInputStream(classFile);
+                }
+            }
+
+            return super.getResourceAsStream(name);
+        }
+    }
+}
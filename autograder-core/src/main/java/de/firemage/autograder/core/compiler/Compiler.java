@@ -1,39 +1,41 @@
 package de.firemage.autograder.core.compiler;
 
 import de.firemage.autograder.api.JavaVersion;
-import de.firemage.autograder.api.AbstractTempLocation;
 import de.firemage.autograder.core.file.CompilationUnit;
 import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.jfr.CompilationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.tools.DiagnosticCollector;
 import javax.tools.JavaCompiler;
-import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
-import javax.tools.ToolProvider;
-import java.io.BufferedInputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
-import java.io.Writer;
 import java.nio.charset.Charset;
-import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
-import java.util.jar.Attributes;
-import java.util.jar.JarEntry;
-import java.util.jar.JarOutputStream;
-import java.util.jar.Manifest;
 import java.util.regex.Pattern;
 
-public record Compiler(AbstractTempLocation tempLocation, JavaVersion javaVersion) {
+/**
+ * Compiles the submitted code.
+ *
+ * @param javaVersion the java version to compile for
+ * @param generateClasses if false, the compiler stops after analyzing the code, so only the diagnostics are reported
+ *                        and no class files are generated
+ */
+public record Compiler(JavaVersion javaVersion, boolean generateClasses) {
+    private static final Logger LOG = LoggerFactory.getLogger(Compiler.class);
     static final Locale COMPILER_LOCALE = Locale.US;
+    private static final Pattern SUPPRESS_WARNINGS_PATTERN = Pattern.compile("@SuppressWarnings\\((.+?)\\)", Pattern.DOTALL);
 
-    public Optional<CompilationResult> compileToJar(SourceInfo input) throws IOException, CompilationFailureException {
+    public Compiler(JavaVersion javaVersion) {
+        this(javaVersion, true);
+    }
+
+    public Optional<CompilationResult> compile(SourceInfo input) throws IOException, CompilationFailureException {
         return this.compileAndIgnoreSuppressWarnings(input);
     }
 
@@ -41,91 +43,107 @@ public record Compiler(AbstractTempLocation tempLocation, JavaVersion javaVersio
     // one wants to lint things that the compiler emits like unchecked casts.
     //
     // This piece of code, tries to patch the @SuppressWarnings annotation to not ignore any warnings.
+    // The patched files are only kept in memory and report the uri of the original file.
+    //
+    // The patching keeps all positions in the file intact and @SuppressWarnings is not retained in the
+    // class files, so a single compilation of the patched files yields both the diagnostics and the classes.
     private Optional<CompilationResult> compileAndIgnoreSuppressWarnings(
         SourceInfo input
     ) throws IOException, CompilationFailureException {
-        Optional<CompilationResult> compilationResult;
-        try (AbstractTempLocation modifiedOutput = this.tempLocation.createTempDirectory(input.getName() + "_modified")) {
-            SourceInfo copiedVersion = input.copyTo(modifiedOutput.toPath());
-
-            List<CompilationUnit> compilationUnits = copiedVersion.compilationUnits();
-            // patch the files:
-            for (CompilationUnit file : compilationUnits) {
-                JavaFileObject javaFileObject = file.toJavaFileObject();
-                String content = file.readString();
-                Pattern pattern = Pattern.compile("@SuppressWarnings\\((.+?)\\)", Pattern.DOTALL);
-                String patched = pattern.matcher(content).replaceAll(matchResult -> {
-                    String group = matchResult.group(1);
-                    String result = "";
-                    int i = 0;
-                    int length = group.length();
-                    for (char c : group.toCharArray()) {
-                        if (i == 0) {
-                            result += '{';
-                        } else if (i == length - 1) {
-                            result += '}';
-                        } else if (c == '\r' || c == '\n') {
-                            result += c;
-                        } else {
-                            result += ' ';
-                        }
-
-                        i++;
-                    }
-
-                    return "@SuppressWarnings(%s)".formatted(result);
-                });
-
-                try (Writer writer = javaFileObject.openWriter()) {
-                    writer.write(patched);
-                }
-            }
+        List<CompilationUnit> compilationUnits = input.compilationUnits();
 
-            compilationResult = this.compile(copiedVersion);
+        List<JavaFileObject> patchedFiles = new ArrayList<>();
+        for (CompilationUnit file : compilationUnits) {
+            patchedFiles.add(new InMemorySourceFile(file.toJavaFileObject(), patchSuppressWarnings(file.readString())));
         }
 
-        List<CompilationDiagnostic> diagnostics = compilationResult.map(CompilationResult::diagnostics).orElse(List.of());
-
-        // now compile the code again, but this time without the patched version (to prevent problems if the patching
-        // is broken with the source position)
-        return this.compile(input).map(res -> new CompilationResult(res.jar(), diagnostics));
+        try {
+            return this.compile(input, patchedFiles);
+        } catch (CompilationFailureException exception) {
+            // The patching might break the code (e.g. a ')' in a string literal of the annotation),
+            // in that case the original code is compiled, which reports the real errors if there are any.
+            LOG.debug("Failed to compile the patched code, falling back to the original code", exception);
+            return this.compile(input, compilationUnits.stream().map(CompilationUnit::toJavaFileObject).toList());
+        }
     }
 
-    private Optional<CompilationResult> compile(SourceInfo input) throws IOException, CompilationFailureException {
+    // Replaces the content of the annotation with whitespace, so that the positions in the file do not change.
+    private static String patchSuppressWarnings(String content) {
+        return SUPPRESS_WARNINGS_PATTERN.matcher(content).replaceAll(matchResult -> {
+            String group = matchResult.group(1);
+            StringBuilder result = new StringBuilder(group.length());
+            int i = 0;
+            int length = group.length();
+            for (char c : group.toCharArray()) {
+                if (i == 0) {
+                    result.append('{');
+                } else if (i == length - 1) {
+                    result.append('}');
+                } else if (c == '\r' || c == '\n') {
+                    result.append(c);
+                } else {
+                    result.append(' ');
+                }
+
+                i++;
+            }
 
+            return "@SuppressWarnings(%s)".formatted(result);
+        });
+    }
+
+    private Optional<CompilationResult> compile(
+        SourceInfo input,
+        List<? extends JavaFileObject> sources
+    ) throws IOException, CompilationFailureException {
         List<CompilationUnit> compilationUnits = input.compilationUnits();
 
         if (compilationUnits.isEmpty()) {
             return Optional.empty();
         }
 
-        // TODO: charset should be for each file individually, this requires changing SeparateBinaryFileManager
+        // TODO: charset should be for each file individually
         Charset charset = compilationUnits.get(0).charset();
 
         JavaCompiler compiler = CompilerProvider.findSystemCompiler();
         DiagnosticCollector<JavaFileObject> diagnosticCollector = new DiagnosticCollector<>();
         StringWriter output = new StringWriter();
 
+        List<String> options = new ArrayList<>(List.of(
+            "-Xlint:all", "-Xlint:-processing", "-Xlint:-serial",
+            "--release=" + javaVersion.getVersionString()
+        ));
+        if (!this.generateClasses) {
+            // all warnings are reported up to the WARN phase (attribution, flow analysis and the this-escape analysis),
+            // the later phases only lower the code and generate the class files
+            options.add("-XDshould-stop.ifNoError=WARN");
+        }
+
         List<CompilationDiagnostic> diagnostics = new ArrayList<>();
 
-        Path jar;
-        try (AbstractTempLocation compilerOutput = this.tempLocation.createTempDirectory(input.getName() + "_compiled")) {
-            JavaFileManager fileManager = new SeparateBinaryFileManager(
-                compiler.getStandardFileManager(diagnosticCollector, Locale.US, charset),
-                compilerOutput.toPath().toFile(),
-                charset
-            );
-
-            boolean isSuccessful = compiler.getTask(
-                output,
-                fileManager,
-                diagnosticCollector,
-                Arrays.asList("-Xlint:all", "-Xlint:-processing", "-Xlint:-serial",
-                    "--release=" + javaVersion.getVersionString()
-                ),
-                null,
-                compilationUnits.stream().map(CompilationUnit::toJavaFileObject).toList()
-            ).call();
+        CompiledClasses classes;
+        try (InMemoryFileManager fileManager = new InMemoryFileManager(
+            compiler.getStandardFileManager(diagnosticCollector, COMPILER_LOCALE, charset)
+        )) {
+            CompilationEvent event = new CompilationEvent();
+            event.begin();
+            boolean isSuccessful;
+            try {
+                isSuccessful = compiler.getTask(
+                    output,
+                    fileManager,
+                    diagnosticCollector,
+                    options,
+                    null,
+                    sources
+                ).call();
+            } finally {
+                if (event.shouldCommit()) {
+                    event.setSubmission(input.path().toString());
+                    event.setFiles(sources.size());
+                    event.commit();
+                }
+            }
 
             output.flush();
             output.close();
@@ -139,56 +157,9 @@ public record Compiler(AbstractTempLocation tempLocation, JavaVersion javaVersio
                 throw new CompilationFailureException(diagnostics);
             }
 
-            Manifest manifest = new Manifest();
-            manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
-            jar = this.tempLocation.createTempFile(input.getName() + ".jar");
-            try (JarOutputStream jarOut = new JarOutputStream(new FileOutputStream(jar.toFile()), manifest)) {
-                addToJar(compilerOutput.toPath().normalize(), compilerOutput.toPath().toFile(), jarOut);
-            }
+            classes = fileManager.compiledClasses();
         }
 
-        return Optional.of(new CompilationResult(jar, diagnostics));
-    }
-
-
-    // https://stackoverflow.com/questions/1281229/how-to-use-jaroutputstream-to-create-a-jar-file/1281295#1281295
-    private static void addToJar(Path root, File source, JarOutputStream target) throws IOException {
-        String relativePath = root.relativize(source.toPath().normalize()).toString().replace("\\", "/");
-        BufferedInputStream in = null;
-        try {
-            if (source.isDirectory()) {
-                if (!relativePath.isEmpty()) {
-                    if (!relativePath.endsWith("/")) {
-                        relativePath += "/";
-                    }
-                    JarEntry entry = new JarEntry(relativePath);
-                    entry.setTime(source.lastModified());
-                    target.putNextEntry(entry);
-                    target.closeEntry();
-                }
-                for (File nestedFile : source.listFiles()) {
-                    addToJar(root, nestedFile, target);
-                }
-            } else {
-                JarEntry entry = new JarEntry(relativePath);
-                entry.setTime(source.lastModified());
-                target.putNextEntry(entry);
-                in = new BufferedInputStream(new FileInputStream(source));
-
-                byte[] buffer = new byte[1024];
-                while (true) {
-                    int count = in.read(buffer);
-                    if (count == -1) {
-                        break;
-                    }
-                    target.write(buffer, 0, count);
-                }
-                target.closeEntry();
-            }
-        } finally {
-            if (in != null) {
-                in.close();
-            }
-        }
+        return Optional.of(new CompilationResult(classes, diagnostics));
     }
 }
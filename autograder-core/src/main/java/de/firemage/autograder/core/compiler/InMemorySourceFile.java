@@ -0,0 +1,23 @@
+package de.firemage.autograder.core.compiler;
+
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+
+/**
+ * A source file with modified content that only exists in memory.
+ * <p>
+ * It reports the uri of the original file, so diagnostics can be mapped back to the original compilation unit.
+ */
+final class InMemorySourceFile extends SimpleJavaFileObject {
+    private final String content;
+
+    InMemorySourceFile(JavaFileObject original, String content) {
+        super(original.toUri(), Kind.SOURCE);
+        this.content = content;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return this.content;
+    }
+}
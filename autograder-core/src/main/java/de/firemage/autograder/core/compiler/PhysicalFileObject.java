@@ -2,13 +2,14 @@ package de.firemage.autograder.core.compiler;
 
 import de.firemage.autograder.core.file.CompilationUnit;
 import de.firemage.autograder.core.file.SourcePath;
+import de.firemage.autograder.core.file.SourceText;
 import de.firemage.autograder.core.SerializableCharset;
 
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.NestingKind;
 import javax.tools.JavaFileObject;
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -18,18 +19,24 @@ import java.io.StringReader;
 import java.io.Writer;
 import java.net.URI;
 import java.nio.charset.Charset;
-import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 
+/**
+ * A source file on the file-system. The content is read once when the submission is loaded,
+ * later changes to the file are not visible unless they are written through this object.
+ */
 public class PhysicalFileObject implements CompilationUnit, JavaFileObject {
     private final File file;
     private final SourcePath path;
     private final SerializableCharset charset;
+    private volatile SourceText content;
 
-    public PhysicalFileObject(File file, Charset charset, SourcePath path) {
+    public PhysicalFileObject(File file, Charset charset, SourcePath path, SourceText content) {
         this.file = file;
         this.path = path;
         this.charset = new SerializableCharset(charset);
+        this.content = content;
     }
 
     @Override
@@ -39,20 +46,48 @@ public class PhysicalFileObject implements CompilationUnit, JavaFileObject {
     }
 
     @Override
-    public CharSequence getCharContent(boolean ignoreEncodingErrors) throws IOException {
-        return Files.readString(this.file.toPath(), this.charset);
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return this.content.text();
     }
 
+    /**
+     * Opens the file for writing. Once the stream is closed, the written content replaces the content
+     * that has been read before.
+     *
+     * @return the stream to write the new content to
+     * @throws IOException if the file can not be opened
+     */
     @Override
     public OutputStream openOutputStream() throws IOException {
-        Files.createDirectories(this.file.getParentFile().toPath());
-        try {
-            Files.createFile(this.file.toPath());
-        } catch (FileAlreadyExistsException ignored) {
-            // ignored
+        Path filePath = this.file.toPath();
+        if (filePath.getParent() != null) {
+            Files.createDirectories(filePath.getParent());
         }
 
-        return new FileOutputStream(this.file);
+        return new FilterOutputStream(Files.newOutputStream(filePath)) {
+            private boolean isClosed;
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                this.out.write(bytes, offset, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (this.isClosed) {
+                    return;
+                }
+
+                this.isClosed = true;
+                super.close();
+                PhysicalFileObject.this.content = SourceText.decode(Files.readAllBytes(filePath), PhysicalFileObject.this.charset);
+            }
+        };
+    }
+
+    @Override
+    public SourceText sourceText() {
+        return this.content;
     }
 
     @Override
@@ -82,8 +117,8 @@ public class PhysicalFileObject implements CompilationUnit, JavaFileObject {
     }
 
     @Override
-    public Reader openReader(boolean ignoreEncodingErrors) throws IOException {
-        return new StringReader(this.getCharContent(ignoreEncodingErrors).toString());
+    public Reader openReader(boolean ignoreEncodingErrors) {
+        return new StringReader(this.content.text());
     }
 
     @Override
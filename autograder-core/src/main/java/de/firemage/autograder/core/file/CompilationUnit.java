@@ -50,4 +50,17 @@ public interface CompilationUnit extends Serializable {
 
         return charSequence.toString();
     }
+
+    /**
+     * Returns the decoded content of the compilation unit.
+     * <p>
+     * Implementations should read the content only once and return the same instance on every call,
+     * until new content is written to the compilation unit.
+     *
+     * @return the content of the compilation unit, never null
+     * @throws IOException if the content could not be read
+     */
+    default SourceText sourceText() throws IOException {
+        return SourceText.of(this.readString());
+    }
 }
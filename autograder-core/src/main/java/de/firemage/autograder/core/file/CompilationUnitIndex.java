@@ -0,0 +1,52 @@
+package de.firemage.autograder.core.file;
+
+import java.io.Serializable;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An immutable lookup table for the compilation units of a {@link SourceInfo}.
+ * <p>
+ * A compilation unit is resolved for every problem that is reported, so a linear search over all
+ * compilation units is too slow for submissions with many problems.
+ */
+final class CompilationUnitIndex implements Serializable {
+    private final Map<SourcePath, CompilationUnit> byPath;
+    private final Map<URI, CompilationUnit> byUri;
+
+    CompilationUnitIndex(List<? extends CompilationUnit> compilationUnits) {
+        Map<SourcePath, CompilationUnit> pathIndex = new HashMap<>();
+        Map<URI, CompilationUnit> uriIndex = new HashMap<>();
+        for (CompilationUnit compilationUnit : compilationUnits) {
+            // the default lookup in SourceInfo returns the first match as well
+            pathIndex.putIfAbsent(compilationUnit.path(), compilationUnit);
+            uriIndex.putIfAbsent(compilationUnit.toJavaFileObject().toUri(), compilationUnit);
+        }
+
+        this.byPath = Map.copyOf(pathIndex);
+        this.byUri = Map.copyOf(uriIndex);
+    }
+
+    CompilationUnit get(SourcePath path) {
+        CompilationUnit result = this.byPath.get(path);
+        if (result == null) {
+            throw new IllegalStateException("Could not find compilation unit for path '%s'".formatted(path));
+        }
+
+        return result;
+    }
+
+    /**
+     * Looks up the compilation unit with exactly the given uri.
+     *
+     * @param uri the uri reported by the compiler
+     * @return the compilation unit or an empty optional if the uri is not the uri of a compilation unit,
+     *         in which case the caller has to fall back to resolving the path
+     */
+    Optional<CompilationUnit> get(URI uri) {
+        return Optional.ofNullable(this.byUri.get(uri));
+    }
+}
@@ -1,6 +1,5 @@
 package de.firemage.autograder.core.file;
 
-import de.firemage.autograder.core.SerializableCharset;
 import de.firemage.autograder.api.JavaVersion;
 import de.firemage.autograder.core.compiler.PhysicalFileObject;
 import org.apache.commons.io.FileUtils;
@@ -8,11 +7,14 @@ import org.mozilla.universalchardet.UniversalDetector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import spoon.compiler.SpoonResource;
-import spoon.support.compiler.FileSystemFolder;
+import spoon.support.compiler.VirtualFile;
+import spoon.support.compiler.VirtualFolder;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.net.URI;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -21,7 +23,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class FileSourceInfo implements SourceInfo, Serializable {
@@ -29,32 +30,50 @@ public class FileSourceInfo implements SourceInfo, Serializable {
 
     private final File file;
     private final JavaVersion version;
-    private final List<CompilationUnit> compilationUnits;
+    private final List<PhysicalFileObject> compilationUnits;
+    private final CompilationUnitIndex index;
 
-    FileSourceInfo(Path path, JavaVersion version) throws IOException {
+    public FileSourceInfo(Path path, JavaVersion version) throws IOException {
         if (!path.toFile().isDirectory()) {
             throw new IllegalArgumentException("The file must be a directory");
         }
 
         this.file = path.toAbsolutePath().normalize().toFile();
         this.version = version;
+        List<Path> files;
         try (Stream<Path> fileStream = Files.walk(this.file.toPath())) {
-            this.compilationUnits = fileStream
+            files = fileStream
                 .filter(p -> p.toString().endsWith(".java"))
                 //.filter(p -> !p.toString().endsWith("package-info.java"))
-                .map(Path::toFile)
-                .map(file -> {
-                    Path root = this.path();
-                    Path relative = root.relativize(file.toPath());
-                    SourcePath sourcePath = SourcePath.of(relative);
-                    SerializableCharset charset = this.detectCharset(file, sourcePath);
-                    return new PhysicalFileObject(file, charset, sourcePath);
-                })
-                .collect(Collectors.toList()); // toList does not work here
+                .toList();
         }
+
+        List<PhysicalFileObject> compilationUnits = new ArrayList<>(files.size());
+        for (Path file : files) {
+            SourcePath sourcePath = SourcePath.of(this.path().relativize(file));
+            compilationUnits.add(readCompilationUnit(file.toFile(), sourcePath));
+        }
+        this.compilationUnits = compilationUnits;
+        this.index = new CompilationUnitIndex(compilationUnits);
+    }
+
+    // The file is read exactly once, the bytes are used for detecting the charset and then decoded.
+    // All later consumers (the compiler, spoon, PMD, ...) work on the decoded text.
+    private static PhysicalFileObject readCompilationUnit(File file, SourcePath sourcePath) throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Charset charset = detectCharset(bytes);
+
+        SourceText content;
+        try {
+            content = SourceText.decode(bytes, charset);
+        } catch (CharacterCodingException exception) {
+            throw new IOException("Failed to decode file '%s' with charset '%s'".formatted(sourcePath, charset), exception);
+        }
+
+        return new PhysicalFileObject(file, charset, sourcePath, content);
     }
 
-    private SerializableCharset detectCharset(File file, SourcePath sourcePath) {
+    private static Charset detectCharset(byte[] bytes) {
         // There is an issue where it detects TIS-620 for a file that contains a '§', even though it is UTF-8.
         // See https://github.com/Feuermagier/autograder/issues/368.
         //
@@ -70,14 +89,14 @@ public class FileSourceInfo implements SourceInfo, Serializable {
             Charset.forName("windows-1252")
         );
 
-        try {
-            return new SerializableCharset(Optional.ofNullable(UniversalDetector.detectCharset(file))
-                .map(Charset::forName)
-                .filter(supportedCharsets::contains)
-                .orElse(StandardCharsets.UTF_8));
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Failed to read file '%s' for detecting charset".formatted(sourcePath), e);
-        }
+        UniversalDetector detector = new UniversalDetector();
+        detector.handleData(bytes, 0, bytes.length);
+        detector.dataEnd();
+
+        return Optional.ofNullable(detector.getDetectedCharset())
+            .map(Charset::forName)
+            .filter(supportedCharsets::contains)
+            .orElse(StandardCharsets.UTF_8);
     }
 
     @Override
@@ -91,6 +110,16 @@ public class FileSourceInfo implements SourceInfo, Serializable {
 
     }
 
+    @Override
+    public CompilationUnit getCompilationUnit(SourcePath path) {
+        return this.index.get(path);
+    }
+
+    @Override
+    public CompilationUnit getCompilationUnit(URI uri) {
+        return this.index.get(uri).orElseGet(() -> SourceInfo.super.getCompilationUnit(uri));
+    }
+
     @Override
     public SourceInfo copyTo(Path target) throws IOException {
         // HACK: this filters out symbolic links (we had one submission with a symlink to itself, which caused a crash...)
@@ -101,7 +130,18 @@ public class FileSourceInfo implements SourceInfo, Serializable {
 
     @Override
     public SpoonResource getSpoonResource() {
-        return new FileSystemFolder(this.file);
+        // spoon gets the already decoded text, the names are the absolute paths of the files,
+        // so the positions of the elements point to the files on disk like before
+        VirtualFolder result = new VirtualFolder();
+
+        for (PhysicalFileObject compilationUnit : this.compilationUnits) {
+            result.addFile(new VirtualFile(
+                compilationUnit.sourceText().text(),
+                Path.of(compilationUnit.toUri()).toString()
+            ));
+        }
+
+        return result;
     }
 
     @Override
@@ -0,0 +1,53 @@
+package de.firemage.autograder.core.file;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * The decoded content of a source file.
+ * <p>
+ * The text is decoded once when the submission is read, after that the compiler, spoon, PMD and the
+ * rendering of problems all work on the same string.
+ */
+public final class SourceText implements Serializable {
+    private final String text;
+
+    private SourceText(String text) {
+        this.text = text;
+    }
+
+    public static SourceText of(String text) {
+        return new SourceText(text);
+    }
+
+    /**
+     * Decodes the given bytes with the charset.
+     *
+     * @param bytes the content of the file
+     * @param charset the charset to decode the bytes with
+     * @return the decoded text
+     * @throws CharacterCodingException if the bytes are not valid in the charset
+     */
+    public static SourceText decode(byte[] bytes, Charset charset) throws CharacterCodingException {
+        // same behavior as Files.readString, which throws on malformed input
+        String text = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT)
+            .decode(ByteBuffer.wrap(bytes))
+            .toString();
+
+        return new SourceText(text);
+    }
+
+    public String text() {
+        return this.text;
+    }
+
+    @Override
+    public String toString() {
+        return this.text;
+    }
+}
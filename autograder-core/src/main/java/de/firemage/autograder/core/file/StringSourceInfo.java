@@ -29,10 +29,12 @@ import java.util.Map;
 public final class StringSourceInfo implements SourceInfo {
     private static final String VIRTUAL_FOLDER = "virtualSrc";
     private final List<VirtualFileObject> compilationUnits;
+    private final CompilationUnitIndex index;
     private final JavaVersion version;
 
     private StringSourceInfo(JavaVersion version, List<VirtualFileObject> compilationUnits) {
         this.compilationUnits = compilationUnits;
+        this.index = new CompilationUnitIndex(compilationUnits);
         this.version = version;
     }
 
@@ -54,6 +56,16 @@ public final class StringSourceInfo implements SourceInfo {
         return new ArrayList<>(this.compilationUnits);
     }
 
+    @Override
+    public CompilationUnit getCompilationUnit(SourcePath path) {
+        return this.index.get(path);
+    }
+
+    @Override
+    public CompilationUnit getCompilationUnit(URI uri) {
+        return this.index.get(uri).orElseGet(() -> SourceInfo.super.getCompilationUnit(uri));
+    }
+
     @Override
     public SourceInfo copyTo(Path target) throws IOException {
         for (CompilationUnit file : this.compilationUnits()) {
@@ -89,11 +101,11 @@ public final class StringSourceInfo implements SourceInfo {
 
     private static final class VirtualFileObject implements JavaFileObject, Serializable, CompilationUnit {
         private final ClassPath classPath;
-        private final String code;
+        private final SourceText content;
 
         private VirtualFileObject(ClassPath classPath, String code) {
             this.classPath = classPath;
-            this.code = code;
+            this.content = SourceText.of(code);
         }
 
         private static URI virtualUri(ClassPath classPath) {
@@ -126,12 +138,12 @@ public final class StringSourceInfo implements SourceInfo {
 
         @Override
         public Reader openReader(boolean ignoreEncodingErrors) {
-            return new StringReader(this.code);
+            return new StringReader(this.content.text());
         }
 
         @Override
         public CharSequence getCharContent(boolean ignoreEncodingErrors) {
-            return this.code;
+            return this.content.text();
         }
 
         @Override
@@ -150,7 +162,12 @@ public final class StringSourceInfo implements SourceInfo {
         }
 
         public String getCode() {
-            return this.code;
+            return this.content.text();
+        }
+
+        @Override
+        public SourceText sourceText() {
+            return this.content;
         }
 
         @Override
@@ -5,6 +5,7 @@ import org.apache.commons.io.FileUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -96,11 +97,14 @@ public record TempLocation(File tempLocation) implements AbstractTempLocation {
     public Path createTempFile(String name) throws IOException {
         // fix conflicts by adding a random number to the name (e.g. "file.txt" -> "123456789file.txt")
         Path path = this.toPath().resolve(name);
-        while (path.toFile().exists()) {
-            path = this.toPath().resolve(RANDOM.nextLong() + name);
+        while (true) {
+            try {
+                return Files.createFile(path);
+            } catch (FileAlreadyExistsException exception) {
+                // another submission (which might be graded in parallel) already uses this name
+                path = this.toPath().resolve(RANDOM.nextLong() + name);
+            }
         }
-
-        return Files.createFile(path);
     }
 
     /**
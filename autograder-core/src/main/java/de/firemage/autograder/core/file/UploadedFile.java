@@ -4,6 +4,7 @@ import de.firemage.autograder.api.AbstractTempLocation;
 import de.firemage.autograder.api.Translatable;
 import de.firemage.autograder.core.CodeModel;
 import de.firemage.autograder.core.LinterStatus;
+import de.firemage.autograder.core.MetricsRecorder;
 import de.firemage.autograder.core.compiler.CompilationFailureException;
 import de.firemage.autograder.core.compiler.CompilationResult;
 import de.firemage.autograder.core.compiler.Compiler;
@@ -15,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 
 public final class UploadedFile implements AutoCloseable {
@@ -25,18 +27,22 @@ public final class UploadedFile implements AutoCloseable {
     private final CompilationResult compilationResult;
     private final ClassLoader classLoader;
     private final AbstractTempLocation tempLocation;
+    private final boolean skipClassGeneration;
+    private MetricsRecorder metrics = MetricsRecorder.disabled();
+    private Set<SourcePath> fileLocalScope;
 
-    private UploadedFile(CodeModel model, SourceInfo source, CompilationResult compilationResult, ClassLoader classLoader, AbstractTempLocation tempLocation) {
+    private UploadedFile(CodeModel model, SourceInfo source, CompilationResult compilationResult, ClassLoader classLoader, AbstractTempLocation tempLocation, boolean skipClassGeneration) {
         this.model = model;
         this.source = source;
         this.compilationResult = compilationResult;
         this.classLoader = classLoader;
         this.tempLocation = tempLocation;
+        this.skipClassGeneration = skipClassGeneration;
     }
 
     public UploadedFile copy() {
         try {
-            return UploadedFile.build(this.source, this.tempLocation.createTempDirectory("copy"), unused -> {}, this.classLoader);
+            return UploadedFile.build(this.source, this.tempLocation.createTempDirectory("copy"), unused -> {}, this.classLoader, this.skipClassGeneration);
         } catch (IOException | CompilationFailureException exception) {
             throw new IllegalStateException(exception);
         }
@@ -49,7 +55,18 @@ public final class UploadedFile implements AutoCloseable {
         Consumer<Translatable> statusConsumer,
         ClassLoader classLoader
     ) throws IOException, ModelBuildException, CompilationFailureException {
-        return UploadedFile.build(new FileSourceInfo(file, version), tmpLocation, statusConsumer, classLoader);
+        return UploadedFile.build(file, version, tmpLocation, statusConsumer, classLoader, false);
+    }
+
+    public static UploadedFile build(
+        Path file,
+        JavaVersion version,
+        AbstractTempLocation tmpLocation,
+        Consumer<Translatable> statusConsumer,
+        ClassLoader classLoader,
+        boolean skipClassGeneration
+    ) throws IOException, ModelBuildException, CompilationFailureException {
+        return UploadedFile.build(new FileSourceInfo(file, version), tmpLocation, statusConsumer, classLoader, skipClassGeneration);
     }
 
     public static UploadedFile build(
@@ -58,16 +75,32 @@ public final class UploadedFile implements AutoCloseable {
         Consumer<Translatable> statusConsumer,
         ClassLoader classLoader
     ) throws IOException, CompilationFailureException {
-        Compiler compiler = new Compiler(tmpLocation, source.getVersion());
+        return UploadedFile.build(source, tmpLocation, statusConsumer, classLoader, false);
+    }
+
+    /**
+     * Compiles the source and prepares the model of the code.
+     *
+     * @param skipClassGeneration if true, the compiler does not generate class files, so the model is built without them
+     * @return the uploaded file or null if there is no source code
+     */
+    public static UploadedFile build(
+        SourceInfo source,
+        AbstractTempLocation tmpLocation,
+        Consumer<Translatable> statusConsumer,
+        ClassLoader classLoader,
+        boolean skipClassGeneration
+    ) throws IOException, CompilationFailureException {
+        Compiler compiler = new Compiler(source.getVersion(), !skipClassGeneration);
         statusConsumer.accept(LinterStatus.COMPILING.getMessage());
-        Optional<CompilationResult> compilationResult = compiler.compileToJar(source);
+        Optional<CompilationResult> compilationResult = compiler.compile(source);
         if (compilationResult.isEmpty()) {
             return null;
         }
 
-        var model = CodeModel.buildFor(source, compilationResult.get().jar(), classLoader);
+        var model = CodeModel.buildFor(source, compilationResult.get().classes(), classLoader);
 
-        return new UploadedFile(model, source, compilationResult.get(), classLoader, tmpLocation);
+        return new UploadedFile(model, source, compilationResult.get(), classLoader, tmpLocation, skipClassGeneration);
     }
 
     public SourceInfo getSource() {
@@ -82,9 +115,50 @@ public final class UploadedFile implements AutoCloseable {
         return model;
     }
 
+    /**
+     * Sets the recorder in which the linters record the metrics of the analysis of this file.
+     *
+     * @param metrics the recorder
+     */
+    public void recordMetricsWith(MetricsRecorder metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the recorder for the metrics of the analysis.
+     *
+     * @return the recorder, it is disabled if no metrics are recorded
+     * @see #recordMetricsWith(MetricsRecorder)
+     */
+    public MetricsRecorder getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Restricts the files that have to be analyzed by checks that are marked as
+     * {@link de.firemage.autograder.core.check.ExecutableCheck#fileLocal() file-local}.
+     * <p>
+     * This is used when the problems of the other files are already known. A linter may ignore the restriction,
+     * the problems of file-local checks in other files are discarded anyway.
+     *
+     * @param files the files that have to be analyzed by file-local checks
+     */
+    public void restrictFileLocalChecks(Set<SourcePath> files) {
+        this.fileLocalScope = Set.copyOf(files);
+    }
+
+    /**
+     * Returns the files that have to be analyzed by file-local checks.
+     *
+     * @return the files or an empty optional if all files have to be analyzed
+     * @see #restrictFileLocalChecks(Set)
+     */
+    public Optional<Set<SourcePath>> getFileLocalScope() {
+        return Optional.ofNullable(this.fileLocalScope);
+    }
+
     @Override
     public void close() throws IOException {
         this.model.close();
-        this.compilationResult.jar().toFile().delete();
     }
 }
@@ -0,0 +1,228 @@
+package de.firemage.autograder.core.integrated;
+
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.visitor.CtScanner;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Numbers the elements of the code model in the order in which they are entered when the model is traversed,
+ * so that checking whether an element is nested in another one does not have to walk the parents.
+ * <p>
+ * An element is nested in another one if and only if its number is between the number of the other element
+ * and the number of the last element that is nested in the other element.
+ * <p>
+ * The index describes the model at the time it has been built. Elements that are created later on
+ * (e.g. clones or shadow types) are not part of it, for those the parents are walked like before.
+ */
+public final class AncestorIndex {
+    private static final String METADATA_KEY = "autograder_ancestor_index";
+    private static final int NOT_INDEXED = -1;
+
+    private final Map<CtElement, Integer> ordinals;
+    private final CtElement[] elements;
+    // the ordinal of the parent of each element, or NOT_INDEXED for the roots
+    private final int[] parents;
+    // the ordinal of the last element that is nested in each element
+    private final int[] lastDescendants;
+    // the nearest ancestor of each element that is an instance of the key
+    private final Map<Class<? extends CtElement>, CtElement[]> nearestAncestors;
+
+    private AncestorIndex(CtModel model) {
+        IndexScanner scanner = new IndexScanner();
+        scanner.scan(model.getAllModules());
+
+        this.ordinals = scanner.ordinals;
+        this.elements = scanner.elements.toArray(new CtElement[0]);
+        this.parents = Arrays.copyOf(scanner.parents, this.elements.length);
+        this.lastDescendants = Arrays.copyOf(scanner.lastDescendants, this.elements.length);
+        this.nearestAncestors = new ConcurrentHashMap<>();
+    }
+
+    public static void buildFor(CtModel model) {
+        AncestorIndex index = new AncestorIndex(model);
+        model.getRootPackage().putMetadata(METADATA_KEY, index);
+    }
+
+    /**
+     * Returns the index of the model the element belongs to.
+     *
+     * @param ctElement an element of the model
+     * @return the index or null if it has not been built for the model
+     */
+    static AncestorIndex find(CtElement ctElement) {
+        Factory factory = ctElement.getFactory();
+        if (factory == null) {
+            return null;
+        }
+
+        return (AncestorIndex) factory.getModel().getRootPackage().getMetadata(METADATA_KEY);
+    }
+
+    /**
+     * Returns the number of the element in this index.
+     *
+     * @param ctElement the element
+     * @return the number or a negative value if the element is not part of this index
+     */
+    int ordinalOf(CtElement ctElement) {
+        Integer ordinal = this.ordinals.get(ctElement);
+        if (ordinal == null) {
+            return NOT_INDEXED;
+        }
+
+        return ordinal;
+    }
+
+    boolean isNestedOrSame(int elementOrdinal, int parentOrdinal) {
+        return parentOrdinal <= elementOrdinal && elementOrdinal <= this.lastDescendants[parentOrdinal];
+    }
+
+    /**
+     * Returns the nearest parent of the element that is an instance of the given type.
+     * This is equivalent to {@link CtElement#getParent(Class)}.
+     * <p>
+     * The nearest parents are computed for all elements when a type is requested for the first time.
+     *
+     * @param elementOrdinal the number of the element
+     * @param parentType the type of the parent
+     * @return the parent or null if there is none
+     * @param <P> the type of the parent
+     */
+    <P extends CtElement> P getParent(int elementOrdinal, Class<P> parentType) {
+        CtElement[] nearest = this.nearestAncestors.computeIfAbsent(parentType, this::computeNearestAncestors);
+        return parentType.cast(nearest[elementOrdinal]);
+    }
+
+    private CtElement[] computeNearestAncestors(Class<? extends CtElement> parentType) {
+        CtElement[] result = new CtElement[this.elements.length];
+        // the parents are numbered before their children, so their result is always known
+        for (int i = 0; i < this.elements.length; i++) {
+            int parent = this.parents[i];
+            if (parent == NOT_INDEXED) {
+                // the parents of the roots are not part of the index
+                result[i] = this.elements[i].getParent(parentType);
+            } else if (parentType.isInstance(this.elements[parent])) {
+                result[i] = this.elements[parent];
+            } else {
+                result[i] = result[parent];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a predicate that tests whether an element is nested in or the same as any of the given elements.
+     * <p>
+     * The elements of the model form a tree, so the ranges of the given elements are either nested or disjoint.
+     * Only the outermost ranges are kept, which allows a binary search.
+     *
+     * @param potentialParents the elements in which the tested elements should be nested
+     * @return the predicate
+     */
+    static Predicate<CtElement> nestedInAny(Collection<? extends CtElement> potentialParents) {
+        Set<CtElement> parentSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        parentSet.addAll(potentialParents);
+        Predicate<CtElement> fallback = ctElement -> ElementUtil.isAnyNestedOrSame(ctElement, parentSet);
+
+        AncestorIndex index = parentSet.isEmpty() ? null : find(parentSet.iterator().next());
+        if (index == null) {
+            return fallback;
+        }
+
+        int[] parentOrdinals = parentSet.stream().mapToInt(index::ordinalOf).sorted().toArray();
+        if (parentOrdinals[0] == NOT_INDEXED) {
+            return fallback;
+        }
+
+        int[] starts = new int[parentOrdinals.length];
+        int[] ends = new int[parentOrdinals.length];
+        int count = 0;
+        for (int ordinal : parentOrdinals) {
+            if (count > 0 && ordinal <= ends[count - 1]) {
+                // nested in the previous range
+                continue;
+            }
+
+            starts[count] = ordinal;
+            ends[count] = index.lastDescendants[ordinal];
+            count++;
+        }
+
+        int rangeCount = count;
+        return ctElement -> {
+            int ordinal = index.ordinalOf(ctElement);
+            if (ordinal == NOT_INDEXED) {
+                return fallback.test(ctElement);
+            }
+
+            int position = Arrays.binarySearch(starts, 0, rangeCount, ordinal);
+            if (position >= 0) {
+                return true;
+            }
+
+            // the range that starts before the element is the only one that might contain it
+            int candidate = -position - 2;
+            return candidate >= 0 && ordinal <= ends[candidate];
+        };
+    }
+
+    private static final class IndexScanner extends CtScanner {
+        // marks elements that are not indexed on the stack
+        private static final int SKIPPED = -2;
+
+        private final Map<CtElement, Integer> ordinals = new IdentityHashMap<>();
+        private final List<CtElement> elements = new ArrayList<>();
+        private final Deque<Integer> stack = new ArrayDeque<>();
+        private int[] parents = new int[1024];
+        private int[] lastDescendants = new int[1024];
+
+        @Override
+        protected void enter(CtElement ctElement) {
+            int parent = this.stack.isEmpty() ? NOT_INDEXED : this.stack.peek();
+
+            // An element is only indexed if the traversal agrees with its parent, otherwise the index
+            // might answer differently than walking the parents would. The same applies to all elements
+            // nested in an element that is not indexed.
+            boolean isConsistent = this.stack.isEmpty()
+                || parent != SKIPPED && ctElement.isParentInitialized() && ctElement.getParent() == this.elements.get(parent);
+            if (!isConsistent || this.ordinals.containsKey(ctElement)) {
+                this.stack.push(SKIPPED);
+                return;
+            }
+
+            int ordinal = this.elements.size();
+            if (ordinal == this.parents.length) {
+                this.parents = Arrays.copyOf(this.parents, ordinal * 2);
+                this.lastDescendants = Arrays.copyOf(this.lastDescendants, ordinal * 2);
+            }
+
+            this.ordinals.put(ctElement, ordinal);
+            this.elements.add(ctElement);
+            this.parents[ordinal] = parent;
+            this.stack.push(ordinal);
+        }
+
+        @Override
+        protected void exit(CtElement ctElement) {
+            int ordinal = this.stack.pop();
+            if (ordinal != SKIPPED) {
+                this.lastDescendants[ordinal] = this.elements.size() - 1;
+            }
+        }
+    }
+}
@@ -4,13 +4,10 @@ import spoon.reflect.declaration.CtElement;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
-import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.Spliterator;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -156,10 +153,7 @@ public class CtElementStream<T extends CtElement> implements Stream<T> {
             return CtElementStream.empty();
         }
 
-        Set<CtElement> potentialParents = Collections.newSetFromMap(new IdentityHashMap<>());
-        potentialParents.addAll(parents);
-
-        return this.filter(e -> ElementUtil.isAnyNestedOrSame(e, potentialParents));
+        return this.filter(AncestorIndex.nestedInAny(parents)::test);
     }
 
     /**
@@ -168,7 +162,7 @@ public class CtElementStream<T extends CtElement> implements Stream<T> {
      * @return
      */
     public CtElementStream<T> nestedIn(Class<? extends CtElement> parentType) {
-        return this.filter(e -> parentType.isInstance(e) || e.getParent(parentType) != null);
+        return this.filter(e -> parentType.isInstance(e) || ElementUtil.getParent(e, parentType) != null);
     }
 
     /**
@@ -177,7 +171,7 @@ public class CtElementStream<T extends CtElement> implements Stream<T> {
      * @return
      */
     public CtElementStream<T> notNestedIn(Class<? extends CtElement> parentType) {
-        return this.filter(e -> !parentType.isInstance(e) && e.getParent(parentType) == null);
+        return this.filter(e -> !parentType.isInstance(e) && ElementUtil.getParent(e, parentType) == null);
     }
 
     /**
@@ -242,7 +236,7 @@ public class CtElementStream<T extends CtElement> implements Stream<T> {
      * @param <P>
      */
     public <P extends CtElement> CtElementStream<T> filterIndirectParent(Class<P> parentType, Predicate<? super CtElement> filter) {
-        return new CtElementStream<>(baseStream.filter(e -> filter.test(e.getParent(parentType))));
+        return new CtElementStream<>(baseStream.filter(e -> filter.test(ElementUtil.getParent(e, parentType))));
     }
 
     /**
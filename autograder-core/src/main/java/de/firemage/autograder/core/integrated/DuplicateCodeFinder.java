@@ -2,6 +2,7 @@ package de.firemage.autograder.core.integrated;
 
 import de.firemage.autograder.core.integrated.structure.StructuralElement;
 import de.firemage.autograder.core.integrated.structure.StructuralEqualsVisitor;
+import de.firemage.autograder.core.integrated.structure.StructuralHashCodeVisitor;
 import spoon.processing.AbstractProcessor;
 import spoon.processing.FactoryAccessor;
 import spoon.reflect.CtModel;
@@ -11,11 +12,14 @@ import spoon.reflect.code.CtStatementList;
 import spoon.reflect.path.CtRole;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiPredicate;
 import java.util.stream.StreamSupport;
 
@@ -24,10 +28,21 @@ public final class DuplicateCodeFinder {
     public static final BiPredicate<? super CtRole, Object> ALLOWED_DIFFERENCE = StructuralEqualsVisitor.ALLOW_NAME_DIFFERENCE
         .or(StructuralEqualsVisitor.ALLOW_REFACTORABLE_DIFFERENCE);
 
+    // the base of the polynomial rolling hash of statement sequences
+    private static final long SEQUENCE_HASH_BASE = 0x9E3779B97F4A7C15L;
+
     private final Map<StructuralElement<CtStatement>, List<CtStatement>> occurrences;
+    // the statements of the occurrences in the order in which they have been found
+    private final List<CtStatement> statements;
+    // each group of structurally equal statements is numbered, so sequences of statements can be compared by their numbers
+    private final Map<StructuralElement<CtStatement>, Integer> statementClasses;
+    private final Map<CtStatement, SequencePosition> positions;
+    // the statements by the hash of the sequence of statements with a certain length that starts with them
+    private final Map<Integer, Map<Long, List<CtStatement>>> statementsBySequenceHash;
 
     private DuplicateCodeFinder(CtModel model) {
         this.occurrences = new HashMap<>();
+        this.statements = new ArrayList<>();
         model.processWith(new AbstractProcessor<CtStatement>() {
             @Override
             public void process(CtStatement ctStatement) {
@@ -39,48 +54,122 @@ public final class DuplicateCodeFinder {
                     new StructuralElement<>(ctStatement, ALLOWED_DIFFERENCE),
                     key -> new ArrayList<>()
                 ).add(ctStatement);
+                DuplicateCodeFinder.this.statements.add(ctStatement);
             }
         });
 
-        /*
-        if (CoreUtil.isInDebugMode()) {
-            Map<Integer, List<Object>> collisions = new HashMap<>();
-            for (var key : this.occurrences.keySet()) {
-                collisions.computeIfAbsent(key.hashCode(), k -> new ArrayList<>()).add(key);
+        this.statementClasses = new HashMap<>();
+        this.positions = new IdentityHashMap<>();
+        for (CtStatement ctStatement : this.statements) {
+            if (!this.positions.containsKey(ctStatement) && ctStatement.getParent() instanceof CtStatementList ctStatementList) {
+                this.addSequence(ctStatementList.getStatements());
             }
 
-            var mostCommonCollisions = collisions.values()
-                .stream()
-                .filter(list -> list.size() > 1)
-                .sorted((a, b) -> Integer.compare(b.size(), a.size()))
-                .limit(10)
-                .toList();
+            // statements that are not in a statement list are not followed by other statements
+            if (!this.positions.containsKey(ctStatement)) {
+                this.addSequence(List.of(ctStatement));
+            }
+        }
+        this.statementsBySequenceHash = new ConcurrentHashMap<>();
+    }
 
-            int numberOfDuplicateHashCodes = this.occurrences.size() - collisions.size();
+    /**
+     * Registers the index for the model, it is built when it is requested for the first time.
+     *
+     * @param model the model
+     */
+    public static void prepareFor(CtModel model) {
+        // the statements are hashed with those predicates, so their hash codes are computed once for the whole model
+        List<BiPredicate<? super CtRole, Object>> allowedDifferences = List.of(ALLOWED_DIFFERENCE, StructuralEqualsVisitor.ALLOW_NO_DIFFERENCE);
+        StructuralHashCodeVisitor.prepareFor(model, allowedDifferences);
 
-            if (numberOfDuplicateHashCodes > 20) {
-                throw new IllegalStateException("Too many hash collisions %d of %d elements.".formatted(numberOfDuplicateHashCodes, this.occurrences.size()));
-            }
-        }*/
+        model.getRootPackage().putMetadata(METADATA_KEY, new LazyIndex<>(() -> {
+            StructuralHashCodeVisitor.buildFor(model, allowedDifferences);
+            return new DuplicateCodeFinder(model);
+        }));
     }
 
     public static void buildFor(CtModel model) {
-        DuplicateCodeFinder uses = new DuplicateCodeFinder(model);
-        model.getRootPackage().putMetadata(METADATA_KEY, uses);
+        if (model.getRootPackage().getMetadata(METADATA_KEY) == null) {
+            prepareFor(model);
+        }
+
+        getFor(model.getRootPackage());
     }
 
+    @SuppressWarnings("unchecked")
     private static DuplicateCodeFinder getFor(FactoryAccessor factoryAccessor) {
-        var uses = (DuplicateCodeFinder) ElementUtil.getRootPackage(factoryAccessor).getMetadata(METADATA_KEY);
+        var uses = (LazyIndex<DuplicateCodeFinder>) ElementUtil.getRootPackage(factoryAccessor).getMetadata(METADATA_KEY);
         if (uses == null) {
             throw new IllegalArgumentException("No duplicate code uses information available for this model");
         }
-        return uses;
+        return uses.get();
     }
 
     private List<CtStatement> findDuplicateStatements(CtStatement statement) {
         return Collections.unmodifiableList(this.occurrences.get(new StructuralElement<>(statement, ALLOWED_DIFFERENCE)));
     }
 
+    private void addSequence(List<CtStatement> ctStatements) {
+        int[] classes = new int[ctStatements.size()];
+        long[] prefixHashes = new long[ctStatements.size() + 1];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = this.statementClasses.computeIfAbsent(
+                new StructuralElement<>(ctStatements.get(i), ALLOWED_DIFFERENCE),
+                key -> this.statementClasses.size()
+            );
+            prefixHashes[i + 1] = prefixHashes[i] * SEQUENCE_HASH_BASE + classes[i] + 1;
+        }
+
+        StatementSequence sequence = new StatementSequence(ctStatements, classes, prefixHashes);
+        for (int i = 0; i < classes.length; i++) {
+            this.positions.put(ctStatements.get(i), new SequencePosition(sequence, i));
+        }
+    }
+
+    private Map<Long, List<CtStatement>> getStatementsBySequenceHash(int length) {
+        return this.statementsBySequenceHash.computeIfAbsent(length, key -> {
+            Map<Long, List<CtStatement>> result = new HashMap<>();
+            for (CtStatement ctStatement : this.statements) {
+                SequencePosition position = this.positions.get(ctStatement);
+                if (position.hasNext(length)) {
+                    result.computeIfAbsent(position.hash(length), hash -> new ArrayList<>()).add(ctStatement);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * The statements of a statement list, the number of the group of structurally equal statements of each statement
+     * and the rolling hashes of all prefixes of those numbers.
+     */
+    private record StatementSequence(List<CtStatement> statements, int[] classes, long[] prefixHashes) {
+    }
+
+    private record SequencePosition(StatementSequence sequence, int index) {
+        private boolean hasNext(int length) {
+            return this.index + length <= this.sequence.classes().length;
+        }
+
+        private long hash(int length) {
+            long power = 1;
+            for (int i = 0; i < length; i++) {
+                power *= SEQUENCE_HASH_BASE;
+            }
+
+            long[] prefixHashes = this.sequence.prefixHashes();
+            return prefixHashes[this.index + length] - prefixHashes[this.index] * power;
+        }
+
+        private boolean hasSameClasses(SequencePosition other, int length) {
+            return Arrays.equals(
+                this.sequence.classes(), this.index, this.index + length,
+                other.sequence.classes(), other.index, other.index + length
+            );
+        }
+    }
+
     private static <K, V> Iterable<Map.Entry<K, V>> zip(Iterable<K> keys, Iterable<V> values) {
         return () -> new Iterator<>() {
             private final Iterator<K> keyIterator = keys.iterator();
@@ -150,21 +239,74 @@ public final class DuplicateCodeFinder {
                 continue;
             }
 
-            List<CtStatement> leftCode = new ArrayList<>(List.of(start));
-            List<CtStatement> rightCode = new ArrayList<>(List.of(duplicate));
+            result.add(extendDuplicate(start, duplicate));
+        }
+
+        return result;
+    }
 
-            for (var entry : zip(StatementUtil.getNextStatements(start), StatementUtil.getNextStatements(duplicate))) {
-                if (!StructuralEqualsVisitor.equals(entry.getKey(), entry.getValue(), ALLOWED_DIFFERENCE)) {
-                    break;
-                }
+    /**
+     * Finds all duplicate code blocks with the given statement that are at least as large as the given size.
+     * <p>
+     * This returns the same as filtering {@link #findDuplicates(CtStatement)} by {@link DuplicateCode#isMoreThanOrEqualTo(int)},
+     * but it does not compare the statement with every structurally equal statement. First, the number of statements
+     * that are at least needed to reach the size is determined. Only statements that start a sequence of that length
+     * with the same hash are compared with the given statement.
+     *
+     * @param start the first statement of the code block
+     * @param minimumSize the minimum number of statements of the duplicate code
+     * @return a list of all duplicate code blocks, the left will always contain the start statement and the right will be the duplicate
+     */
+    public static List<DuplicateCode> findDuplicates(CtStatement start, int minimumSize) {
+        DuplicateCodeFinder finder = DuplicateCodeFinder.getFor(start);
+        SequencePosition position = finder.positions.get(start);
+        if (position == null) {
+            return findDuplicates(start).stream()
+                .filter(duplicate -> duplicate.isMoreThanOrEqualTo(minimumSize))
+                .toList();
+        }
 
-                leftCode.add(entry.getKey());
-                rightCode.add(entry.getValue());
+        List<CtStatement> sequence = position.sequence().statements();
+        int length = 0;
+        int size = 0;
+        while (size < minimumSize && position.hasNext(length + 1)) {
+            size += DuplicateCode.countStatements(sequence.get(position.index() + length));
+            length++;
+        }
+
+        if (Math.max(size, 1) < minimumSize) {
+            // even if all following statements were duplicated, the code would be too small
+            return List.of();
+        }
+
+        List<DuplicateCode> result = new ArrayList<>();
+        for (CtStatement duplicate : finder.getStatementsBySequenceHash(length).getOrDefault(position.hash(length), List.of())) {
+            if (duplicate == start || !position.hasSameClasses(finder.positions.get(duplicate), length)) {
+                continue;
             }
 
-            result.add(new DuplicateCode(leftCode, rightCode));
+            DuplicateCode duplicateCode = extendDuplicate(start, duplicate);
+            if (duplicateCode.isMoreThanOrEqualTo(minimumSize)) {
+                result.add(duplicateCode);
+            }
         }
 
         return result;
     }
+
+    private static DuplicateCode extendDuplicate(CtStatement start, CtStatement duplicate) {
+        List<CtStatement> leftCode = new ArrayList<>(List.of(start));
+        List<CtStatement> rightCode = new ArrayList<>(List.of(duplicate));
+
+        for (var entry : zip(StatementUtil.getNextStatements(start), StatementUtil.getNextStatements(duplicate))) {
+            if (!StructuralEqualsVisitor.equals(entry.getKey(), entry.getValue(), ALLOWED_DIFFERENCE)) {
+                break;
+            }
+
+            leftCode.add(entry.getKey());
+            rightCode.add(entry.getValue());
+        }
+
+        return new DuplicateCode(leftCode, rightCode);
+    }
 }
@@ -46,6 +46,19 @@ public final class ElementUtil {
     }
 
     public static boolean isNestedOrSame(CtElement element, CtElement parent) {
+        if (element == parent) {
+            return true;
+        }
+
+        AncestorIndex index = AncestorIndex.find(element);
+        if (index != null) {
+            int elementOrdinal = index.ordinalOf(element);
+            int parentOrdinal = index.ordinalOf(parent);
+            if (elementOrdinal >= 0 && parentOrdinal >= 0) {
+                return index.isNestedOrSame(elementOrdinal, parentOrdinal);
+            }
+        }
+
         Set<CtElement> set = Collections.newSetFromMap(new IdentityHashMap<>());
         set.add(parent);
 
@@ -85,6 +98,29 @@ public final class ElementUtil {
         if (parentType.isAssignableFrom(element.getClass())) {
             return (P) element;
         }
+        return ElementUtil.getParent(element, parentType);
+    }
+
+    /**
+     * Returns the nearest parent of the given element that is an instance of the given type.
+     * <p>
+     * This is equivalent to {@link CtElement#getParent(Class)}, but does not have to walk the parents
+     * for elements of the model.
+     *
+     * @param element the element to get the parent of
+     * @param parentType the type of the parent
+     * @return the parent or null if there is none
+     * @param <P> the type of the parent
+     */
+    public static <P extends CtElement> P getParent(CtElement element, Class<P> parentType) {
+        AncestorIndex index = AncestorIndex.find(element);
+        if (index != null) {
+            int ordinal = index.ordinalOf(element);
+            if (ordinal >= 0) {
+                return index.getParent(ordinal, parentType);
+            }
+        }
+
         return element.getParent(parentType);
     }
 
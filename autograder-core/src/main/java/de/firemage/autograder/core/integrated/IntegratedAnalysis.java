@@ -2,10 +2,14 @@ package de.firemage.autograder.core.integrated;
 
 import de.firemage.autograder.api.FailureInformation;
 import de.firemage.autograder.api.Translatable;
+import de.firemage.autograder.core.AnalysisPlan;
 import de.firemage.autograder.core.CodeLinter;
 import de.firemage.autograder.core.LinterStatus;
+import de.firemage.autograder.core.MetricsRecorder;
 import de.firemage.autograder.api.AbstractTempLocation;
 import de.firemage.autograder.core.Problem;
+import de.firemage.autograder.core.check.AnalysisInput;
+import de.firemage.autograder.core.file.SourcePath;
 import de.firemage.autograder.core.file.UploadedFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +17,7 @@ import spoon.reflect.CtModel;
 import spoon.reflect.code.CtLiteral;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtNamedElement;
+import spoon.reflect.declaration.CtType;
 import spoon.reflect.reference.CtPackageReference;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtScanner;
@@ -22,9 +27,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -63,6 +72,11 @@ public class IntegratedAnalysis implements CodeLinter<IntegratedCheck> {
         return IntegratedCheck.class;
     }
 
+    @Override
+    public Set<AnalysisInput> requiredInputs() {
+        return Set.of(AnalysisInput.SOURCE_TEXT, AnalysisInput.MODEL);
+    }
+
     @Override
     public List<Problem> lint(
         UploadedFile submission,
@@ -75,32 +89,153 @@ public class IntegratedAnalysis implements CodeLinter<IntegratedCheck> {
         this.init(submission);
 
         statusConsumer.accept(LinterStatus.BUILDING_CODE_MODEL.getMessage());
-        this.staticAnalysis.getCodeModel().ensureModelBuild();
+        MetricsRecorder metrics = submission.getMetrics();
+        try (MetricsRecorder.Timer timer = metrics.startPhase("model-build")) {
+            this.staticAnalysis.getCodeModel().ensureModelBuild();
+            // the other indexes are built on demand, the ones the checks declare are built in advance
+            Set<AnalysisInput> requiredInputs = EnumSet.noneOf(AnalysisInput.class);
+            for (IntegratedCheck check : checks) {
+                requiredInputs.addAll(AnalysisPlan.requiredBy(check));
+            }
+            this.staticAnalysis.getCodeModel().buildIndexes(requiredInputs);
+        }
+        metrics.recordModel(this.staticAnalysis.getModel());
 
         statusConsumer.accept(LinterStatus.RUNNING_INTEGRATED_CHECKS.getMessage());
 
+        // All visitor checks share a single traversal of the model.
+        // In debug mode, they are executed one after another, so a modification of the model can be attributed to a check.
+        List<VisitorCheck<?>> visitorChecks = IS_IN_DEBUG_MODE ? List.of() : checks.stream()
+            .filter(VisitorCheck.class::isInstance)
+            .<VisitorCheck<?>>map(VisitorCheck.class::cast)
+            .toList();
+        Set<IntegratedCheck> fusedChecks = Collections.newSetFromMap(new IdentityHashMap<>());
+        fusedChecks.addAll(visitorChecks);
+        List<IntegratedCheck> otherChecks = checks.stream()
+            .filter(check -> !fusedChecks.contains(check))
+            .<IntegratedCheck>map(check -> check)
+            .toList();
+
+        Map<IntegratedCheck, Exception> failures = this.runChecks(visitorChecks, otherChecks);
+
+        // the results are collected in the order of the checks, regardless of the order in which they were executed
         List<Problem> result = new ArrayList<>();
         for (IntegratedCheck check : checks) {
-            long beforeTime = System.nanoTime();
-            try {
-                result.addAll(check.run(
-                    this.staticAnalysis,
-                    this.file.getSource()
-                ));
-            } catch (Exception exception) {
+            Exception exception = failures.get(check);
+            if (exception != null) {
                 failureConsumer.accept(new FailureInformation(
                     check.getClass().getSimpleName(),
                     exception
                 ));
+            } else {
+                result.addAll(check.getProblems());
             }
-            long afterTime = System.nanoTime();
-            logger.info("Completed check " + check.getClass().getSimpleName() + " in " + ((afterTime - beforeTime) / 1_000_000 + "ms"));
-            this.assertModelIntegrity(check.getClass().getSimpleName());
         }
 
         return result;
     }
 
+    private Optional<Exception> runCheck(IntegratedCheck check, StaticAnalysis staticAnalysis) {
+        long beforeTime = System.nanoTime();
+        Exception failure = null;
+        try (MetricsRecorder.Timer timer = this.file.getMetrics().startCheck(check)) {
+            check.run(
+                staticAnalysis,
+                this.file.getSource()
+            );
+        } catch (Exception exception) {
+            failure = exception;
+        }
+        long afterTime = System.nanoTime();
+        logger.info("Completed check " + check.getClass().getSimpleName() + " in " + ((afterTime - beforeTime) / 1_000_000 + "ms"));
+        return Optional.ofNullable(failure);
+    }
+
+    private Map<VisitorCheck<?>, Exception> runVisitorChecks(
+        List<VisitorCheck<?>> visitorChecks,
+        Optional<List<CtType<?>>> fileLocalScope
+    ) {
+        if (visitorChecks.isEmpty()) {
+            return Map.of();
+        }
+
+        for (VisitorCheck<?> check : visitorChecks) {
+            check.prepare(this.file.getSource());
+        }
+
+        long beforeTime = System.nanoTime();
+        Map<VisitorCheck<?>, Exception> failures;
+        // the visitor checks share a single traversal, so they are only measured together
+        try (MetricsRecorder.Timer timer = this.file.getMetrics().startPhase("visitor-checks")) {
+            if (fileLocalScope.isEmpty()) {
+                failures = VisitorCheckDispatcher.dispatch(this.staticAnalysis.getModel(), visitorChecks);
+            } else {
+                // file-local checks only have to look at the files whose problems are not known yet
+                List<VisitorCheck<?>> fileLocalChecks = visitorChecks.stream().filter(AnalysisPlan::isFileLocal).toList();
+                List<VisitorCheck<?>> wholeProgramChecks = visitorChecks.stream().filter(check -> !AnalysisPlan.isFileLocal(check)).toList();
+
+                failures = new IdentityHashMap<>();
+                if (!wholeProgramChecks.isEmpty()) {
+                    failures.putAll(VisitorCheckDispatcher.dispatch(this.staticAnalysis.getModel(), wholeProgramChecks));
+                }
+
+                if (!fileLocalChecks.isEmpty()) {
+                    failures.putAll(VisitorCheckDispatcher.dispatch(fileLocalScope.get(), fileLocalChecks));
+                }
+            }
+        }
+        long afterTime = System.nanoTime();
+        logger.info("Completed " + visitorChecks.size() + " visitor checks in " + ((afterTime - beforeTime) / 1_000_000 + "ms"));
+
+        return failures;
+    }
+
+    private Map<IntegratedCheck, Exception> runChecks(
+        List<VisitorCheck<?>> visitorChecks,
+        List<IntegratedCheck> otherChecks
+    ) {
+        Optional<List<CtType<?>>> fileLocalScope = this.file.getFileLocalScope().flatMap(this::findTypesIn);
+        StaticAnalysis fileLocalAnalysis = fileLocalScope.map(this.staticAnalysis::restrictTo).orElse(this.staticAnalysis);
+
+        Map<IntegratedCheck, Exception> failures = new IdentityHashMap<>(this.runVisitorChecks(visitorChecks, fileLocalScope));
+        for (IntegratedCheck check : otherChecks) {
+            StaticAnalysis analysis = AnalysisPlan.isFileLocal(check) ? fileLocalAnalysis : this.staticAnalysis;
+            this.runCheck(check, analysis).ifPresent(exception -> failures.put(check, exception));
+            this.assertModelIntegrity(check.getClass().getSimpleName());
+        }
+
+        return failures;
+    }
+
+    /**
+     * Finds the top-level types that are declared in the given files, their nested types are part of them.
+     *
+     * @param files the files in which the types are declared
+     * @return the types or an empty optional if a file does not declare any type (e.g. a package-info.java),
+     *         then the whole model has to be analyzed, because its elements are not part of a type
+     */
+    private Optional<List<CtType<?>>> findTypesIn(Set<SourcePath> files) {
+        List<CtType<?>> result = new ArrayList<>();
+        Set<SourcePath> filesWithTypes = new HashSet<>();
+        for (CtType<?> ctType : this.staticAnalysis.getModel().getAllTypes()) {
+            if (!ctType.isTopLevel() || !ctType.getPosition().isValidPosition() || ctType.getPosition().getFile() == null) {
+                continue;
+            }
+
+            SourcePath path = this.file.getSource().getCompilationUnit(ctType.getPosition().getFile().toPath()).path();
+            if (files.contains(path)) {
+                result.add(ctType);
+                filesWithTypes.add(path);
+            }
+        }
+
+        if (!filesWithTypes.equals(files)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(result);
+    }
+
     // sometimes spoon creates invalid elements, which are not the fault of this project or any check
     private static final Set<CtElement> alreadyInvalidElements = Collections.newSetFromMap(new IdentityHashMap<>());
     /**
@@ -8,6 +8,7 @@ import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.api.Translatable;
 import de.firemage.autograder.core.check.Check;
 import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.jfr.CheckEvent;
 import spoon.reflect.declaration.CtElement;
 
 import java.util.ArrayList;
@@ -28,9 +29,28 @@ public abstract class IntegratedCheck implements Check {
     }
 
     public List<Problem> run(StaticAnalysis staticAnalysis, SourceInfo sourceInfo) {
+        CheckEvent event = new CheckEvent();
+        event.begin();
+        try {
+            this.prepare(sourceInfo);
+            this.check(staticAnalysis);
+            return this.problems;
+        } finally {
+            // the fields are only computed if the event is recorded, so a disabled event costs nothing
+            if (event.shouldCommit()) {
+                event.setSubmission(sourceInfo.path().toString());
+                event.setCheck(this.getClass().getSimpleName());
+                event.commit();
+            }
+        }
+    }
+
+    void prepare(SourceInfo sourceInfo) {
         this.problems.clear();
         this.sourceInfo = sourceInfo;
-        this.check(staticAnalysis);
+    }
+
+    List<Problem> getProblems() {
         return this.problems;
     }
 
@@ -0,0 +1,50 @@
+package de.firemage.autograder.core.integrated;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * An index of the model that is only built when it is requested for the first time.
+ * <p>
+ * The index is stored in the metadata of the model when the model is built, so checks that do not need it
+ * do not pay for it. If multiple threads request the index at once, it is still only built once.
+ *
+ * @param <T> the type of the index
+ */
+public final class LazyIndex<T> {
+    private final Supplier<? extends T> builder;
+    private volatile T index;
+
+    public LazyIndex(Supplier<? extends T> builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Returns the index and builds it if that has not happened yet.
+     *
+     * @return the index
+     */
+    public T get() {
+        T result = this.index;
+        if (result != null) {
+            return result;
+        }
+
+        synchronized (this) {
+            if (this.index == null) {
+                this.index = this.builder.get();
+            }
+
+            return this.index;
+        }
+    }
+
+    /**
+     * Returns the index only if it has already been built.
+     *
+     * @return the index or an empty optional if it has not been requested yet
+     */
+    public Optional<T> getIfBuilt() {
+        return Optional.ofNullable(this.index);
+    }
+}
@@ -49,17 +49,30 @@ public final class MethodHierarchy {
         });
     }
 
+    /**
+     * Registers the hierarchy for the model, it is built when it is requested for the first time.
+     *
+     * @param model the model
+     */
+    public static void prepareFor(CtModel model) {
+        model.getRootPackage().putMetadata(METADATA_KEY, new LazyIndex<>(() -> new MethodHierarchy(model)));
+    }
+
     public static void buildFor(CtModel model) {
-        MethodHierarchy methodHierarchy = new MethodHierarchy(model);
-        model.getRootPackage().putMetadata(METADATA_KEY, methodHierarchy);
+        if (model.getRootPackage().getMetadata(METADATA_KEY) == null) {
+            prepareFor(model);
+        }
+
+        getFor(model.getRootPackage());
     }
 
+    @SuppressWarnings("unchecked")
     public static MethodHierarchy getFor(CtElement element) {
-        var methodHierarchy = (MethodHierarchy) element.getFactory().getModel().getRootPackage().getMetadata(METADATA_KEY);
+        var methodHierarchy = (LazyIndex<MethodHierarchy>) element.getFactory().getModel().getRootPackage().getMetadata(METADATA_KEY);
         if (methodHierarchy == null) {
             throw new IllegalStateException("MethodHierarchy not built for this model");
         }
-        return methodHierarchy;
+        return methodHierarchy.get();
     }
 
     /**
@@ -6,19 +6,43 @@ import spoon.processing.Processor;
 import spoon.reflect.CtModel;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtImport;
+import spoon.reflect.declaration.CtType;
 import spoon.reflect.factory.Factory;
 import spoon.reflect.reference.CtPackageReference;
 import spoon.reflect.reference.CtTypeReference;
+import spoon.support.QueueProcessingManager;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class StaticAnalysis {
     private final CodeModel model;
     private final CompilationResult compilationResult;
+    // the types that are processed, null if the whole model is processed
+    private final Collection<CtType<?>> scope;
 
     public StaticAnalysis(CodeModel model, CompilationResult compilationResult) {
+        this(model, compilationResult, null);
+    }
+
+    private StaticAnalysis(CodeModel model, CompilationResult compilationResult, Collection<CtType<?>> scope) {
         this.model = model;
         this.compilationResult = compilationResult;
+        this.scope = scope;
+    }
+
+    /**
+     * Creates an analysis of the same model, which only passes the given types and their children to the processors.
+     * <p>
+     * This is used for file-local checks, which do not have to look at the files whose problems are already known.
+     * Everything else, like {@link #getModel()}, still refers to the whole model.
+     *
+     * @param types the types that should be processed
+     * @return the restricted analysis
+     */
+    public StaticAnalysis restrictTo(Collection<? extends CtType<?>> types) {
+        return new StaticAnalysis(this.model, this.compilationResult, List.copyOf(types));
     }
 
     public Factory getFactory() {
@@ -38,7 +62,14 @@ public class StaticAnalysis {
     }
 
     public <E extends CtElement> void processWith(Processor<E> processor) {
-        this.model.processWith(processor);
+        if (this.scope == null) {
+            this.model.processWith(processor);
+            return;
+        }
+
+        QueueProcessingManager processingManager = new QueueProcessingManager(this.getFactory());
+        processingManager.addProcessor(processor);
+        processingManager.process(this.scope);
     }
 
     private static boolean isJavaUtilImport(CtImport ctImport) {
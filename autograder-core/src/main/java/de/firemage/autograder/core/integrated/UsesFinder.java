@@ -59,17 +59,30 @@ public class UsesFinder {
         model.getRootPackage().accept(this.scanner);
     }
 
+    /**
+     * Registers the uses for the model, they are collected when they are requested for the first time.
+     *
+     * @param model the model
+     */
+    public static void prepareFor(CtModel model) {
+        model.getRootPackage().putMetadata(METADATA_KEY, new LazyIndex<>(() -> new UsesFinder(model)));
+    }
+
     public static void buildFor(CtModel model) {
-        UsesFinder uses = new UsesFinder(model);
-        model.getRootPackage().putMetadata(METADATA_KEY, uses);
+        if (model.getRootPackage().getMetadata(METADATA_KEY) == null) {
+            prepareFor(model);
+        }
+
+        getFor(model.getRootPackage());
     }
 
+    @SuppressWarnings("unchecked")
     private static UsesFinder getFor(FactoryAccessor factoryAccessor) {
-        var uses = (UsesFinder) ElementUtil.getRootPackage(factoryAccessor).getMetadata(METADATA_KEY);
+        var uses = (LazyIndex<UsesFinder>) ElementUtil.getRootPackage(factoryAccessor).getMetadata(METADATA_KEY);
         if (uses == null) {
             throw new IllegalArgumentException("No uses information available for this model");
         }
-        return uses;
+        return uses.get();
     }
 
     /**
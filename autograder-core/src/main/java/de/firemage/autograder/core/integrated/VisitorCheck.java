@@ -0,0 +1,53 @@
+package de.firemage.autograder.core.integrated;
+
+import spoon.processing.AbstractProcessor;
+import spoon.reflect.declaration.CtElement;
+
+/**
+ * A check that is called for every element of the model with a certain type.
+ * <p>
+ * Instead of traversing the model once per check, the {@link IntegratedAnalysis} traverses the model once
+ * and passes each element to all visitor checks that are interested in it.
+ * The elements are visited in the same order as with {@link StaticAnalysis#processWith(spoon.processing.Processor)}.
+ *
+ * @param <E> the type of the elements the check is interested in
+ */
+public abstract class VisitorCheck<E extends CtElement> extends IntegratedCheck {
+    private final Class<? super E> elementType;
+
+    protected VisitorCheck(Class<? super E> elementType) {
+        this.elementType = elementType;
+    }
+
+    /**
+     * Called for each element of the model that is an instance of the element type.
+     *
+     * @param element the element to check
+     */
+    protected abstract void visit(E element);
+
+    Class<? super E> getElementType() {
+        return this.elementType;
+    }
+
+    @SuppressWarnings("unchecked")
+    void dispatch(CtElement element) {
+        this.visit((E) element);
+    }
+
+    @Override
+    protected void check(StaticAnalysis staticAnalysis) {
+        // this is only used when the check is not part of a shared traversal (e.g. in debug mode)
+        staticAnalysis.processWith(new AbstractProcessor<CtElement>() {
+            @Override
+            public boolean isToBeProcessed(CtElement candidate) {
+                return elementType.isInstance(candidate);
+            }
+
+            @Override
+            public void process(CtElement element) {
+                dispatch(element);
+            }
+        });
+    }
+}
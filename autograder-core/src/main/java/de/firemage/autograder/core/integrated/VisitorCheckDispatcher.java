@@ -0,0 +1,81 @@
+package de.firemage.autograder.core.integrated;
+
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.visitor.CtScanner;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Traverses the model once and passes each element to all {@link VisitorCheck}s that are interested in it.
+ * <p>
+ * A check that throws an exception does not receive any further elements, the other checks are not affected.
+ */
+final class VisitorCheckDispatcher extends CtScanner {
+    private final List<? extends VisitorCheck<?>> checks;
+    // the runtime class of an element -> the checks that are interested in it
+    private final Map<Class<?>, List<VisitorCheck<?>>> subscribers;
+    private final Map<VisitorCheck<?>, Exception> failures;
+
+    private VisitorCheckDispatcher(List<? extends VisitorCheck<?>> checks) {
+        this.checks = checks;
+        this.subscribers = new HashMap<>();
+        this.failures = new IdentityHashMap<>();
+    }
+
+    /**
+     * Runs all checks in a single traversal of the model.
+     *
+     * @param model the model to traverse
+     * @param checks the checks to run, they must have been prepared before
+     * @return the checks that failed with the exception they threw
+     */
+    static Map<VisitorCheck<?>, Exception> dispatch(CtModel model, List<? extends VisitorCheck<?>> checks) {
+        return dispatch(model.getAllModules(), checks);
+    }
+
+    /**
+     * Runs all checks in a single traversal of the given elements and their children.
+     *
+     * @param roots the elements to traverse, e.g. the types of some files
+     * @param checks the checks to run, they must have been prepared before
+     * @return the checks that failed with the exception they threw
+     */
+    static Map<VisitorCheck<?>, Exception> dispatch(Collection<? extends CtElement> roots, List<? extends VisitorCheck<?>> checks) {
+        VisitorCheckDispatcher dispatcher = new VisitorCheckDispatcher(checks);
+        dispatcher.scan(roots);
+        return dispatcher.failures;
+    }
+
+    private List<VisitorCheck<?>> findSubscribers(Class<?> elementClass) {
+        return this.checks.stream()
+            .filter(check -> check.getElementType().isAssignableFrom(elementClass))
+            .<VisitorCheck<?>>map(check -> check)
+            .toList();
+    }
+
+    @Override
+    public void scan(CtElement element) {
+        if (element == null) {
+            return;
+        }
+
+        for (VisitorCheck<?> check : this.subscribers.computeIfAbsent(element.getClass(), this::findSubscribers)) {
+            if (this.failures.containsKey(check)) {
+                continue;
+            }
+
+            try {
+                check.dispatch(element);
+            } catch (Exception exception) {
+                this.failures.put(check, exception);
+            }
+        }
+
+        super.scan(element);
+    }
+}
@@ -26,6 +26,11 @@ public final class StructuralEqualsVisitor extends EqualsVisitor {
         CtRole.COMMENT, CtRole.COMMENT_CONTENT, CtRole.COMMENT_TAG, CtRole.COMMENT_TYPE
     );
 
+    /**
+     * Allows no differences between the elements, except for comments.
+     */
+    public static final BiPredicate<CtRole, Object> ALLOW_NO_DIFFERENCE = (CtRole role, Object element) -> false;
+
     /**
      * Allows elements to differ in name if they are local variables, fields, parameters or catch variables.
      */
@@ -1,11 +1,24 @@
 package de.firemage.autograder.core.integrated.structure;
 
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import de.firemage.autograder.core.integrated.LazyIndex;
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtBinaryOperator;
+import spoon.reflect.code.CtLiteral;
+import spoon.reflect.code.CtOperatorAssignment;
+import spoon.reflect.code.CtUnaryOperator;
 import spoon.reflect.declaration.CtElement;
+import spoon.reflect.factory.Factory;
 import spoon.reflect.path.CtRole;
+import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtScanner;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.BiPredicate;
 
 /**
@@ -14,41 +27,188 @@ import java.util.function.BiPredicate;
  * The default hashCode implementation in spoon does not ignore comments or naming of things
  * and to be compatible with the {@link StructuralEqualsVisitor} a different hashCode implementation is needed.
  * The hash code visitor tries to be as generic as possible, but with a low number of collisions.
+ * <br>
+ * The hash code of an element is combined from the hash codes of its children, so it is computed bottom-up and
+ * each element is only visited once. The hash codes of all elements in the model can be computed in advance with
+ * {@link #buildFor(CtModel, Collection)}, then they do not have to be computed again.
  */
 public final class StructuralHashCodeVisitor extends CtScanner {
-    private final HashCodeBuilder builder;
+    private static final String METADATA_KEY = "autograder_structural_hash_codes";
+
     private final BiPredicate<? super CtRole, Object> isAllowedDifference;
+    private final Map<CtElement, Integer> knownHashCodes;
+    private final Map<CtElement, Integer> computedHashCodes;
+    // the hash codes of the elements that are currently visited and the role in their parent
+    private int[] hashCodes;
+    private CtRole[] roles;
+    private int depth;
+    private CtRole nextRole;
 
-    private StructuralHashCodeVisitor(BiPredicate<? super CtRole, Object> isAllowedDifference) {
-        this.builder = new HashCodeBuilder();
+    private StructuralHashCodeVisitor(BiPredicate<? super CtRole, Object> isAllowedDifference, Map<CtElement, Integer> knownHashCodes) {
         this.isAllowedDifference = isAllowedDifference;
+        this.knownHashCodes = knownHashCodes;
+        this.computedHashCodes = new IdentityHashMap<>();
+        this.hashCodes = new int[32];
+        this.roles = new CtRole[32];
+        this.depth = 0;
+    }
+
+    /**
+     * Registers the hash codes of all elements in the model, they are computed with {@link #buildFor(CtModel, Collection)}.
+     * <p>
+     * Until then, the hash codes are computed for each element on its own.
+     *
+     * @param model the model to compute the hash codes for
+     * @param allowedDifferences the predicates that will be used to compute hash codes
+     */
+    public static void prepareFor(CtModel model, Collection<? extends BiPredicate<? super CtRole, Object>> allowedDifferences) {
+        List<BiPredicate<? super CtRole, Object>> predicates = List.copyOf(allowedDifferences);
+        model.getRootPackage().putMetadata(METADATA_KEY, new LazyIndex<>(() -> computeHashCodes(model, predicates)));
+    }
+
+    /**
+     * Computes the hash codes of all elements in the model and stores them in the model.
+     * <p>
+     * The hash codes depend on the allowed differences, so they are only reused when {@link #computeHashCode(CtElement, BiPredicate)}
+     * is called with the same instance of the predicate. The model should not be modified afterward.
+     * If the hash codes have already been {@link #prepareFor(CtModel, Collection) registered}, the registered predicates are used.
+     *
+     * @param model the model to compute the hash codes for
+     * @param allowedDifferences the predicates that will be used to compute hash codes
+     */
+    public static void buildFor(CtModel model, Collection<? extends BiPredicate<? super CtRole, Object>> allowedDifferences) {
+        if (getIndex(model.getRootPackage().getFactory()) == null) {
+            prepareFor(model, allowedDifferences);
+        }
+
+        getIndex(model.getRootPackage().getFactory()).get();
+    }
+
+    private static Map<BiPredicate<? super CtRole, Object>, Map<CtElement, Integer>> computeHashCodes(
+        CtModel model,
+        Collection<? extends BiPredicate<? super CtRole, Object>> allowedDifferences
+    ) {
+        Map<BiPredicate<? super CtRole, Object>, Map<CtElement, Integer>> hashCodes = new IdentityHashMap<>();
+        for (var isAllowedDifference : allowedDifferences) {
+            StructuralHashCodeVisitor visitor = new StructuralHashCodeVisitor(isAllowedDifference, Map.of());
+            visitor.scan(model.getAllModules());
+            hashCodes.put(isAllowedDifference, visitor.computedHashCodes);
+        }
+
+        return hashCodes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LazyIndex<Map<BiPredicate<? super CtRole, Object>, Map<CtElement, Integer>>> getIndex(Factory factory) {
+        return (LazyIndex<Map<BiPredicate<? super CtRole, Object>, Map<CtElement, Integer>>>) factory.getModel()
+            .getRootPackage()
+            .getMetadata(METADATA_KEY);
+    }
+
+    private static Map<CtElement, Integer> getKnownHashCodes(CtElement element, BiPredicate<? super CtRole, Object> isAllowedDifference) {
+        Factory factory = element.getFactory();
+        if (factory == null) {
+            return Map.of();
+        }
+
+        var index = getIndex(factory);
+        if (index == null) {
+            return Map.of();
+        }
+
+        // the hash codes are not computed here, computing the hash code of a single element is cheaper
+        return index.getIfBuilt()
+            .map(hashCodes -> hashCodes.getOrDefault(isAllowedDifference, Map.of()))
+            .orElse(Map.of());
     }
 
     public static int computeHashCode(CtElement element, BiPredicate<? super CtRole, Object> isAllowedDifference) {
-        StructuralHashCodeVisitor visitor = new StructuralHashCodeVisitor(isAllowedDifference);
+        Map<CtElement, Integer> knownHashCodes = getKnownHashCodes(element, isAllowedDifference);
+        Integer hashCode = knownHashCodes.isEmpty() ? null : knownHashCodes.get(element);
+        if (hashCode != null) {
+            return hashCode;
+        }
+
+        StructuralHashCodeVisitor visitor = new StructuralHashCodeVisitor(isAllowedDifference, knownHashCodes);
         visitor.scan(element);
-        return visitor.getHashCode();
+        return visitor.computedHashCodes.getOrDefault(element, 0);
+    }
+
+    private static int combine(int hashCode, CtRole ctRole, int childHashCode) {
+        int roleHashCode = ctRole == null ? 0 : ctRole.ordinal() + 1;
+        return (hashCode * 37 + roleHashCode) * 37 + childHashCode;
+    }
+
+    private void addChild(CtRole ctRole, int childHashCode) {
+        if (this.depth > 0) {
+            this.hashCodes[this.depth - 1] = combine(this.hashCodes[this.depth - 1], ctRole, childHashCode);
+        }
     }
 
     @Override
     public void enter(CtElement ctElement) {
+        if (this.depth == this.hashCodes.length) {
+            this.hashCodes = Arrays.copyOf(this.hashCodes, this.depth * 2);
+            this.roles = Arrays.copyOf(this.roles, this.depth * 2);
+        }
+
+        int hashCode = 17;
         if (ctElement instanceof CtTypeReference<?> ctTypeReference) {
-            this.builder.append(ctTypeReference.getSimpleName());
+            hashCode = hashCode * 37 + ctTypeReference.getSimpleName().hashCode();
+        }
+
+        // The properties below are compared by the StructuralEqualsVisitor as well. Including them reduces the
+        // number of collisions, e.g. for many System.out.println calls that only differ in the printed text.
+        if (ctElement instanceof CtExecutableReference<?> ctExecutableReference && this.isCompared(CtRole.NAME, ctElement)) {
+            hashCode = hashCode * 37 + ctExecutableReference.getSimpleName().hashCode();
+        }
+
+        if (ctElement instanceof CtLiteral<?> ctLiteral && this.isCompared(CtRole.VALUE, ctElement)) {
+            hashCode = hashCode * 37 + Objects.hashCode(ctLiteral.getValue());
+        }
+
+        if (this.isCompared(CtRole.OPERATOR_KIND, ctElement)) {
+            if (ctElement instanceof CtBinaryOperator<?> ctBinaryOperator) {
+                hashCode = hashCode * 37 + ctBinaryOperator.getKind().ordinal();
+            } else if (ctElement instanceof CtUnaryOperator<?> ctUnaryOperator) {
+                hashCode = hashCode * 37 + ctUnaryOperator.getKind().ordinal();
+            } else if (ctElement instanceof CtOperatorAssignment<?, ?> ctOperatorAssignment) {
+                hashCode = hashCode * 37 + ctOperatorAssignment.getKind().ordinal();
+            }
         }
 
-        this.builder.append(ctElement.getClass().getSimpleName().hashCode());
+        this.hashCodes[this.depth] = hashCode * 37 + ctElement.getClass().getSimpleName().hashCode();
+        this.roles[this.depth] = this.nextRole;
+        this.nextRole = null;
+        this.depth++;
+    }
+
+    private boolean isCompared(CtRole ctRole, CtElement ctElement) {
+        return !StructuralEqualsVisitor.shouldSkip(ctRole, ctElement, this.isAllowedDifference);
+    }
+
+    @Override
+    public void exit(CtElement ctElement) {
+        this.depth--;
+        int hashCode = this.hashCodes[this.depth];
+        this.computedHashCodes.put(ctElement, hashCode);
+        this.addChild(this.roles[this.depth], hashCode);
     }
 
     @Override
     public void scan(CtRole ctRole, CtElement element) {
-        if (StructuralEqualsVisitor.shouldSkip(ctRole, element, this.isAllowedDifference)) {
+        if (element == null || StructuralEqualsVisitor.shouldSkip(ctRole, element, this.isAllowedDifference)) {
             return;
         }
-        this.builder.append(ctRole);
-        super.scan(ctRole, element);
-    }
 
-    public int getHashCode() {
-        return this.builder.toHashCode();
+        // the hash code of an element does not depend on its parent, so it can be reused
+        Integer knownHashCode = this.knownHashCodes.isEmpty() ? null : this.knownHashCodes.get(element);
+        if (knownHashCode != null) {
+            this.addChild(ctRole, knownHashCode);
+            return;
+        }
+
+        this.nextRole = ctRole;
+        super.scan(ctRole, element);
     }
 }
@@ -0,0 +1,34 @@
+package de.firemage.autograder.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An integrated check that runs on the model of a submission.
+ */
+@Name("de.firemage.autograder.Check")
+@Label("Run Check")
+@Category("Autograder")
+@Description("An integrated check that runs on the model of a submission.")
+@StackTrace(false)
+public final class CheckEvent extends Event {
+    @Label("Submission")
+    @Description("The root folder of the submission")
+    private String submission;
+
+    @Label("Check")
+    @Description("The simple class name of the check")
+    private String check;
+
+    public void setSubmission(String submission) {
+        this.submission = submission;
+    }
+
+    public void setCheck(String check) {
+        this.check = check;
+    }
+}
@@ -0,0 +1,34 @@
+package de.firemage.autograder.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A single invocation of javac on the code of a submission.
+ */
+@Name("de.firemage.autograder.Compilation")
+@Label("Compile Submission")
+@Category("Autograder")
+@Description("A single invocation of javac on the code of a submission.")
+@StackTrace(false)
+public final class CompilationEvent extends Event {
+    @Label("Submission")
+    @Description("The root folder of the submission")
+    private String submission;
+
+    @Label("Files")
+    @Description("The number of compiled source files")
+    private int files;
+
+    public void setSubmission(String submission) {
+        this.submission = submission;
+    }
+
+    public void setFiles(int files) {
+        this.files = files;
+    }
+}
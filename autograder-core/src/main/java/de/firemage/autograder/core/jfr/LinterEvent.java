@@ -0,0 +1,34 @@
+package de.firemage.autograder.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A linter that runs its checks on a submission.
+ */
+@Name("de.firemage.autograder.Linter")
+@Label("Run Linter")
+@Category("Autograder")
+@Description("A linter that runs its checks on a submission.")
+@StackTrace(false)
+public final class LinterEvent extends Event {
+    @Label("Submission")
+    @Description("The root folder of the submission")
+    private String submission;
+
+    @Label("Linter")
+    @Description("The simple class name of the linter")
+    private String linter;
+
+    public void setSubmission(String submission) {
+        this.submission = submission;
+    }
+
+    public void setLinter(String linter) {
+        this.linter = linter;
+    }
+}
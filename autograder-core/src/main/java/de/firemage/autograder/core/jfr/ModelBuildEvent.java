@@ -0,0 +1,26 @@
+package de.firemage.autograder.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Building the spoon model of a submission.
+ */
+@Name("de.firemage.autograder.ModelBuild")
+@Label("Build Model")
+@Category("Autograder")
+@Description("Building the spoon model of a submission.")
+@StackTrace(false)
+public final class ModelBuildEvent extends Event {
+    @Label("Submission")
+    @Description("The root folder of the submission")
+    private String submission;
+
+    public void setSubmission(String submission) {
+        this.submission = submission;
+    }
+}
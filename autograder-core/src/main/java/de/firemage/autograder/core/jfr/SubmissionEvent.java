@@ -0,0 +1,26 @@
+package de.firemage.autograder.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Grading a single submission, including the compilation and all linters.
+ */
+@Name("de.firemage.autograder.Submission")
+@Label("Grade Submission")
+@Category("Autograder")
+@Description("Grading a single submission, including the compilation and all linters.")
+@StackTrace(false)
+public final class SubmissionEvent extends Event {
+    @Label("Submission")
+    @Description("The root folder of the submission")
+    private String submission;
+
+    public void setSubmission(String submission) {
+        this.submission = submission;
+    }
+}
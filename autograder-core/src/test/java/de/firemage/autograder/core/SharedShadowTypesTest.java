@@ -0,0 +1,69 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.core.file.StringSourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.file.UploadedFile;
+import org.junit.jupiter.api.Test;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtType;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedShadowTypesTest {
+    private final TempLocation tempLocation = TempLocation.random();
+
+    @Test
+    void testEachModelHasItsOwnCopy() throws LinterException, IOException {
+        CodeModel first = buildCodeModel();
+        CodeModel second = buildCodeModel();
+
+        CtType<?> firstString = first.getFactory().Type().get(String.class);
+        CtType<?> secondString = second.getFactory().Type().get(String.class);
+
+        assertNotSame(firstString, secondString);
+        assertSame(first.getFactory(), firstString.getFactory());
+        assertSame(second.getFactory(), secondString.getFactory());
+        assertTrue(firstString.isShadow());
+        assertEquals("java.lang", firstString.getPackage().getQualifiedName());
+        assertEquals(secondString.getMethods().size(), firstString.getMethods().size());
+
+        // the copy is part of the model, so it is found by its name as well
+        assertSame(firstString, first.getFactory().Type().get("java.lang.String"));
+    }
+
+    @Test
+    void testReferencesResolveToCopy() throws LinterException, IOException {
+        CodeModel model = buildCodeModel();
+
+        CtField<?> ctField = model.getFactory().Type().get("Main").getField("entry");
+        CtType<?> entry = ctField.getType().getTypeDeclaration();
+
+        assertSame(model.getFactory().Type().get(Map.Entry.class), entry);
+        assertSame(model.getFactory().Type().get(Map.class), entry.getDeclaringType());
+        assertSame(model.getFactory(), entry.getFactory());
+    }
+
+    private CodeModel buildCodeModel() throws LinterException, IOException {
+        UploadedFile file = UploadedFile.build(StringSourceInfo.fromSourceStrings(Map.of(
+            "Main",
+            """
+                import java.util.Map;
+
+                public class Main {
+                    private Map.Entry<String, Integer> entry;
+                }
+                """
+        )), this.tempLocation, status -> {
+        }, null);
+        assertNotNull(file, "Could not compile the code");
+        return file.getModel();
+    }
+}
@@ -0,0 +1,90 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.api.AbstractLinter;
+import de.firemage.autograder.api.AbstractTempLocation;
+import de.firemage.autograder.api.CheckConfiguration;
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.file.UploadedFile;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that skipping the class generation reports exactly the same problems as the default mode.
+ */
+class SkipClassGenerationTest {
+    private record ReportedProblem(String displayLocation, ProblemType problemType, String message) {
+    }
+
+    @TestFactory
+    @Execution(ExecutionMode.CONCURRENT)
+    Stream<DynamicTest> createEquivalenceTest() throws URISyntaxException, IOException {
+        var testPath = Path.of(this.getClass().getResource("check_tests/").toURI()).toAbsolutePath();
+
+        List<Path> folders;
+        try (Stream<Path> paths = Files.list(testPath)) {
+            folders = paths.toList();
+        }
+
+        AbstractTempLocation tempLocation = TempLocation.random();
+
+        return DynamicTest.stream(
+            folders.stream().map(CheckTest.TestInput::fromPath),
+            testInput -> "Skip Class Generation Test: %s".formatted(testInput.config().description()),
+            testInput -> {
+                try (AbstractTempLocation tmpDirectory = tempLocation.createTempDirectory(testInput.config().checkPath())) {
+                    List<ReportedProblem> expected = runLinter(testInput, tmpDirectory, false);
+                    List<ReportedProblem> actual = runLinter(testInput, tmpDirectory, true);
+
+                    assertEquals(expected, actual);
+                }
+            }
+        );
+    }
+
+    private static List<ReportedProblem> runLinter(
+        CheckTest.TestInput testInput,
+        AbstractTempLocation tempLocation,
+        boolean skipClassGeneration
+    ) throws Exception {
+        var linter = new Linter(AbstractLinter.builder(Locale.US)
+            .threads(1)
+            .skipClassGeneration(skipClassGeneration)
+            .tempLocation(tempLocation));
+
+        try (var file = UploadedFile.build(
+            testInput.path().resolve("code"),
+            JavaVersion.JAVA_17,
+            tempLocation, status -> {
+            }, null,
+            skipClassGeneration
+        )) {
+            return linter.checkFile(
+                    file,
+                    CheckConfiguration.empty(),
+                    List.of(testInput.config().check()),
+                    status -> {
+                    }
+                )
+                .stream()
+                .map(problem -> new ReportedProblem(
+                    problem.getDisplayLocation(),
+                    problem.getProblemType(),
+                    linter.translateMessage(problem.getExplanation())
+                ))
+                .toList();
+        }
+    }
+}
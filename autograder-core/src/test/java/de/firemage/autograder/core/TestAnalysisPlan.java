@@ -0,0 +1,54 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.core.check.AnalysisInput;
+import de.firemage.autograder.core.check.Check;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestAnalysisPlan {
+    private final Linter linter = Linter.defaultLinter(Locale.US);
+
+    private AnalysisPlan planFor(ProblemType... problemTypes) {
+        List<Check> checks = this.linter.findChecksForProblemTypes(List.of(problemTypes));
+        return AnalysisPlan.of(checks, this.linter.findCodeLinter(), false);
+    }
+
+    @Test
+    void testNoChecks() {
+        assertEquals(Set.of(), this.planFor().inputs());
+    }
+
+    @Test
+    void testIntegratedCheckRequiresModel() {
+        AnalysisPlan plan = this.planFor(ProblemType.AVOID_LABELS);
+
+        assertTrue(plan.requires(AnalysisInput.MODEL));
+        assertTrue(plan.requires(AnalysisInput.BYTECODE));
+        assertFalse(plan.requires(AnalysisInput.DUPLICATE_CODE));
+    }
+
+    @Test
+    void testSkippedClassGenerationDoesNotRequireBytecode() {
+        List<Check> checks = this.linter.findChecksForProblemTypes(List.of(ProblemType.AVOID_LABELS));
+        AnalysisPlan plan = AnalysisPlan.of(checks, this.linter.findCodeLinter(), true);
+
+        assertTrue(plan.requires(AnalysisInput.MODEL));
+        assertFalse(plan.requires(AnalysisInput.BYTECODE));
+    }
+
+    @Test
+    void testDeclaredInputs() {
+        AnalysisPlan plan = this.planFor(ProblemType.DUPLICATE_CODE, ProblemType.UNCHECKED_TYPE_CAST);
+
+        assertTrue(plan.requires(AnalysisInput.DUPLICATE_CODE));
+        assertTrue(plan.requires(AnalysisInput.COMPILER_DIAGNOSTICS));
+        assertFalse(plan.requires(AnalysisInput.USES));
+    }
+}
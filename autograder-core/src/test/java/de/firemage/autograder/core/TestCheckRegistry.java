@@ -0,0 +1,56 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.core.check.Check;
+import de.firemage.autograder.core.check.ExecutableCheck;
+import org.junit.jupiter.api.Test;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ConfigurationBuilder;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestCheckRegistry {
+    private static boolean isFromSameBuild(Class<?> type) {
+        // the test classes might declare checks as well, but only the checks of the main classes are registered
+        return Objects.equals(
+            type.getProtectionDomain().getCodeSource().getLocation(),
+            Linter.class.getProtectionDomain().getCodeSource().getLocation()
+        );
+    }
+
+    @Test
+    void testEveryCheckIsRegisteredOnce() {
+        ClassLoader classLoader = Linter.class.getClassLoader();
+        Set<String> expected = new Reflections(new ConfigurationBuilder()
+            .forPackage("de.firemage.autograder", classLoader)
+            .addClassLoaders(classLoader)
+            .setScanners(Scanners.TypesAnnotated)
+        ).getTypesAnnotatedWith(ExecutableCheck.class)
+            .stream()
+            .filter(TestCheckRegistry::isFromSameBuild)
+            // the scan includes subtypes of annotated types, which are not checks on their own
+            .filter(type -> type.getDeclaredAnnotation(ExecutableCheck.class) != null && !Modifier.isAbstract(type.getModifiers()))
+            .filter(type -> type.getAnnotation(ExecutableCheck.class).enabled())
+            .filter(type -> type.getAnnotation(ExecutableCheck.class).reportedProblems().length > 0)
+            .map(Class::getName)
+            .collect(Collectors.toSet());
+
+        List<String> registered = CheckRegistry.load(classLoader)
+            .createChecksFor(Arrays.asList(ProblemType.values()))
+            .stream()
+            .map(Check::getClass)
+            .map(Class::getName)
+            .toList();
+
+        // every check must be registered exactly once, so each of them is executed once
+        assertEquals(registered.size(), Set.copyOf(registered).size(), "Some checks are registered multiple times");
+        assertEquals(expected, Set.copyOf(registered));
+    }
+}
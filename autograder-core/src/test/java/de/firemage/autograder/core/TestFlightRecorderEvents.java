@@ -0,0 +1,68 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.api.AbstractLinter;
+import de.firemage.autograder.api.CheckConfiguration;
+import de.firemage.autograder.api.FailureInformation;
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.core.file.TempLocation;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestFlightRecorderEvents {
+    private static final String EVENT_PREFIX = "de.firemage.autograder.";
+
+    @Test
+    void testEventsAreRecorded(@TempDir Path tempDir) throws Exception {
+        Path code = Path.of(TestFlightRecorderEvents.class.getResource("check_tests/AvoidLabels/code").toURI());
+        Linter linter = new Linter(AbstractLinter.builder(Locale.US).tempLocation(TempLocation.random()));
+
+        Path recordingFile = tempDir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("Submission", "Compilation", "ModelBuild", "Linter", "Check")) {
+                recording.enable(EVENT_PREFIX + name);
+            }
+
+            recording.start();
+            linter.checkFileFallible(
+                code,
+                JavaVersion.JAVA_17,
+                // AvoidLabels is a visitor check, UnusedImport is run on its own
+                CheckConfiguration.fromProblemTypes(List.of(ProblemType.AVOID_LABELS, ProblemType.UNUSED_IMPORT)),
+                status -> {},
+                FailureInformation.failFastConsumer()
+            );
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+
+        List<RecordedEvent> submissions = eventsNamed(events, "Submission");
+        assertEquals(1, submissions.size());
+        assertEquals(code.toString(), submissions.getFirst().getString("submission"));
+
+        assertEquals(1, eventsNamed(events, "ModelBuild").size());
+        assertFalse(eventsNamed(events, "Compilation").isEmpty());
+        assertTrue(eventsNamed(events, "Linter").stream()
+            .anyMatch(event -> event.getString("linter").equals("IntegratedAnalysis")));
+        assertTrue(eventsNamed(events, "Check").stream()
+            .anyMatch(event -> event.getString("check").equals("UnusedImport")));
+    }
+
+    private static List<RecordedEvent> eventsNamed(List<RecordedEvent> events, String name) {
+        return events.stream()
+            .filter(event -> event.getEventType().getName().equals(EVENT_PREFIX + name))
+            .toList();
+    }
+}
@@ -0,0 +1,100 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.api.AbstractLinter;
+import de.firemage.autograder.api.AnalysisMetrics;
+import de.firemage.autograder.api.CheckConfiguration;
+import de.firemage.autograder.api.FailureInformation;
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.core.file.TempLocation;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestMetricsRecorder {
+    private static final Path CODE = code();
+
+    private static Path code() {
+        try {
+            return Path.of(TestMetricsRecorder.class.getResource("check_tests/AvoidLabels/code").toURI());
+        } catch (URISyntaxException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static List<Problem> check(Linter linter) throws LinterException, IOException {
+        return linter.checkFileFallible(
+            CODE,
+            JavaVersion.JAVA_17,
+            CheckConfiguration.fromProblemTypes(List.of(ProblemType.AVOID_LABELS)),
+            status -> {},
+            FailureInformation.failFastConsumer()
+        );
+    }
+
+    @Test
+    void testMetricsAreReported() throws Exception {
+        List<AnalysisMetrics> reportedMetrics = new ArrayList<>();
+        Linter linter = new Linter(AbstractLinter.builder(Locale.US)
+            .tempLocation(TempLocation.random())
+            // the metrics count the problems before they are merged, so nothing may be merged to compare the counts
+            .maxProblemsPerCheck(-1)
+            .metricsConsumer(reportedMetrics::add));
+
+        List<Problem> problems = check(linter);
+
+        assertEquals(1, reportedMetrics.size());
+        AnalysisMetrics metrics = reportedMetrics.getFirst();
+        assertEquals(CODE, metrics.submission());
+
+        List<String> phases = metrics.phases().stream().map(AnalysisMetrics.Measurement::name).toList();
+        assertTrue(phases.containsAll(List.of("compilation", "model-build", "visitor-checks", "IntegratedAnalysis")), phases::toString);
+        for (AnalysisMetrics.Measurement phase : metrics.phases()) {
+            assertTrue(phase.wallTimeNanos() >= 0, phase::toString);
+        }
+
+        assertEquals(1, metrics.checks().size());
+        AnalysisMetrics.CheckMetrics check = metrics.checks().getFirst();
+        assertEquals("AvoidLabels", check.check());
+        assertEquals("IntegratedAnalysis", check.linter());
+        // the visitor checks are only measured together
+        assertNull(check.measurement());
+        assertEquals(problems.size(), check.problems());
+
+        assertNotNull(metrics.model());
+        assertEquals(1, metrics.model().files());
+        assertEquals(1, metrics.model().types());
+        assertEquals(1, metrics.model().methods());
+        assertTrue(metrics.model().elements() > metrics.model().lines());
+    }
+
+    @Test
+    void testMetricsCountProblemsBeforeMerging() throws Exception {
+        int unreducedProblems = check(new Linter(AbstractLinter.builder(Locale.US)
+            .tempLocation(TempLocation.random())
+            .maxProblemsPerCheck(-1))).size();
+
+        List<AnalysisMetrics> reportedMetrics = new ArrayList<>();
+        List<Problem> problems = check(new Linter(AbstractLinter.builder(Locale.US)
+            .tempLocation(TempLocation.random())
+            .maxProblemsPerCheck(2)
+            .metricsConsumer(reportedMetrics::add)));
+
+        // the fixture has more labels than the limit, so the reported problems are merged
+        assertTrue(unreducedProblems > 2, () -> "Expected more than 2 problems, got " + unreducedProblems);
+        assertEquals(2, problems.size());
+
+        assertEquals(1, reportedMetrics.size());
+        assertEquals(List.of(unreducedProblems), reportedMetrics.getFirst().checks().stream().map(AnalysisMetrics.CheckMetrics::problems).toList());
+    }
+}
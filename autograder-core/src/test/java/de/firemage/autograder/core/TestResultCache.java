@@ -0,0 +1,203 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.api.AbstractLinter;
+import de.firemage.autograder.api.CheckConfiguration;
+import de.firemage.autograder.api.FailureInformation;
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.core.file.SourcePath;
+import de.firemage.autograder.core.file.TempLocation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestResultCache {
+    private static final CheckConfiguration CHECK_CONFIGURATION = CheckConfiguration.fromProblemTypes(List.of(ProblemType.AVOID_LABELS));
+
+    private static Path getCode() throws URISyntaxException {
+        return Path.of(TestResultCache.class.getResource("check_tests/AvoidLabels/code").toURI());
+    }
+
+    private static List<String> lint(Linter linter, Path code) throws Exception {
+        return format(linter, check(linter, code, CHECK_CONFIGURATION));
+    }
+
+    private static List<Problem> check(Linter linter, Path code, CheckConfiguration checkConfiguration) throws Exception {
+        return linter.checkFileFallible(code, JavaVersion.JAVA_17, checkConfiguration, status -> {
+        }, FailureInformation.failFastConsumer());
+    }
+
+    private static List<String> format(Linter linter, List<Problem> problems) {
+        return problems.stream()
+            .map(problem -> problem.getDisplayLocation() + " " + linter.translateMessage(problem.getExplanation()))
+            .toList();
+    }
+
+    private static Linter createLinter(Path cache, double verificationRate) {
+        return new Linter(AbstractLinter.builder(Locale.US)
+            .tempLocation(TempLocation.random())
+            .resultCache(cache)
+            .resultCacheVerificationRate(verificationRate));
+    }
+
+    private static List<Path> listEntries(Path cache) throws IOException {
+        try (Stream<Path> files = Files.list(cache)) {
+            return files.toList();
+        }
+    }
+
+    @Test
+    void testCachedResultIsReused(@TempDir Path cache) throws Exception {
+        Path code = getCode();
+        List<String> uncached = lint(new Linter(AbstractLinter.builder(Locale.US).tempLocation(TempLocation.random())), code);
+
+        Linter linter = createLinter(cache, 0.0);
+        assertEquals(uncached, lint(linter, code));
+        assertEquals(1, listEntries(cache).size());
+
+        // the second run is answered by the cache
+        assertEquals(uncached, lint(linter, code));
+        assertEquals(1, listEntries(cache).size());
+
+        // verifying the result grades the submission again, which must not change anything
+        assertEquals(uncached, lint(createLinter(cache, 1.0), code));
+    }
+
+    @Test
+    void testChangedCodeIsNotCached(@TempDir Path cache, @TempDir Path code) throws Exception {
+        Path file = code.resolve("Test.java");
+        Files.writeString(file, "public class Test { public static void main(String[] args) { a: for (;;) { break a; } } }");
+
+        Linter linter = createLinter(cache, 0.0);
+        assertFalse(lint(linter, code).isEmpty());
+
+        Files.writeString(file, "public class Test { public static void main(String[] args) { } }");
+        assertTrue(lint(linter, code).isEmpty());
+        assertEquals(2, listEntries(cache).size());
+    }
+
+    @Test
+    void testUnexpectedClassesAreNotRead(@TempDir Path cache) throws Exception {
+        Path code = getCode();
+        Linter linter = createLinter(cache, 0.0);
+        List<String> expected = lint(linter, code);
+
+        // replace the stored result with one that contains a class that is never stored in the cache
+        Path entry = listEntries(cache).get(0);
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(Files.newOutputStream(entry))) {
+            outputStream.writeObject(new ArrayList<>(List.of(new File("unexpected"))));
+        }
+
+        // the entry is rejected and replaced by the recomputed result
+        assertEquals(expected, lint(linter, code));
+        assertEquals(expected, lint(linter, code));
+        assertEquals(List.of(entry), listEntries(cache));
+    }
+
+    @Test
+    void testEviction(@TempDir Path cache, @TempDir Path code) throws Exception {
+        Path file = code.resolve("Test.java");
+        Linter linter = new Linter(AbstractLinter.builder(Locale.US)
+            .tempLocation(TempLocation.random())
+            .resultCache(cache)
+            .resultCacheLimits(1, Duration.ofDays(1)));
+
+        Files.writeString(file, "public class Test { public static void main(String[] args) { a: for (;;) { break a; } } }");
+        lint(linter, code);
+
+        // the cache is too small for any result, so each result is removed right after it has been stored
+        assertEquals(List.of(), listEntries(cache));
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted(@TempDir Path cache, @TempDir Path otherCache, @TempDir Path code) throws Exception {
+        Path file = code.resolve("Test.java");
+        String source = "public class Test { public static void main(String[] args) { a: for (;;) { break a; } } }";
+        Files.writeString(file, source);
+        lint(createLinter(otherCache, 0.0), code);
+        long entrySize = Files.size(listEntries(otherCache).getFirst());
+
+        // there is only room for a single entry
+        Linter linter = new Linter(AbstractLinter.builder(Locale.US)
+            .tempLocation(TempLocation.random())
+            .resultCache(cache)
+            .resultCacheLimits(entrySize + entrySize / 2, Duration.ofDays(1)));
+        lint(linter, code);
+        List<Path> firstEntries = listEntries(cache);
+        assertEquals(1, firstEntries.size());
+
+        // the comment changes the key of the result, but not the size of its entry
+        Files.writeString(file, source + " // changed");
+        lint(linter, code);
+
+        List<Path> entries = listEntries(cache);
+        assertEquals(1, entries.size());
+        assertFalse(entries.contains(firstEntries.getFirst()));
+    }
+
+    @Test
+    void testIncrementalAnalysisReusesUnchangedFiles(@TempDir Path cache, @TempDir Path code) throws Exception {
+        // the labels and the comments are found by file-local checks, the unused method is not
+        CheckConfiguration checkConfiguration = CheckConfiguration.fromProblemTypes(List.of(
+            ProblemType.AVOID_LABELS,
+            ProblemType.TODO_COMMENT,
+            ProblemType.UNUSED_CODE_ELEMENT_PRIVATE
+        ));
+        Files.writeString(code.resolve("Test.java"), """
+            public class Test {
+                public static void main(String[] args) {
+                    a: for (;;) { break a; } // TODO remove the label
+                }
+
+                private static void unused() {
+                }
+            }
+            """);
+        Path changedFile = code.resolve("Other.java");
+        Files.writeString(changedFile, "public class Other { void run() { b: for (;;) { break b; } } }");
+
+        Linter linter = new Linter(AbstractLinter.builder(Locale.US)
+            .tempLocation(TempLocation.random())
+            .resultCache(cache)
+            .incrementalAnalysis(true));
+        check(linter, code, checkConfiguration);
+
+        Files.writeString(changedFile, """
+            public class Other {
+                void run() {
+                    c: while (true) { break c; } // TODO remove the label
+                }
+            }
+            """);
+        Linter uncachedLinter = new Linter(AbstractLinter.builder(Locale.US).tempLocation(TempLocation.random()));
+        List<String> uncached = format(uncachedLinter, check(uncachedLinter, code, checkConfiguration));
+        List<Problem> problems = check(linter, code, checkConfiguration);
+
+        // the problems of file-local checks are ordered by file, which might differ from the order without incremental analysis
+        assertEquals(uncached.stream().sorted().toList(), format(linter, problems).stream().sorted().toList());
+        assertTrue(problems.stream().anyMatch(CachedProblem.class::isInstance));
+        assertTrue(problems.stream().anyMatch(problem -> problem.getProblemType() == ProblemType.UNUSED_CODE_ELEMENT_PRIVATE));
+
+        // only the problems of file-local checks in the unchanged file are taken from the cache,
+        // all other problems have been found by analyzing the submission again
+        for (Problem problem : problems) {
+            boolean isReused = AnalysisPlan.isFileLocal(problem.getCheck())
+                && problem.getPosition().file().equals(SourcePath.of("Test.java"));
+            assertEquals(isReused, problem instanceof CachedProblem, problem::toString);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.api.AbstractLinter;
+import de.firemage.autograder.api.AbstractProblem;
+import de.firemage.autograder.api.CheckConfiguration;
+import de.firemage.autograder.api.FailureInformation;
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.core.file.TempLocation;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class TestStreamingProblems {
+    private static final CheckConfiguration CHECK_CONFIGURATION = CheckConfiguration.fromProblemTypes(List.of(
+        ProblemType.DO_NOT_USE_RAW_TYPES,
+        ProblemType.UNCHECKED_TYPE_CAST,
+        ProblemType.UNUSED_DIAMOND_OPERATOR,
+        ProblemType.AVOID_LABELS
+    ));
+
+    private static String describe(AbstractProblem problem) {
+        return "%s %s %s".formatted(problem.getCheckName(), problem.getType(), problem.getPosition());
+    }
+
+    private static void assertSameProblems(Path code, int maxProblemsPerCheck) throws Exception {
+        Linter linter = new Linter(AbstractLinter.builder(Locale.US)
+            .tempLocation(TempLocation.random())
+            .maxProblemsPerCheck(maxProblemsPerCheck));
+
+        List<String> expected = linter.checkFileFallible(
+            code,
+            JavaVersion.JAVA_17,
+            CHECK_CONFIGURATION,
+            status -> {},
+            FailureInformation.failFastConsumer()
+        ).stream().map(TestStreamingProblems::describe).sorted().toList();
+
+        List<String> streamed = new ArrayList<>();
+        linter.checkFileStreaming(
+            code,
+            JavaVersion.JAVA_17,
+            CHECK_CONFIGURATION,
+            status -> {},
+            FailureInformation.failFastConsumer(),
+            problem -> streamed.add(describe(problem))
+        );
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, streamed.stream().sorted().toList());
+    }
+
+    @Test
+    void testStreamedProblemsMatchReturnedProblems() throws Exception {
+        Path code = Path.of(TestStreamingProblems.class.getResource("check_tests/DoNotUseRawTypes/code").toURI());
+
+        assertSameProblems(code, -1);
+    }
+
+    @Test
+    void testStreamedProblemsAreMerged() throws Exception {
+        Path code = Path.of(TestStreamingProblems.class.getResource("check_tests/DoNotUseRawTypes/code").toURI());
+
+        assertSameProblems(code, 1);
+    }
+}
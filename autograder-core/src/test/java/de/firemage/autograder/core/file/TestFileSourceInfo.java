@@ -5,12 +5,15 @@ import de.firemage.autograder.api.AbstractTempLocation;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class TestFileSourceInfo {
     private final AbstractTempLocation tempLocation = TempLocation.random();
@@ -31,4 +34,65 @@ class TestFileSourceInfo {
             }
         }
     }
+
+    @Test
+    void testReadsDecodedTextOnce() throws IOException {
+        try (AbstractTempLocation folder = tempLocation.createTempDirectory("test")) {
+            Path folderPath = folder.toPath();
+            Path filePath = Paths.get(folderPath.toString(), "Test.java");
+            String code = "public class Test {\n    String s = \"äöü\";\r\n}\n";
+            Files.write(filePath, code.getBytes(StandardCharsets.UTF_8));
+
+            FileSourceInfo sourceInfo = new FileSourceInfo(folderPath, JavaVersion.JAVA_17);
+            CompilationUnit unit = sourceInfo.getCompilationUnit(SourcePath.of("Test.java"));
+
+            // later changes to the file are not visible
+            Files.writeString(filePath, "class Other {}");
+
+            assertEquals(code, unit.readString());
+            assertSame(unit.sourceText(), unit.sourceText());
+            assertEquals(code, unit.sourceText().text());
+        }
+    }
+
+    @Test
+    void testWritesUpdateContent() throws IOException {
+        try (AbstractTempLocation folder = tempLocation.createTempDirectory("test")) {
+            Path folderPath = folder.toPath();
+            Path filePath = folderPath.resolve("Test.java");
+            Files.writeString(filePath, "public class Test {}");
+
+            FileSourceInfo sourceInfo = new FileSourceInfo(folderPath, JavaVersion.JAVA_17);
+            CompilationUnit unit = sourceInfo.getCompilationUnit(SourcePath.of("Test.java"));
+
+            String code = "public class Test { String s = \"äöü\"; }";
+            try (Writer writer = unit.toJavaFileObject().openWriter()) {
+                writer.write(code);
+            }
+
+            assertEquals(code, Files.readString(filePath, unit.charset()));
+            assertEquals(code, unit.readString());
+            assertEquals(code, unit.toJavaFileObject().getCharContent(false).toString());
+        }
+    }
+
+    @Test
+    void testResolveCompilationUnit() throws IOException {
+        try (AbstractTempLocation folder = tempLocation.createTempDirectory("test")) {
+            Path folderPath = folder.toPath();
+            Path filePath = folderPath.resolve("de").resolve("example").resolve("Test.java").toAbsolutePath().normalize();
+            Files.createDirectories(filePath.getParent());
+            Files.writeString(filePath, "package de.example; public class Test {}");
+            Files.writeString(folderPath.resolve("Main.java"), "public class Main {}");
+
+            FileSourceInfo sourceInfo = new FileSourceInfo(folderPath, JavaVersion.JAVA_17);
+            CompilationUnit unit = sourceInfo.getCompilationUnit(SourcePath.of("de", "example", "Test.java"));
+
+            assertEquals(SourcePath.of("de", "example", "Test.java"), unit.path());
+            assertSame(unit, sourceInfo.getCompilationUnit(filePath));
+            assertSame(unit, sourceInfo.getCompilationUnit(Path.of("de", "example", "Test.java")));
+            assertSame(unit, sourceInfo.getCompilationUnit(filePath.toUri()));
+            assertThrows(IllegalStateException.class, () -> sourceInfo.getCompilationUnit(SourcePath.of("Other.java")));
+        }
+    }
 }
@@ -0,0 +1,132 @@
+package de.firemage.autograder.core.integrated;
+
+import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.core.CodeModel;
+import de.firemage.autograder.core.file.StringSourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.file.UploadedFile;
+import org.junit.jupiter.api.Test;
+import spoon.reflect.code.CtBlock;
+import spoon.reflect.code.CtLambda;
+import spoon.reflect.code.CtLoop;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AncestorIndexTest {
+    private final TempLocation tempLocation = TempLocation.random();
+
+    private CodeModel buildCodeModel() throws LinterException, IOException {
+        UploadedFile file = UploadedFile.build(StringSourceInfo.fromSourceStrings(Map.ofEntries(
+            Map.entry(
+                "Test",
+                """
+                    import java.util.List;
+
+                    public class Test {
+                        private final List<Integer> values = List.of(1, 2, 3);
+
+                        public int sum() {
+                            int result = 0;
+                            for (int value : this.values) {
+                                while (result < value) {
+                                    result += value;
+                                }
+                            }
+                            return result;
+                        }
+
+                        public Runnable runnable() {
+                            return () -> {
+                                class Local {
+                                    void run() {
+                                        System.out.println(sum());
+                                    }
+                                }
+                                new Local().run();
+                            };
+                        }
+                    }
+                    """
+            )
+        )), this.tempLocation, status -> {
+        }, null);
+        assertNotNull(file, "Could not compile the code");
+        return file.getModel();
+    }
+
+    private static boolean isNestedOrSameByWalking(CtElement element, CtElement parent) {
+        if (element == parent) {
+            return true;
+        }
+
+        for (CtElement ctElement : ElementUtil.parents(element)) {
+            if (ctElement == parent) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Test
+    void testIsNestedOrSame() throws LinterException, IOException {
+        CodeModel model = buildCodeModel();
+        List<CtElement> elements = model.getModel().getElements(new TypeFilter<>(CtElement.class));
+        List<CtElement> parents = model.getModel().getElements(element -> element instanceof CtMethod<?>
+            || element instanceof CtBlock<?>
+            || element instanceof CtLambda<?>
+            || element instanceof CtLoop);
+
+        for (CtElement element : elements) {
+            for (CtElement parent : parents) {
+                assertEquals(
+                    isNestedOrSameByWalking(element, parent),
+                    ElementUtil.isNestedOrSame(element, parent),
+                    "%s in %s".formatted(element, parent)
+                );
+            }
+
+            assertEquals(
+                parents.stream().anyMatch(parent -> isNestedOrSameByWalking(element, parent)),
+                CtElementStream.of(element).nestedInAny(parents).hasAny(),
+                element::toString
+            );
+        }
+    }
+
+    @Test
+    void testGetParent() throws LinterException, IOException {
+        CodeModel model = buildCodeModel();
+
+        for (CtElement element : model.getModel().getElements(new TypeFilter<>(CtElement.class))) {
+            for (Class<? extends CtElement> parentType : List.of(CtType.class, CtMethod.class, CtLambda.class, CtLoop.class, CtBlock.class)) {
+                assertSame(element.getParent(parentType), ElementUtil.getParent(element, parentType), element::toString);
+            }
+        }
+    }
+
+    @Test
+    void testClonedElementsAreNotIndexed() throws LinterException, IOException {
+        CodeModel model = buildCodeModel();
+        CtLoop loop = model.getModel().getElements(new TypeFilter<>(CtLoop.class)).getFirst();
+        CtLoop clone = loop.clone();
+
+        // the clone is not part of the index, so the parents are walked instead
+        CtMethod<?> method = loop.getParent(CtMethod.class);
+        assertEquals(isNestedOrSameByWalking(clone, method), ElementUtil.isNestedOrSame(clone, method));
+        assertTrue(ElementUtil.isNestedOrSame(clone.getBody(), clone));
+        assertFalse(ElementUtil.isNestedOrSame(loop.getBody(), clone));
+    }
+}
@@ -0,0 +1,67 @@
+package de.firemage.autograder.core.integrated;
+
+import de.firemage.autograder.core.file.StringSourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.file.UploadedFile;
+import org.junit.jupiter.api.Test;
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtStatement;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicateCodeFinderTest {
+    private static CtModel buildModel(String code) throws Exception {
+        UploadedFile file = UploadedFile.build(StringSourceInfo.fromSourceString("Test", code), TempLocation.random(), status -> {
+        }, null);
+        assertNotNull(file, "Could not compile the code");
+        return file.getModel().getModel();
+    }
+
+    private static String format(List<DuplicateCodeFinder.DuplicateCode> duplicates) {
+        return duplicates.stream()
+            .map(duplicate -> "%s <-> %s".formatted(duplicate.left(), duplicate.right()))
+            .toList()
+            .toString();
+    }
+
+    @Test
+    void testFindsSameDuplicatesAsPairwiseComparison() throws Exception {
+        StringBuilder methods = new StringBuilder();
+        for (int i = 0; i < 6; i++) {
+            methods.append("void m%d(int a) {%n".formatted(i));
+            for (int j = 0; j < 4 + i; j++) {
+                methods.append("    System.out.println(\"line %d\");%n".formatted(j % 3));
+            }
+            methods.append("    if (a > %d) {%n".formatted(i % 2));
+            methods.append("        System.out.println(\"line 0\");\n        System.out.println(\"line 1\");\n");
+            methods.append("    }\n    System.out.println(a);\n}\n");
+        }
+
+        CtModel model = buildModel("public class Test {%n%s}%n".formatted(methods));
+
+        boolean hasDuplicates = false;
+        for (CtStatement ctStatement : model.getElements(new TypeFilter<>(CtStatement.class))) {
+            if (ctStatement.isImplicit() || !ctStatement.getPosition().isValidPosition()) {
+                continue;
+            }
+
+            for (int minimumSize = 1; minimumSize <= 8; minimumSize++) {
+                int size = minimumSize;
+                List<DuplicateCodeFinder.DuplicateCode> expected = DuplicateCodeFinder.findDuplicates(ctStatement)
+                    .stream()
+                    .filter(duplicate -> duplicate.isMoreThanOrEqualTo(size))
+                    .toList();
+
+                hasDuplicates |= !expected.isEmpty();
+                assertEquals(format(expected), format(DuplicateCodeFinder.findDuplicates(ctStatement, minimumSize)), ctStatement::toString);
+            }
+        }
+
+        assertTrue(hasDuplicates);
+    }
+}
@@ -0,0 +1,50 @@
+package de.firemage.autograder.core.integrated;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyIndexTest {
+    private static final int THREADS = 8;
+
+    @Test
+    void testConcurrentGetBuildsOnce() throws InterruptedException, ExecutionException {
+        AtomicInteger builds = new AtomicInteger();
+        LazyIndex<Object> index = new LazyIndex<>(() -> {
+            builds.incrementAndGet();
+            return new Object();
+        });
+
+        assertTrue(index.getIfBuilt().isEmpty());
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return index.get();
+                }));
+            }
+
+            start.countDown();
+        }
+
+        assertEquals(1, builds.get());
+        Object expected = index.getIfBuilt().orElseThrow();
+        for (Future<Object> result : results) {
+            assertSame(expected, result.get());
+        }
+    }
+}
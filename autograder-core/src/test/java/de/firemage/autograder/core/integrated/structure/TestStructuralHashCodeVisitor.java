@@ -0,0 +1,72 @@
+package de.firemage.autograder.core.integrated.structure;
+
+import de.firemage.autograder.core.file.StringSourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.file.UploadedFile;
+import org.junit.jupiter.api.Test;
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtStatement;
+import spoon.reflect.path.CtRole;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TestStructuralHashCodeVisitor {
+    private static CtModel buildModel(String code) throws Exception {
+        UploadedFile file = UploadedFile.build(StringSourceInfo.fromSourceString("Test", code), TempLocation.random(), status -> {
+        }, null);
+        return file.getModel().getModel();
+    }
+
+    @Test
+    void testStoredHashCodesMatchComputedHashCodes() throws Exception {
+        CtModel model = buildModel("""
+            public class Test {
+                int t(int a) {
+                    int b = a + 1;
+                    if (b > 2) {
+                        for (int i = 0; i < b; i++) {
+                            // some comment
+                            b += i * 2;
+                        }
+                    }
+                    return b;
+                }
+            }
+            """);
+
+        for (CtStatement ctStatement : model.getElements(new TypeFilter<>(CtStatement.class))) {
+            // the clone is not part of the model, so its hash code is computed from scratch
+            assertEquals(
+                StructuralHashCodeVisitor.computeHashCode(ctStatement.clone(), StructuralEqualsVisitor.ALLOW_NO_DIFFERENCE),
+                StructuralHashCodeVisitor.computeHashCode(ctStatement, StructuralEqualsVisitor.ALLOW_NO_DIFFERENCE),
+                ctStatement::toString
+            );
+        }
+    }
+
+    @Test
+    void testDifferentStructureHasDifferentHashCode() throws Exception {
+        CtModel model = buildModel("""
+            public class Test {
+                void t(int a) {
+                    System.out.println(a);
+                    System.out.println(a + 1);
+                }
+            }
+            """);
+
+        List<CtStatement> statements = model.getElements(new TypeFilter<>(CtStatement.class))
+            .stream()
+            .filter(ctStatement -> ctStatement.getRoleInParent() == CtRole.STATEMENT)
+            .toList();
+
+        assertNotEquals(
+            StructuralHashCodeVisitor.computeHashCode(statements.get(0), StructuralEqualsVisitor.ALLOW_NO_DIFFERENCE),
+            StructuralHashCodeVisitor.computeHashCode(statements.get(1), StructuralEqualsVisitor.ALLOW_NO_DIFFERENCE)
+        );
+    }
+}
@@ -1,8 +1,6 @@
 package de.firemage.autograder.extra.check.comment;
 
 import com.github.pemistahl.lingua.api.Language;
-import com.github.pemistahl.lingua.api.LanguageDetector;
-import com.github.pemistahl.lingua.api.LanguageDetectorBuilder;
 import de.firemage.autograder.core.CodePosition;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
@@ -22,13 +20,7 @@ import java.util.Map;
 
 @ExecutableCheck(reportedProblems = {ProblemType.INVALID_COMMENT_LANGUAGE, ProblemType.INCONSISTENT_COMMENT_LANGUAGE})
 public class CommentLanguageCheck extends IntegratedCheck {
-    // Lingua uses ai models for language detection that are backed into the jar.
-    // It supports a lot of languages which is ~200MB extra data if we include all of them.
-    //
-    // Not all languages are needed for this check, so here is a list of supported languages and in
-    // the maven pom.xml we exclude all other languages.
-    private static final List<Language> SUPPORTED_LANGUAGES = List.of(Language.ENGLISH, Language.GERMAN, Language.CHINESE);
-    private final LanguageDetector detector;
+    private final double threshold;
 
     public CommentLanguageCheck() {
         this(0.075);
@@ -36,9 +28,7 @@ public class CommentLanguageCheck extends IntegratedCheck {
 
     public CommentLanguageCheck(double threshold) {
         super();
-        this.detector = LanguageDetectorBuilder.fromLanguages(SUPPORTED_LANGUAGES.toArray(new Language[0]))
-            .withMinimumRelativeDistance(threshold)
-            .build();
+        this.threshold = threshold;
     }
 
     @Override
@@ -49,7 +39,7 @@ public class CommentLanguageCheck extends IntegratedCheck {
         staticAnalysis.processWith(new AbstractProcessor<CtComment>() {
             @Override
             public void process(CtComment comment) {
-                var language = CommentLanguageResult.detect(comment, detector);
+                var language = CommentLanguageResult.detect(comment, threshold);
 
                 switch (language.language) {
                     case ENGLISH -> englishComments.add(language);
@@ -90,7 +80,7 @@ public class CommentLanguageCheck extends IntegratedCheck {
 
     private record CommentLanguageResult(CtComment comment, Language language, double confidence) {
 
-        public static CommentLanguageResult detect(CtComment comment, LanguageDetector detector) {
+        public static CommentLanguageResult detect(CtComment comment, double threshold) {
             // Remove @see because it is always in English
             StringBuilder content = new StringBuilder(comment.getContent().replace("@see", ""));
 
@@ -108,11 +98,8 @@ public class CommentLanguageCheck extends IntegratedCheck {
                 // The string contains too few words
                 return new CommentLanguageResult(comment, Language.UNKNOWN, 0);
             } else {
-                Language language = detector.detectLanguageOf(content.toString());
-                var confidences = detector.computeLanguageConfidenceValues(content.toString());
-                double englishConfidence = confidences.getOrDefault(Language.ENGLISH, 0.0);
-                double germanConfidence = confidences.getOrDefault(Language.GERMAN, 0.0);
-                return new CommentLanguageResult(comment, language, Math.abs(englishConfidence - germanConfidence));
+                var detection = CommentLanguageDetector.detect(content.toString());
+                return new CommentLanguageResult(comment, detection.language(threshold), detection.englishGermanDistance());
             }
         }
     }
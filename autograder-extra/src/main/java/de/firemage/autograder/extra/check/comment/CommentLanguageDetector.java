@@ -0,0 +1,128 @@
+package de.firemage.autograder.extra.check.comment;
+
+import com.github.pemistahl.lingua.api.Language;
+import com.github.pemistahl.lingua.api.LanguageDetector;
+import com.github.pemistahl.lingua.api.LanguageDetectorBuilder;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Detects the language of comments with a detector that is shared by all checks.
+ * <p>
+ * Loading the language models takes a lot of time and memory, so they are only loaded once per process.
+ * The same comments (e.g. generated javadoc) appear in many submissions, so the results for recently seen
+ * comments are cached.
+ */
+final class CommentLanguageDetector {
+    // Lingua uses ai models for language detection that are backed into the jar.
+    // It supports a lot of languages which is ~200MB extra data if we include all of them.
+    //
+    // Not all languages are needed for this check, so here is a list of supported languages and in
+    // the maven pom.xml we exclude all other languages.
+    private static final List<Language> SUPPORTED_LANGUAGES = List.of(Language.ENGLISH, Language.GERMAN, Language.CHINESE);
+    static final int MAX_CACHED_COMMENTS = 4096;
+
+    private static final Map<String, Detection> CACHE = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Detection> eldest) {
+            return this.size() > MAX_CACHED_COMMENTS;
+        }
+    });
+
+    private CommentLanguageDetector() {
+    }
+
+    /**
+     * The detector is thread-safe, so a single instance is created when it is first used.
+     */
+    private static final class DetectorHolder {
+        // The minimum relative distance is applied by the caller, so the confidence values can be cached
+        // independently of it.
+        private static final LanguageDetector DETECTOR = LanguageDetectorBuilder
+            .fromLanguages(SUPPORTED_LANGUAGES.toArray(new Language[0]))
+            .build();
+    }
+
+    /**
+     * The result of the language detection for a text.
+     *
+     * @param mostLikelyLanguage the language with the highest confidence or {@link Language#UNKNOWN}
+     * @param distance the difference between the confidence of the most likely language and the second most likely one
+     * @param englishGermanDistance the absolute difference between the confidence of English and German
+     */
+    record Detection(Language mostLikelyLanguage, double distance, double englishGermanDistance) {
+        /**
+         * Returns the detected language like {@link LanguageDetector#detectLanguageOf(String)} does for a detector
+         * with the given minimum relative distance.
+         *
+         * @param minimumRelativeDistance the distance the most likely language must have to the second one
+         * @return the detected language or {@link Language#UNKNOWN} if it is not clear enough
+         */
+        Language language(double minimumRelativeDistance) {
+            if (this.distance <= 0.0 || this.distance < minimumRelativeDistance) {
+                return Language.UNKNOWN;
+            }
+
+            return this.mostLikelyLanguage;
+        }
+    }
+
+    /**
+     * Detects the language of the given text.
+     *
+     * @param text the text of the comment
+     * @return the result of the detection
+     */
+    static Detection detect(String text) {
+        String normalizedText = normalize(text);
+
+        Detection detection = CACHE.get(normalizedText);
+        if (detection == null) {
+            detection = computeDetection(normalizedText);
+            CACHE.put(normalizedText, detection);
+        }
+
+        return detection;
+    }
+
+    /**
+     * Checks whether the result for the given text is cached, without updating the order of the cached results.
+     *
+     * @param text the text of the comment
+     * @return true if the result is cached
+     */
+    static boolean isCached(String text) {
+        return CACHE.containsKey(normalize(text));
+    }
+
+    private static String normalize(String text) {
+        // the detector ignores the whitespace between words, so it can be normalized to find more cache hits
+        return text.strip().replaceAll("\\s+", " ");
+    }
+
+    private static Detection computeDetection(String text) {
+        // sorted by descending confidence
+        SortedMap<Language, Double> confidences = DetectorHolder.DETECTOR.computeLanguageConfidenceValues(text);
+        double englishGermanDistance = Math.abs(
+            confidences.getOrDefault(Language.ENGLISH, 0.0) - confidences.getOrDefault(Language.GERMAN, 0.0)
+        );
+
+        if (confidences.isEmpty()) {
+            return new Detection(Language.UNKNOWN, 0.0, englishGermanDistance);
+        }
+
+        Iterator<Map.Entry<Language, Double>> iterator = confidences.entrySet().iterator();
+        Map.Entry<Language, Double> mostLikely = iterator.next();
+        if (!iterator.hasNext()) {
+            return new Detection(mostLikely.getKey(), Double.POSITIVE_INFINITY, englishGermanDistance);
+        }
+
+        double distance = mostLikely.getValue() - iterator.next().getValue();
+        return new Detection(mostLikely.getKey(), distance, englishGermanDistance);
+    }
+}
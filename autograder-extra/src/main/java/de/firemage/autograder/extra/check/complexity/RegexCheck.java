@@ -2,6 +2,7 @@ package de.firemage.autograder.extra.check.complexity;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.VariableUtil;
@@ -36,7 +37,7 @@ import spoon.reflect.reference.CtExecutableReference;
 import java.util.List;
 import java.util.Map;
 
-@ExecutableCheck(reportedProblems = {ProblemType.COMPLEX_REGEX})
+@ExecutableCheck(reportedProblems = {ProblemType.COMPLEX_REGEX}, requires = {AnalysisInput.USES})
 public class RegexCheck extends IntegratedCheck {
     public static final double MAX_ALLOWED_SCORE = 24.0;
     private static final List<String> REGEX_HINTS = List.of("?", "<", ">", "+", "*", "[", "]", "$", "^", "|", "\\");
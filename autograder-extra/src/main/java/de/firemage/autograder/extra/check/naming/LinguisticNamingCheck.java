@@ -4,6 +4,7 @@ import de.firemage.autograder.core.CodeModel;
 import de.firemage.autograder.core.CodePosition;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 
 import de.firemage.autograder.core.integrated.CoreUtil;
@@ -28,7 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-@ExecutableCheck(reportedProblems = { ProblemType.CONFUSING_IDENTIFIER })
+@ExecutableCheck(reportedProblems = { ProblemType.CONFUSING_IDENTIFIER }, requires = { AnalysisInput.METHOD_HIERARCHY })
 public class LinguisticNamingCheck extends IntegratedCheck {
     private static final Set<String> IGNORE_VARIABLES_WITH = Set.of("regex", "pattern");
     private static final Set<String> COMMON_BOOLEAN_GETTER_PREFIXES = Set.of(
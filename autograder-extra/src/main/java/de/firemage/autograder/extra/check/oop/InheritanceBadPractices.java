@@ -2,6 +2,7 @@ package de.firemage.autograder.extra.check.oop;
 
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.AnalysisInput;
 import de.firemage.autograder.core.check.ExecutableCheck;
 
 import de.firemage.autograder.extra.integrated.IdentifierNameUtils;
@@ -30,7 +31,7 @@ import java.util.stream.Collectors;
     ProblemType.USE_DIFFERENT_VISIBILITY_PEDANTIC,
     ProblemType.SHOULD_BE_INTERFACE,
     ProblemType.COMPOSITION_OVER_INHERITANCE
-})
+}, requires = {AnalysisInput.USES})
 public class InheritanceBadPractices extends IntegratedCheck {
     private static final boolean IS_IN_DEBUG_MODE = CoreUtil.isInDebugMode();
 
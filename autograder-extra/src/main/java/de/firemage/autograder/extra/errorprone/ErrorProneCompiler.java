@@ -7,13 +7,17 @@ import de.firemage.autograder.api.JavaVersion;
 import de.firemage.autograder.api.AbstractTempLocation;
 
 import javax.tools.DiagnosticCollector;
+import javax.tools.ForwardingJavaFileManager;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
-import javax.tools.ToolProvider;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.io.StringWriter;
 import java.nio.charset.Charset;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -28,6 +32,79 @@ import java.util.stream.Stream;
  */
 record ErrorProneCompiler(JavaVersion javaVersion, AbstractTempLocation tempLocation,
                           List<ErrorProneLint> lints) implements Serializable {
+    /**
+     * The internal packages of the compiler that error-prone needs access to.
+     */
+    static final List<String> REQUIRED_COMPILER_PACKAGES = List.of(
+        "com.sun.tools.javac.api",
+        "com.sun.tools.javac.file",
+        "com.sun.tools.javac.code",
+        "com.sun.tools.javac.comp",
+        "com.sun.tools.javac.main",
+        "com.sun.tools.javac.model",
+        "com.sun.tools.javac.parser",
+        "com.sun.tools.javac.processing",
+        "com.sun.tools.javac.tree",
+        "com.sun.tools.javac.util",
+        "com.sun.source.tree"
+    );
+
+    /**
+     * The JVM flags that export the {@link #REQUIRED_COMPILER_PACKAGES} to the code on the classpath.
+     */
+    static final List<String> COMPILER_EXPORT_FLAGS = REQUIRED_COMPILER_PACKAGES.stream()
+        .map("--add-exports=jdk.compiler/%s=ALL-UNNAMED"::formatted)
+        .toList();
+
+    /**
+     * Whether the JVM has been launched with the exports that error-prone needs, e.g. through the
+     * {@code Add-Exports} attribute in the manifest of the jar. In that case error-prone can be run
+     * in this JVM and there is no need to start a separate one.
+     */
+    static final boolean CAN_RUN_IN_PROCESS = areCompilerPackagesExported();
+
+    /**
+     * The class loader from which javac loads the error-prone plugin.
+     * <p>
+     * By default, javac creates a new class loader for the processor path on every compilation, so all classes
+     * of error-prone would be loaded again for every submission. error-prone is already on the classpath, so
+     * its classes are loaded once through the class loader of this class and shared by all compilations.
+     * javac closes the class loader after the compilation if it is {@link java.io.Closeable},
+     * which is why it is wrapped in one that is not.
+     */
+    private static final ClassLoader PLUGIN_CLASS_LOADER = new ClassLoader(ErrorProneCompiler.class.getClassLoader()) {
+    };
+
+    /**
+     * The maximum time error-prone may take for a single submission. It usually takes a few seconds,
+     * a worker that takes longer than this is assumed to be stuck.
+     */
+    private static final Duration WORKER_JOB_TIMEOUT = Duration.ofMinutes(5);
+
+    private static VMWorkerPool workerPool;
+
+    private static boolean areCompilerPackagesExported() {
+        Module module = ErrorProneCompiler.class.getModule();
+
+        return ModuleLayer.boot()
+            .findModule("jdk.compiler")
+            .map(compilerModule -> REQUIRED_COMPILER_PACKAGES.stream()
+                .allMatch(packageName -> compilerModule.isExported(packageName, module)))
+            .orElse(false);
+    }
+
+    private static synchronized VMWorkerPool getWorkerPool() {
+        if (workerPool == null) {
+            workerPool = new VMWorkerPool(
+                COMPILER_EXPORT_FLAGS,
+                ErrorProneLinter.getWorkerCount(),
+                WORKER_JOB_TIMEOUT
+            );
+        }
+
+        return workerPool;
+    }
+
     /**
      * Compiles the given source files and returns the emitted lints.
      *
@@ -48,16 +125,21 @@ record ErrorProneCompiler(JavaVersion javaVersion, AbstractTempLocation tempLoca
         // The problem is that the JavaCompiler does not support the -J flag and instead
         // inherits the exports from the JVM it is running in. Autograder will obviously
         // not have these flags set, so instead of requiring them (would be annoying for
-        // all contributors and IDE setup), a new JVM is launched with the flags set.
-        VMLauncher vmLauncher = VMLauncher.fromDefault(this.tempLocation);
+        // all contributors and IDE setup), the code is compiled in a separate JVM with
+        // the flags set.
+        //
+        // Starting that JVM takes longer than the compilation itself, so the JVMs are
+        // kept alive and reused for all submissions.
+        //
+        // If the flags are already set for this JVM, the separate JVM is not needed.
+        if (CAN_RUN_IN_PROCESS) {
+            return this.internalCompile(input);
+        }
 
         // use explicit type, so it is serializable
         ArrayList<ErrorProneDiagnostic> diagnostics;
         try {
-            diagnostics = vmLauncher
-                .runInNewJVM(() -> new ArrayList<>(this.internalCompile(input)))
-                // wait for the compiler to finish
-                .join();
+            diagnostics = getWorkerPool().run(() -> new ArrayList<>(this.internalCompile(input)));
         } catch (InterruptedException exception) {
             // not sure how to handle InterruptedException, so just do something and hope it never happens
             Thread.currentThread().interrupt();
@@ -81,14 +163,15 @@ record ErrorProneCompiler(JavaVersion javaVersion, AbstractTempLocation tempLoca
         StringWriter output = new StringWriter();
 
         boolean isSuccessful;
-        try (AbstractTempLocation tempLocation = this.tempLocation.createTempDirectory("classes")) {
+        try (AbstractTempLocation tempLocation = this.tempLocation.createTempDirectory("classes");
+             StandardJavaFileManager fileManager = new PluginFileManager(
+                 compiler.getStandardFileManager(diagnosticCollector, Locale.US, charset)
+             )) {
             isSuccessful = compiler.getTask(
                 output,
-                compiler.getStandardFileManager(diagnosticCollector, Locale.US, charset),
+                fileManager,
                 diagnosticCollector,
                 List.of(
-                    "-processorpath",
-                    System.getProperty("java.class.path"),
                     "-d", // write class files to a temporary directory
                     tempLocation.toPath().toString(),
                     "-XDcompilePolicy=simple",
@@ -122,4 +205,53 @@ record ErrorProneCompiler(JavaVersion javaVersion, AbstractTempLocation tempLoca
             .map(diagnostic -> ErrorProneDiagnostic.from(diagnostic, input))
             .toList();
     }
+
+    /**
+     * A file manager that loads the compiler plugins through the {@link #PLUGIN_CLASS_LOADER}.
+     */
+    private static final class PluginFileManager extends ForwardingJavaFileManager<StandardJavaFileManager>
+        implements StandardJavaFileManager {
+        private PluginFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public ClassLoader getClassLoader(Location location) {
+            if (location == StandardLocation.ANNOTATION_PROCESSOR_PATH || location == StandardLocation.CLASS_PATH) {
+                return PLUGIN_CLASS_LOADER;
+            }
+
+            return super.getClassLoader(location);
+        }
+
+        @Override
+        public Iterable<? extends JavaFileObject> getJavaFileObjectsFromFiles(Iterable<? extends File> files) {
+            return this.fileManager.getJavaFileObjectsFromFiles(files);
+        }
+
+        @Override
+        public Iterable<? extends JavaFileObject> getJavaFileObjects(File... files) {
+            return this.fileManager.getJavaFileObjects(files);
+        }
+
+        @Override
+        public Iterable<? extends JavaFileObject> getJavaFileObjectsFromStrings(Iterable<String> names) {
+            return this.fileManager.getJavaFileObjectsFromStrings(names);
+        }
+
+        @Override
+        public Iterable<? extends JavaFileObject> getJavaFileObjects(String... names) {
+            return this.fileManager.getJavaFileObjects(names);
+        }
+
+        @Override
+        public void setLocation(Location location, Iterable<? extends File> files) throws IOException {
+            this.fileManager.setLocation(location, files);
+        }
+
+        @Override
+        public Iterable<? extends File> getLocation(Location location) {
+            return this.fileManager.getLocation(location);
+        }
+    }
 }
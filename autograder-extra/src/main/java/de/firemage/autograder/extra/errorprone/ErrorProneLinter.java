@@ -19,6 +19,41 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class ErrorProneLinter implements CodeLinter<ErrorProneCheck> {
+    private static int workerCount = parseWorkerCount(System.getenv("AUTOGRADER_ERROR_PRONE_WORKERS"));
+
+    private static int parseWorkerCount(String count) {
+        if (count != null) {
+            try {
+                return Math.max(1, Integer.parseInt(count));
+            } catch (NumberFormatException exception) {
+                // fall back to the default
+            }
+        }
+
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Sets the maximum number of JVMs that are kept alive to run error-prone.
+     * <br>
+     * The JVMs are started on demand and reused for all submissions. This has to be called before the
+     * first submission is linted, otherwise it has no effect. The default is the number of available
+     * processors, it can also be set through the {@code AUTOGRADER_ERROR_PRONE_WORKERS} environment variable.
+     *
+     * @param count the maximum number of worker JVMs, must be positive
+     */
+    public static void setWorkerCount(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("The number of workers must be positive");
+        }
+
+        workerCount = count;
+    }
+
+    static int getWorkerCount() {
+        return workerCount;
+    }
+
     @Override
     public Class<ErrorProneCheck> supportedCheckType() {
         return ErrorProneCheck.class;
@@ -0,0 +1,337 @@
+package de.firemage.autograder.extra.errorprone;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pool of long-running JVMs that execute serialized code.
+ * <p>
+ * Starting a JVM and loading the classes takes longer than most of the code that is executed in it,
+ * so the JVMs are started once and reused for multiple jobs. The jobs are sent to a worker through its
+ * standard input and the results are sent back through its standard output, each message is prefixed
+ * with its length.
+ * <p>
+ * A worker that is no longer alive or that crashed while executing a job is replaced by a new one and the
+ * job is retried once. A worker that does not respond within the timeout is killed and replaced as well,
+ * but the job is not retried, because it would most likely time out again.
+ * <p>
+ * A {@link VirtualMachineError} (e.g. an {@link OutOfMemoryError}) in a job leaves the worker in an unknown
+ * state, so the worker reports the error and then terminates. It is replaced by a new one for the next job.
+ */
+final class VMWorkerPool {
+    private static final Logger LOG = LoggerFactory.getLogger(VMWorkerPool.class);
+    private static final int MAX_ATTEMPTS = 2;
+    private static final byte STATUS_SUCCESS = 0;
+    private static final byte STATUS_FAILURE = 1;
+    private static final byte STATUS_FATAL = 2;
+
+    private final List<String> jvmArgs;
+    private final Duration jobTimeout;
+    private final ScheduledExecutorService watchdog;
+    private final Semaphore permits;
+    private final BlockingQueue<Worker> idleWorkers;
+    private final Set<Worker> workers;
+
+    /**
+     * Creates a new pool, the workers are started on demand.
+     *
+     * @param jvmArgs arguments to pass to the new JVMs (those are the java -... flags)
+     * @param size the maximum number of workers, which is the number of jobs that can be executed at the same time
+     * @param jobTimeout the maximum time a worker may take to execute a job, before it is killed
+     */
+    VMWorkerPool(List<String> jvmArgs, int size, Duration jobTimeout) {
+        this.jvmArgs = List.copyOf(jvmArgs);
+        this.jobTimeout = jobTimeout;
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Autograder-VMWorkerPool-Watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.permits = new Semaphore(size, true);
+        this.idleWorkers = new LinkedBlockingQueue<>();
+        this.workers = ConcurrentHashMap.newKeySet();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "Autograder-VMWorkerPool-Shutdown"));
+    }
+
+    /**
+     * Runs the given lambda in one of the workers. If all workers are busy, this waits for one to become available.
+     * <p>
+     * Note that the IDEs debugger will most likely not attach to code called in this lambda.
+     * Therefore, it is recommended to run as little code as possible in this lambda.
+     *
+     * @param supplier the code to run in the worker
+     * @param <T> the type of the result returned by the lambda
+     * @return the result of the lambda
+     * @throws IOException if the worker crashed repeatedly or did not finish the job within the timeout
+     * @throws InterruptedException if the thread has been interrupted while waiting for a worker
+     */
+    // NOTE: do not weaken the type to Serializable, it will not work!
+    <T extends Serializable> T run(SerializableSupplier<T> supplier) throws IOException, InterruptedException {
+        byte[] job = serialize(supplier);
+
+        this.permits.acquire();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                Worker worker = this.acquireWorker();
+
+                Response response;
+                ScheduledFuture<?> timeout = this.watchdog.schedule(
+                    worker::kill,
+                    this.jobTimeout.toMillis(),
+                    TimeUnit.MILLISECONDS
+                );
+                try {
+                    response = worker.execute(job);
+                } catch (IOException exception) {
+                    this.discard(worker);
+                    if (worker.isKilled()) {
+                        throw new IOException("The worker did not finish the job within " + this.jobTimeout, exception);
+                    }
+
+                    if (attempt >= MAX_ATTEMPTS) {
+                        throw new IOException("The worker crashed while executing the job", exception);
+                    }
+
+                    LOG.warn("The worker crashed, retrying the job with a new worker", exception);
+                    continue;
+                } finally {
+                    timeout.cancel(false);
+                }
+
+                if (response.status() == STATUS_FATAL) {
+                    // the worker terminates after it has sent the response
+                    this.discard(worker);
+                    throw new IllegalStateException("The worker stopped because of an error in the job: " + deserialize(response.data()));
+                }
+
+                this.idleWorkers.add(worker);
+
+                if (response.status() == STATUS_FAILURE) {
+                    throw new IllegalStateException("The job failed in the worker: " + deserialize(response.data()));
+                }
+
+                return deserialize(response.data());
+            }
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    private Worker acquireWorker() throws IOException {
+        Worker worker;
+        while ((worker = this.idleWorkers.poll()) != null) {
+            if (worker.isAlive()) {
+                return worker;
+            }
+
+            this.discard(worker);
+        }
+
+        worker = Worker.start(this.jvmArgs);
+        this.workers.add(worker);
+        return worker;
+    }
+
+    private void discard(Worker worker) {
+        this.workers.remove(worker);
+        worker.destroy();
+    }
+
+    /**
+     * Stops all workers.
+     */
+    void close() {
+        for (Worker worker : this.workers) {
+            this.discard(worker);
+        }
+        this.idleWorkers.clear();
+        this.watchdog.shutdownNow();
+    }
+
+    private static byte[] serialize(Serializable serializable) {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutput objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(serializable);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to serialize object", e);
+        }
+
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Serializable> T deserialize(byte[] data) {
+        try (ObjectInput objectInput = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return (T) objectInput.readObject();
+        } catch (ClassNotFoundException | IOException e) {
+            throw new IllegalArgumentException("Failed to deserialize object", e);
+        }
+    }
+
+    private record Response(byte status, byte[] data) {
+    }
+
+    private static final class Worker {
+        private final Process process;
+        private final DataOutputStream jobs;
+        private final DataInputStream responses;
+        private volatile boolean isKilled;
+
+        private Worker(Process process) {
+            this.process = process;
+            this.jobs = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            this.responses = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        }
+
+        private static Worker start(List<String> jvmArgs) throws IOException {
+            ProcessHandle.Info currentProcessInfo = ProcessHandle.current().info();
+            List<String> commandLine = new ArrayList<>();
+            commandLine.add(currentProcessInfo.command().orElseThrow());
+
+            commandLine.add("-classpath");
+            commandLine.add(ManagementFactory.getRuntimeMXBean().getClassPath());
+
+            // inject custom jvm arguments:
+            commandLine.addAll(jvmArgs);
+            // signal that it should launch our worker class:
+            commandLine.add(WorkerMain.class.getName());
+
+            Process process = new ProcessBuilder(commandLine)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+            return new Worker(process);
+        }
+
+        private Response execute(byte[] job) throws IOException {
+            this.jobs.writeInt(job.length);
+            this.jobs.write(job);
+            this.jobs.flush();
+
+            byte status = this.responses.readByte();
+            byte[] data = new byte[this.responses.readInt()];
+            this.responses.readFully(data);
+
+            return new Response(status, data);
+        }
+
+        private boolean isAlive() {
+            return this.process.isAlive();
+        }
+
+        /**
+         * Forcibly stops the worker, which makes a pending {@link #execute(byte[])} fail with an exception.
+         */
+        private void kill() {
+            this.isKilled = true;
+            this.process.destroyForcibly();
+        }
+
+        private boolean isKilled() {
+            return this.isKilled;
+        }
+
+        private void destroy() {
+            this.process.destroy();
+        }
+    }
+
+    private static final class WorkerMain {
+        private static void run(DataInputStream jobs, DataOutputStream responses) throws IOException {
+            while (true) {
+                byte[] job;
+                try {
+                    job = new byte[jobs.readInt()];
+                } catch (EOFException exception) {
+                    // the parent process closed the pipe, so no more jobs will arrive
+                    return;
+                }
+                jobs.readFully(job);
+
+                byte status;
+                byte[] result;
+                try {
+                    SerializableSupplier<? extends Serializable> supplier = deserialize(job);
+                    result = serialize(supplier.get());
+                    status = STATUS_SUCCESS;
+                } catch (VirtualMachineError error) {
+                    // the worker might be in an inconsistent state, so it must not execute any more jobs.
+                    // The error is reported on a best effort basis, it is then rethrown to terminate the worker
+                    try {
+                        respond(responses, STATUS_FATAL, serialize(error.toString()));
+                    } catch (Throwable ignored) {
+                        // the parent process will notice that the worker crashed
+                    }
+                    throw error;
+                } catch (Throwable exception) {
+                    // other errors only fail the job, the worker can still execute the next one.
+                    // The exception itself might not be serializable, so only the stack trace is sent back
+                    StringWriter stackTrace = new StringWriter();
+                    exception.printStackTrace(new PrintWriter(stackTrace));
+                    result = serialize(stackTrace.toString());
+                    status = STATUS_FAILURE;
+                }
+
+                respond(responses, status, result);
+            }
+        }
+
+        private static void respond(DataOutputStream responses, byte status, byte[] result) throws IOException {
+            responses.writeByte(status);
+            responses.writeInt(result.length);
+            responses.write(result);
+            responses.flush();
+        }
+
+        public static void main(String[] args) {
+            // the standard output is used to send back the results, anything else that is printed goes to stderr
+            DataOutputStream responses = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+            System.setOut(System.err);
+
+            try {
+                run(new DataInputStream(new BufferedInputStream(System.in)), responses);
+
+                System.exit(0);
+            } catch (Throwable exception) {
+                try {
+                    exception.printStackTrace();
+                } finally {
+                    // the shutdown hooks are skipped, they might not work after a VirtualMachineError
+                    Runtime.getRuntime().halt(1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package de.firemage.autograder.extra.check.comment;
+
+import com.github.pemistahl.lingua.api.Language;
+import com.github.pemistahl.lingua.api.LanguageDetector;
+import com.github.pemistahl.lingua.api.LanguageDetectorBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestCommentLanguageDetector {
+    private static final double THRESHOLD = 0.075;
+
+    private static LanguageDetector directDetector(double minimumRelativeDistance) {
+        return LanguageDetectorBuilder.fromLanguages(Language.ENGLISH, Language.GERMAN, Language.CHINESE)
+            .withMinimumRelativeDistance(minimumRelativeDistance)
+            .build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "Returns the number of elements in this list.",
+        "Gibt die Anzahl der Elemente in dieser Liste zurück.",
+        "Computes the Summe of all Werte in the list",
+        "Der   Spieler\n     wählt eine   Karte aus dem Stapel",
+        "计算列表中所有元素的总和",
+        "main method for tests"
+    })
+    void testSameResultAsDetector(String comment) {
+        var detection = CommentLanguageDetector.detect(comment);
+
+        // the check only creates the detector once, without the threshold, so the result must not change because of that
+        for (double threshold : new double[] { 0.0, THRESHOLD }) {
+            assertEquals(directDetector(threshold).detectLanguageOf(comment), detection.language(threshold), "threshold " + threshold);
+        }
+
+        Map<Language, Double> confidences = directDetector(0.0).computeLanguageConfidenceValues(comment);
+        assertEquals(
+            Math.abs(confidences.getOrDefault(Language.ENGLISH, 0.0) - confidences.getOrDefault(Language.GERMAN, 0.0)),
+            detection.englishGermanDistance(),
+            1e-9
+        );
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        String recentlyUsed = "Returns the first element of the queue.";
+        String leastRecentlyUsed = "Returns the last element of the queue.";
+
+        CommentLanguageDetector.detect(recentlyUsed);
+        CommentLanguageDetector.detect(leastRecentlyUsed);
+        // fills the cache, so every other comment that has been detected before is evicted
+        for (int i = 0; i < CommentLanguageDetector.MAX_CACHED_COMMENTS - 2; i++) {
+            CommentLanguageDetector.detect("Comment number " + i);
+        }
+
+        assertTrue(CommentLanguageDetector.isCached(recentlyUsed));
+        assertTrue(CommentLanguageDetector.isCached(leastRecentlyUsed));
+
+        // the whitespace is normalized, so this is a use of the cached comment
+        CommentLanguageDetector.detect("  Returns the first\n element of the queue.  ");
+        CommentLanguageDetector.detect("One comment too many");
+
+        assertTrue(CommentLanguageDetector.isCached(recentlyUsed));
+        assertFalse(CommentLanguageDetector.isCached(leastRecentlyUsed));
+    }
+}
@@ -0,0 +1,78 @@
+package de.firemage.autograder.extra.errorprone;
+
+import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.file.StringSourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Whether error-prone runs in-process depends on the flags of the JVM, so the tests run in a separate JVM
+ * with and without the exports.
+ */
+class TestErrorProneCompiler {
+    private static final Duration JOB_TIMEOUT = Duration.ofMinutes(2);
+    private static final SourceInfo SOURCE = StringSourceInfo.fromSourceString("Test", """
+        public class Test {
+            public static int hash(int[] values) {
+                return values.hashCode();
+            }
+        }
+        """);
+
+    private static <T extends Serializable> T runInJvm(List<String> jvmArgs, SerializableSupplier<T> supplier)
+        throws IOException, InterruptedException {
+        VMWorkerPool pool = new VMWorkerPool(jvmArgs, 1, JOB_TIMEOUT);
+        try {
+            return pool.run(supplier);
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void testDetectsMissingExports() throws IOException, InterruptedException {
+        assertFalse(runInJvm(List.of(), () -> ErrorProneCompiler.CAN_RUN_IN_PROCESS));
+    }
+
+    @Test
+    void testDetectsExports() throws IOException, InterruptedException {
+        assertTrue(runInJvm(ErrorProneCompiler.COMPILER_EXPORT_FLAGS, () -> ErrorProneCompiler.CAN_RUN_IN_PROCESS));
+    }
+
+    @Test
+    void testCompileInProcess() throws IOException, InterruptedException {
+        ArrayList<String> lints = runInJvm(ErrorProneCompiler.COMPILER_EXPORT_FLAGS, () -> {
+            if (!ErrorProneCompiler.CAN_RUN_IN_PROCESS) {
+                throw new IllegalStateException("error-prone would not run in-process");
+            }
+
+            ErrorProneCompiler compiler = new ErrorProneCompiler(
+                SOURCE.getVersion(),
+                TempLocation.random(),
+                List.of(ErrorProneLint.fromString("ArrayHashCode"))
+            );
+
+            // the plugin is shared between the compilations, so the second one must still report the lint
+            ArrayList<String> result = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                for (ErrorProneDiagnostic diagnostic : compiler.compile(SOURCE)) {
+                    result.add(diagnostic.lint() + ":" + diagnostic.line());
+                }
+            }
+
+            return result;
+        });
+
+        assertEquals(List.of("ArrayHashCode:3", "ArrayHashCode:3"), lints);
+    }
+}
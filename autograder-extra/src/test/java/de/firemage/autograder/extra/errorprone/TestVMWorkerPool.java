@@ -0,0 +1,126 @@
+package de.firemage.autograder.extra.errorprone;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestVMWorkerPool {
+    private static final Duration JOB_TIMEOUT = Duration.ofSeconds(10);
+
+    private VMWorkerPool pool;
+
+    @BeforeEach
+    void setUp() {
+        this.pool = new VMWorkerPool(List.of(), 1, JOB_TIMEOUT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.pool.close();
+    }
+
+    private long workerPid() throws IOException, InterruptedException {
+        return this.pool.run(() -> ProcessHandle.current().pid());
+    }
+
+    @Test
+    void testWorkerIsReused() throws IOException, InterruptedException {
+        long firstPid = workerPid();
+
+        assertNotEquals(ProcessHandle.current().pid(), firstPid);
+        assertEquals(firstPid, workerPid());
+        assertEquals("result", this.pool.run(() -> "result"));
+        assertEquals(firstPid, workerPid());
+    }
+
+    @Test
+    void testFailingJob() throws IOException, InterruptedException {
+        long pid = workerPid();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> this.pool.run(() -> {
+            throw new IllegalArgumentException("the job failed");
+        }));
+        assertTrue(exception.getMessage().contains("the job failed"), exception.getMessage());
+
+        // an error that does not affect the JVM only fails the job as well, the worker is kept
+        exception = assertThrows(IllegalStateException.class, () -> this.pool.run(() -> {
+            throw new AssertionError("the assertion failed");
+        }));
+        assertTrue(exception.getMessage().contains("the assertion failed"), exception.getMessage());
+
+        assertEquals(pid, workerPid());
+    }
+
+    @Test
+    void testOutOfMemoryStopsWorker() throws IOException, InterruptedException {
+        this.pool.close();
+        this.pool = new VMWorkerPool(List.of("-Xmx64m"), 1, JOB_TIMEOUT);
+        long firstPid = workerPid();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> this.pool.run(() -> {
+            List<long[]> memory = new ArrayList<>();
+            while (true) {
+                memory.add(new long[1024 * 1024]);
+            }
+        }));
+        assertTrue(exception.getMessage().contains("OutOfMemoryError"), exception.getMessage());
+
+        // the job is not retried and the next job is executed by a new worker
+        assertNotEquals(firstPid, workerPid());
+    }
+
+    @Test
+    void testStuckWorkerIsReplaced() throws IOException, InterruptedException {
+        this.pool.close();
+        this.pool = new VMWorkerPool(List.of(), 1, Duration.ofSeconds(1));
+        long firstPid = workerPid();
+
+        IOException exception = assertThrows(IOException.class, () -> this.pool.run(() -> {
+            Thread.sleep(Duration.ofMinutes(1));
+            return "unreachable";
+        }));
+        assertTrue(exception.getMessage().contains("did not finish"), exception.getMessage());
+
+        assertNotEquals(firstPid, workerPid());
+    }
+
+    @Test
+    void testWorkerDiesDuringJob(@TempDir Path folder) throws IOException, InterruptedException {
+        long firstPid = workerPid();
+
+        // the first worker dies while executing the job, the job is then retried with a new worker
+        String marker = folder.resolve("crashed").toString();
+        long retriedPid = this.pool.run(() -> {
+            if (Files.notExists(Path.of(marker))) {
+                Files.createFile(Path.of(marker));
+                Runtime.getRuntime().halt(1);
+            }
+
+            return ProcessHandle.current().pid();
+        });
+
+        assertNotEquals(firstPid, retriedPid);
+        assertEquals(retriedPid, workerPid());
+    }
+
+    @Test
+    void testWorkerDiesRepeatedly() {
+        assertThrows(IOException.class, () -> this.pool.run(() -> {
+            Runtime.getRuntime().halt(1);
+            return "unreachable";
+        }));
+    }
+}
@@ -0,0 +1,272 @@
+package de.firemage.autograder.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Generates a {@code CheckProvider} that lists all checks annotated with {@code @ExecutableCheck} and all
+ * {@code CodeLinter} implementations of the module that is being compiled.
+ * <p>
+ * The generated class is registered as a service, so the autograder can find the checks without scanning
+ * the classpath and can create them without reflection. The name of the generated class is set through
+ * the {@value #PROVIDER_OPTION} option.
+ * <p>
+ * The checks and linters are listed in the order in which the compiler passes their source files to the processor,
+ * so the order in which the checks are executed and their problems are reported does not depend on their names.
+ * <p>
+ * Incremental builds (e.g. in an IDE) only pass the changed source files to the processor. The classes of the
+ * previous build are therefore stored in {@value #INDEX_RESOURCE} and merged with the ones that are found,
+ * like it is done for other generated service files. Classes that no longer exist or are no longer checks
+ * or linters are dropped, new ones are added at the end.
+ * <p>
+ * The processor refers to the autograder types by their name, so it does not depend on the module that
+ * declares them.
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(CheckProviderProcessor.PROVIDER_OPTION)
+public class CheckProviderProcessor extends AbstractProcessor {
+    static final String PROVIDER_OPTION = "autograder.provider";
+    static final String INDEX_RESOURCE = "META-INF/autograder/check-provider.index";
+    private static final String CHECK_ENTRY = "check ";
+    private static final String LINTER_ENTRY = "linter ";
+
+    private static final String CHECK_PROVIDER = "de.firemage.autograder.core.CheckProvider";
+    private static final String CODE_LINTER = "de.firemage.autograder.core.CodeLinter";
+    private static final String CHECK = "de.firemage.autograder.core.check.Check";
+    private static final String EXECUTABLE_CHECK = "de.firemage.autograder.core.check.ExecutableCheck";
+
+    private final Set<String> checks = new LinkedHashSet<>();
+    private final Set<String> linters = new LinkedHashSet<>();
+    private boolean hasWrittenProvider = false;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        // all source files that are compiled are part of the first round, later rounds only contain
+        // generated files, so the provider can be written right away
+        if (this.hasWrittenProvider || roundEnv.processingOver()) {
+            return false;
+        }
+
+        // the classes of the previous build are added first, so they keep their order in an incremental build
+        this.readPreviousIndex();
+
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            this.collect(type);
+        }
+
+        this.writeProvider();
+        this.hasWrittenProvider = true;
+
+        // other processors might be interested in the same annotations
+        return false;
+    }
+
+    private void collect(TypeElement type) {
+        for (TypeElement nestedType : ElementFilter.typesIn(type.getEnclosedElements())) {
+            this.collect(nestedType);
+        }
+
+        this.collectType(type);
+    }
+
+    private void collectType(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return;
+        }
+
+        if (hasAnnotation(type, EXECUTABLE_CHECK)) {
+            if (this.isValidImplementation(type, CHECK)) {
+                this.checks.add(type.getQualifiedName().toString());
+            }
+        } else if (this.isSubtypeOf(type, CODE_LINTER) && this.isValidImplementation(type, CODE_LINTER)) {
+            this.linters.add(type.getQualifiedName().toString());
+        }
+    }
+
+    private void readPreviousIndex() {
+        List<String> lines;
+        try {
+            FileObject index = this.processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (BufferedReader reader = new BufferedReader(index.openReader(true))) {
+                lines = reader.lines().toList();
+            }
+        } catch (IOException exception) {
+            // there is no previous build
+            return;
+        }
+
+        for (String line : lines) {
+            String name = line.substring(line.indexOf(' ') + 1);
+            TypeElement type = this.processingEnv.getElementUtils().getTypeElement(name);
+            // the class might have been deleted, it is checked again, because it might have changed since then
+            if (type != null) {
+                this.collectType(type);
+            }
+        }
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isSubtypeOf(TypeElement type, String superTypeName) {
+        TypeElement superType = this.processingEnv.getElementUtils().getTypeElement(superTypeName);
+        if (superType == null) {
+            return false;
+        }
+
+        TypeMirror erasedSuperType = this.processingEnv.getTypeUtils().erasure(superType.asType());
+        return this.processingEnv.getTypeUtils().isAssignable(type.asType(), erasedSuperType);
+    }
+
+    private boolean isValidImplementation(TypeElement type, String superTypeName) {
+        if (!this.isSubtypeOf(type, superTypeName)) {
+            this.error(type, "%s does not implement %s".formatted(type.getQualifiedName(), superTypeName));
+            return false;
+        }
+
+        boolean isAccessible = type.getModifiers().contains(Modifier.PUBLIC)
+            && (!type.getNestingKind().isNested() || type.getModifiers().contains(Modifier.STATIC));
+        boolean hasPublicNoArgConstructor = ElementFilter.constructorsIn(type.getEnclosedElements())
+            .stream()
+            .anyMatch(constructor -> constructor.getModifiers().contains(Modifier.PUBLIC)
+                && constructor.getParameters().isEmpty());
+
+        if (!isAccessible || !hasPublicNoArgConstructor) {
+            this.error(type, "%s must be public and have a public constructor without parameters".formatted(type.getQualifiedName()));
+            return false;
+        }
+
+        return true;
+    }
+
+    private void error(Element element, String message) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void writeProvider() {
+        String providerName = this.processingEnv.getOptions().get(PROVIDER_OPTION);
+        if (providerName == null) {
+            this.processingEnv.getMessager().printMessage(
+                Diagnostic.Kind.ERROR,
+                "The option -A%s=<qualified class name> is required".formatted(PROVIDER_OPTION)
+            );
+            return;
+        }
+
+        int lastDot = providerName.lastIndexOf('.');
+        String packageName = providerName.substring(0, lastDot);
+        String simpleName = providerName.substring(lastDot + 1);
+
+        List<String> checkFactories = new ArrayList<>();
+        for (String check : this.checks) {
+            checkFactories.add("new %s.CheckFactory(%s.class, %s::new)".formatted(CHECK_PROVIDER, check, check));
+        }
+
+        List<String> linterFactories = new ArrayList<>();
+        for (String linter : this.linters) {
+            linterFactories.add("%s::new".formatted(linter));
+        }
+
+        String source = """
+            package %s;
+
+            @javax.annotation.processing.Generated("%s")
+            public final class %s implements %s {
+                @Override
+                public java.util.List<%s.CheckFactory> checks() {
+                    return java.util.List.of(
+            %s
+                    );
+                }
+
+                @Override
+                public java.util.List<java.util.function.Supplier<? extends %s<?>>> linters() {
+                    return java.util.List.<java.util.function.Supplier<? extends %s<?>>>of(
+            %s
+                    );
+                }
+            }
+            """.formatted(
+            packageName,
+            CheckProviderProcessor.class.getName(),
+            simpleName,
+            CHECK_PROVIDER,
+            CHECK_PROVIDER,
+            joinArguments(checkFactories),
+            CODE_LINTER,
+            CODE_LINTER,
+            joinArguments(linterFactories)
+        );
+
+        try {
+            JavaFileObject sourceFile = this.processingEnv.getFiler().createSourceFile(providerName);
+            try (Writer writer = sourceFile.openWriter()) {
+                writer.write(source);
+            }
+
+            FileObject serviceFile = this.processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + CHECK_PROVIDER);
+            try (Writer writer = serviceFile.openWriter()) {
+                writer.write(providerName);
+                writer.write(System.lineSeparator());
+            }
+
+            FileObject indexFile = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (Writer writer = indexFile.openWriter()) {
+                for (String check : this.checks) {
+                    writer.write(CHECK_ENTRY + check + System.lineSeparator());
+                }
+
+                for (String linter : this.linters) {
+                    writer.write(LINTER_ENTRY + linter + System.lineSeparator());
+                }
+            }
+        } catch (IOException exception) {
+            this.processingEnv.getMessager().printMessage(
+                Diagnostic.Kind.ERROR,
+                "Failed to write %s: %s".formatted(providerName, exception.getMessage())
+            );
+        }
+    }
+
+    private static String joinArguments(List<String> arguments) {
+        return arguments.stream()
+            .map("            %s"::formatted)
+            .collect(Collectors.joining("," + System.lineSeparator()));
+    }
+}
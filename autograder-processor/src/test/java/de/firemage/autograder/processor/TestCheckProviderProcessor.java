@@ -0,0 +1,172 @@
+package de.firemage.autograder.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestCheckProviderProcessor {
+    private static final String CHECK_PACKAGE = "de.firemage.autograder.core.check";
+
+    @TempDir
+    private Path sources;
+
+    @TempDir
+    private Path output;
+
+    private Path writeSource(String qualifiedName, String code) throws IOException {
+        Path file = this.sources.resolve(qualifiedName.replace('.', '/') + ".java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, code);
+        return file;
+    }
+
+    private Path writeCheck(String name, boolean isAnnotated) throws IOException {
+        return this.writeSource(CHECK_PACKAGE + "." + name, """
+            package %s;
+
+            %s
+            public class %s implements Check {
+            }
+            """.formatted(CHECK_PACKAGE, isAnnotated ? "@ExecutableCheck" : "", name));
+    }
+
+    private List<Path> writeApi() throws IOException {
+        return List.of(
+            this.writeSource("de.firemage.autograder.core.CheckProvider", """
+                package de.firemage.autograder.core;
+
+                import de.firemage.autograder.core.check.Check;
+
+                import java.util.List;
+                import java.util.function.Supplier;
+
+                public interface CheckProvider {
+                    record CheckFactory(Class<? extends Check> type, Supplier<? extends Check> factory) {
+                    }
+
+                    List<CheckFactory> checks();
+
+                    List<Supplier<? extends CodeLinter<?>>> linters();
+                }
+                """),
+            this.writeSource("de.firemage.autograder.core.CodeLinter", """
+                package de.firemage.autograder.core;
+
+                public interface CodeLinter<T> {
+                }
+                """),
+            this.writeSource("de.firemage.autograder.core.ExampleLinter", """
+                package de.firemage.autograder.core;
+
+                public class ExampleLinter implements CodeLinter<String> {
+                }
+                """),
+            this.writeSource(CHECK_PACKAGE + ".Check", """
+                package de.firemage.autograder.core.check;
+
+                public interface Check {
+                }
+                """),
+            this.writeSource(CHECK_PACKAGE + ".ExecutableCheck", """
+                package de.firemage.autograder.core.check;
+
+                import java.lang.annotation.Retention;
+                import java.lang.annotation.RetentionPolicy;
+
+                @Retention(RetentionPolicy.RUNTIME)
+                public @interface ExecutableCheck {
+                }
+                """)
+        );
+    }
+
+    private void compile(Path... files) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            List<String> options = List.of(
+                "-A" + CheckProviderProcessor.PROVIDER_OPTION + "=de.firemage.autograder.core.GeneratedCheckProvider",
+                // the classes of the previous compilation are found through the classpath like in an incremental build
+                "-classpath", this.output.toString(),
+                "-d", this.output.toString(),
+                "-proc:full"
+            );
+
+            JavaCompiler.CompilationTask task = compiler.getTask(
+                null,
+                fileManager,
+                diagnostics,
+                options,
+                null,
+                fileManager.getJavaFileObjectsFromPaths(Arrays.asList(files))
+            );
+            task.setProcessors(List.of(new CheckProviderProcessor()));
+
+            assertTrue(task.call(), diagnostics.getDiagnostics()::toString);
+        }
+    }
+
+    private List<String> readIndex() throws IOException {
+        return Files.readAllLines(this.output.resolve(CheckProviderProcessor.INDEX_RESOURCE));
+    }
+
+    @Test
+    void testChecksAreListedInDiscoveryOrder() throws IOException {
+        List<Path> files = new ArrayList<>(this.writeApi());
+        files.add(this.writeCheck("SecondCheck", true));
+        files.add(this.writeCheck("FirstCheck", true));
+        files.add(this.writeCheck("NotACheck", false));
+
+        this.compile(files.toArray(Path[]::new));
+
+        assertEquals(
+            List.of(
+                "check " + CHECK_PACKAGE + ".SecondCheck",
+                "check " + CHECK_PACKAGE + ".FirstCheck",
+                "linter de.firemage.autograder.core.ExampleLinter"
+            ),
+            this.readIndex()
+        );
+    }
+
+    @Test
+    void testIncrementalBuildKeepsUnchangedChecks() throws IOException {
+        List<Path> files = new ArrayList<>(this.writeApi());
+        files.add(this.writeCheck("UnchangedCheck", true));
+        files.add(this.writeCheck("ChangedCheck", true));
+        files.add(this.writeCheck("DeletedCheck", true));
+        this.compile(files.toArray(Path[]::new));
+
+        Files.delete(this.output.resolve(CHECK_PACKAGE.replace('.', '/')).resolve("DeletedCheck.class"));
+
+        // only the changed files are passed to the compiler
+        this.compile(
+            this.writeCheck("ChangedCheck", false),
+            this.writeCheck("NewCheck", true)
+        );
+
+        assertEquals(
+            List.of(
+                "check " + CHECK_PACKAGE + ".UnchangedCheck",
+                "check " + CHECK_PACKAGE + ".NewCheck",
+                "linter de.firemage.autograder.core.ExampleLinter"
+            ),
+            this.readIndex()
+        );
+        assertTrue(Files.isRegularFile(this.output.resolve("de/firemage/autograder/core/GeneratedCheckProvider.class")));
+    }
+}
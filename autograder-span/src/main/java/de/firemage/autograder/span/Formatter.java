@@ -1,9 +1,8 @@
 package de.firemage.autograder.span;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Optional;
-import java.util.StringJoiner;
 
 public class Formatter {
     private final Highlight highlight;
@@ -89,20 +88,19 @@ public class Formatter {
         return text.span().relativeIntersection(span);
     }
 
-    private List<String> renderView(Text text, RenderState renderState) {
-        List<String> result = new ArrayList<>();
-
+    private void renderView(Text text, RenderState renderState, LineWriter output) throws IOException {
         if (text.isEmpty()) {
-            return result;
+            return;
         }
 
         for (Line line : text.lines()) {
-            result.add(this.renderSourceLine(
+            this.renderSourceLine(
                 line,
                 renderState.lineNumberWidth(),
                 renderState.offset(),
-                renderState.isInMultiline()
-            ));
+                renderState.isInMultiline(),
+                output
+            );
 
             int finalOffset;
             if (this.highlight.span().isInline()) {
@@ -115,12 +113,11 @@ public class Formatter {
                 finalOffset = renderState.offset();
             }
 
-            this.highlight.render(line.number()).ifPresent(highlight -> {
-                result.add(this.renderLine(Optional.empty(), renderState.lineNumberWidth(), finalOffset, highlight));
-            });
+            Optional<String> highlight = this.highlight.render(line.number());
+            if (highlight.isPresent()) {
+                this.renderLine(Optional.empty(), renderState.lineNumberWidth(), finalOffset, highlight.get(), output);
+            }
         }
-
-        return result;
     }
 
     /**
@@ -130,7 +127,28 @@ public class Formatter {
      * @return the highlighted text
      */
     public String render(Text text) {
-        StringJoiner result = new StringJoiner(this.lineSeparator);
+        StringBuilder result = new StringBuilder();
+        try {
+            this.render(text, result);
+        } catch (IOException exception) {
+            // a StringBuilder does not throw
+            throw new UncheckedIOException(exception);
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Renders the given text of source code into the output.
+     * <p>
+     * The lines are separated by the line separator, there is no separator after the last line.
+     *
+     * @param text the text to highlight
+     * @param output where the highlighted text is written to
+     * @throws IOException if writing to the output fails
+     */
+    public void render(Text text, Appendable output) throws IOException {
+        LineWriter lineWriter = new LineWriter(output, this.lineSeparator);
 
         int offset = 0;
         if (this.highlight.isMultiline()) {
@@ -143,51 +161,53 @@ public class Formatter {
         Span startView = this.startView(text);
         Span endView = this.endView(text);
 
-        for (String line : this.renderView(text.subText(startView), renderState)) {
-            result.add(line);
-        }
+        this.renderView(text.subText(startView), renderState, lineWriter);
 
         if (startView.contains(endView)) {
-            return result.toString();
+            return;
         }
 
         if (!startView.isFollowedBy(endView)) {
-            result.add(this.renderSkipLine(renderState.lineNumberWidth(), renderState.isInMultiline()));
-        }
-
-        for (String line : this.renderView(text.subText(endView), renderState)) {
-            result.add(line);
+            this.renderSkipLine(renderState.lineNumberWidth(), renderState.isInMultiline(), lineWriter);
         }
 
-        return result.toString();
+        this.renderView(text.subText(endView), renderState, lineWriter);
     }
 
-    private String renderLine(Optional<String> lineNumber, int lineNumberWidth, int offset, String content) {
+    private void renderLine(
+        Optional<String> lineNumber,
+        int lineNumberWidth,
+        int offset,
+        String content,
+        LineWriter output
+    ) throws IOException {
+        Appendable line = output.beginLine();
         if (this.showLineNumbers) {
-            return "%s | %s%s".formatted(
-                rightAlign(lineNumber.orElse(""), lineNumberWidth),
-                " ".repeat(offset),
-                content
-            );
-        } else {
-            return "%s%s".formatted(
-                " ".repeat(offset),
-                content
-            );
+            rightAlign(lineNumber.orElse(""), lineNumberWidth, line);
+            line.append(" | ");
         }
+
+        repeat(' ', offset, line);
+        line.append(content);
     }
 
-    private String renderSkipLine(int lineNumberWidth, boolean isInMultiline) {
+    private void renderSkipLine(int lineNumberWidth, boolean isInMultiline, LineWriter output) throws IOException {
         String skip = "..";
         String line = "";
         if (isInMultiline) {
             line = "|";
         }
 
-        return this.renderLine(Optional.of(skip), lineNumberWidth, 0, line);
+        this.renderLine(Optional.of(skip), lineNumberWidth, 0, line, output);
     }
 
-    private String renderSourceLine(Line line, int lineNumberWidth, int offset, boolean isInMultiline) {
+    private void renderSourceLine(
+        Line line,
+        int lineNumberWidth,
+        int offset,
+        boolean isInMultiline,
+        LineWriter output
+    ) throws IOException {
         String content = line.text();
         int finalOffset = offset;
         if (isInMultiline) {
@@ -199,12 +219,43 @@ public class Formatter {
             finalOffset = 0;
         }
 
-        return this.renderLine(Optional.of(String.valueOf(line.number() + 1)), lineNumberWidth, finalOffset, content);
+        this.renderLine(Optional.of(String.valueOf(line.number() + 1)), lineNumberWidth, finalOffset, content, output);
     }
 
-    private static String rightAlign(CharSequence text, int width) {
+    private static void rightAlign(CharSequence text, int width, Appendable output) throws IOException {
         int alignment = Math.min(width, text.length());
 
-        return " ".repeat(width - alignment) + text;
+        repeat(' ', width - alignment, output);
+        output.append(text);
+    }
+
+    private static void repeat(char c, int count, Appendable output) throws IOException {
+        for (int i = 0; i < count; i++) {
+            output.append(c);
+        }
+    }
+
+    /**
+     * Writes the line separator between lines, so that there is none after the last line.
+     */
+    private static final class LineWriter {
+        private final Appendable output;
+        private final String lineSeparator;
+        private boolean isFirstLine;
+
+        private LineWriter(Appendable output, String lineSeparator) {
+            this.output = output;
+            this.lineSeparator = lineSeparator;
+            this.isFirstLine = true;
+        }
+
+        private Appendable beginLine() throws IOException {
+            if (!this.isFirstLine) {
+                this.output.append(this.lineSeparator);
+            }
+
+            this.isFirstLine = false;
+            return this.output;
+        }
     }
 }
@@ -0,0 +1,169 @@
+package de.firemage.autograder.span;
+
+import java.util.Arrays;
+
+/**
+ * The offsets at which the lines of a text start.
+ * <p>
+ * With this, a {@link Position} can be converted to an offset in the text (and the other way around) without
+ * rescanning the text.
+ */
+public final class LineIndex {
+    private final int[] lineStarts;
+    private final int length;
+
+    private LineIndex(int[] lineStarts, int length) {
+        if (lineStarts.length == 0 || lineStarts[0] != 0) {
+            throw new IllegalArgumentException("The first line must start at offset 0");
+        }
+
+        this.lineStarts = lineStarts;
+        this.length = length;
+    }
+
+    /**
+     * Creates the index by scanning the given string once.
+     *
+     * @param string the text to index
+     * @return the index of the text
+     */
+    public static LineIndex of(CharSequence string) {
+        int count = 1;
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) == '\n') {
+                count += 1;
+            }
+        }
+
+        int[] lineStarts = new int[count];
+        int line = 1;
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) == '\n') {
+                lineStarts[line] = i + 1;
+                line += 1;
+            }
+        }
+
+        return new LineIndex(lineStarts, string.length());
+    }
+
+    /**
+     * Creates the index from already computed line starts. The array is not copied, so it must not be modified
+     * afterward.
+     *
+     * @param lineStarts the offset of the first character of each line, the first line starts at 0
+     * @param length the length of the text
+     * @return the index of the text
+     */
+    public static LineIndex fromLineStarts(int[] lineStarts, int length) {
+        return new LineIndex(lineStarts, length);
+    }
+
+    public int lineCount() {
+        return this.lineStarts.length;
+    }
+
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Returns the offset of the first character of the given line.
+     *
+     * @param line the line, starting at 0
+     * @return the offset where the line starts
+     */
+    public int lineStart(int line) {
+        if (line < 0 || line >= this.lineStarts.length) {
+            throw new IllegalArgumentException("line %d is not in text".formatted(line));
+        }
+
+        return this.lineStarts[line];
+    }
+
+    public int offset(Position position) {
+        if (position.line() < 0 || position.line() >= this.lineStarts.length) {
+            throw new IllegalArgumentException("%s is not in string".formatted(position));
+        }
+
+        int result = this.lineStarts[position.line()] + position.column();
+        // NOTE: this might allow invalid positions
+        if (result > this.length) {
+            throw new IllegalArgumentException("%s is not in string".formatted(position));
+        }
+
+        return result;
+    }
+
+    public Position position(int offset) {
+        if (offset < 0 || offset > this.length) {
+            throw new IllegalArgumentException("%d is not in text".formatted(offset));
+        }
+
+        int line = Arrays.binarySearch(this.lineStarts, offset);
+        if (line < 0) {
+            // the offset is not the start of a line, so it is in the line before the insertion point
+            line = -line - 2;
+        }
+
+        return new Position(line, offset - this.lineStarts[line]);
+    }
+
+    /**
+     * Creates the index of a part of the text, without scanning it again.
+     *
+     * @param start the offset where the part starts (inclusive)
+     * @param end the offset where the part ends (exclusive)
+     * @return the index of {@code text.substring(start, end)}
+     */
+    public LineIndex slice(int start, int end) {
+        if (start < 0 || start > end || end > this.length) {
+            throw new IllegalArgumentException("%d..%d is not in text".formatted(start, end));
+        }
+
+        int firstLine = this.position(start).line();
+        int lastLine = this.position(end).line();
+
+        int[] result = new int[lastLine - firstLine + 1];
+        for (int line = firstLine + 1; line <= lastLine; line++) {
+            result[line - firstLine] = this.lineStarts[line] - start;
+        }
+
+        return new LineIndex(result, end - start);
+    }
+
+    /**
+     * Creates a span which covers the entire text.
+     *
+     * @param lineNumber the line number where the text starts (0-indexed)
+     * @return a span which covers the entire text
+     */
+    public Span span(int lineNumber) {
+        int lastLine = this.lineStarts.length - 1;
+        return new Span(
+            new Position(lineNumber, 0),
+            new Position(lineNumber + lastLine, this.length - this.lineStarts[lastLine])
+        );
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        return other instanceof LineIndex lineIndex
+            && this.length == lineIndex.length
+            && Arrays.equals(this.lineStarts, lineIndex.lineStarts);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(this.lineStarts) + this.length;
+    }
+
+    @Override
+    public String toString() {
+        return "LineIndex(lines=%d, length=%d)".formatted(this.lineStarts.length, this.length);
+    }
+}
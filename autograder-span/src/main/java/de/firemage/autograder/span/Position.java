@@ -25,26 +25,27 @@ public record Position(int line, int column) implements Comparable<Position> {
     }
 
     public int offset(CharSequence string) {
+        // only the text up to the line of the position is scanned
         int currentLine = 0;
         int currentLineStart = 0;
-        for (int i = 0; i < string.length(); i++) {
+        for (int i = 0; i < string.length() && currentLine < this.line; i++) {
             if (string.charAt(i) == '\n') {
                 currentLine += 1;
                 currentLineStart = i + 1;
             }
+        }
 
-            if (currentLine == this.line) {
-                int result = currentLineStart + this.column;
-                // NOTE: this might allow invalid positions
-                if (result > string.length()) {
-                    throw new IllegalArgumentException("%s is not in string".formatted(this));
-                }
-
-                return result;
-            }
+        int result = currentLineStart + this.column;
+        // NOTE: this might allow invalid positions
+        if (currentLine != this.line || result > string.length()) {
+            throw new IllegalArgumentException("%s is not in string".formatted(this));
         }
 
-        throw new IllegalArgumentException("%s is not in string".formatted(this));
+        return result;
+    }
+
+    public int offset(LineIndex lineIndex) {
+        return lineIndex.offset(this);
     }
 
     @Override
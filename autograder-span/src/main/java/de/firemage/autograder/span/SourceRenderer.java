@@ -0,0 +1,117 @@
+package de.firemage.autograder.span;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Renders many highlights of the same file.
+ * <p>
+ * The text (and with it the line index) is only created once for the file, all highlights are rendered from it
+ * in the order in which they appear in the file and written directly into the output.
+ */
+public final class SourceRenderer {
+    private final String lineSeparator;
+    private final Text text;
+    private final Integer viewbox;
+
+    /**
+     * Creates a renderer with a viewbox of one line, like {@link Formatter#Formatter(String, Highlight)}.
+     *
+     * @param lineSeparator the separator between lines
+     * @param text the text of the file
+     */
+    public SourceRenderer(String lineSeparator, Text text) {
+        this(lineSeparator, text, 1);
+    }
+
+    /**
+     * Creates a renderer.
+     *
+     * @param lineSeparator the separator between lines
+     * @param text the text of the file
+     * @param viewbox the number of lines to show around a highlight or null to show the entire text,
+     *                see {@link Formatter#viewbox()}
+     */
+    public SourceRenderer(String lineSeparator, Text text, Integer viewbox) {
+        this.lineSeparator = lineSeparator;
+        this.text = text;
+        this.viewbox = viewbox;
+    }
+
+    /**
+     * Writes something before the snippet of a highlighted item, for example a description of the item.
+     *
+     * @param <T> the type of the items
+     */
+    @FunctionalInterface
+    public interface HeaderWriter<T> {
+        void write(T item, Appendable output) throws IOException;
+    }
+
+    /**
+     * Renders a single highlight.
+     *
+     * @param highlight the highlight to render
+     * @param output where the rendered text is written to
+     * @throws IOException if writing to the output fails
+     */
+    public void render(Highlight highlight, Appendable output) throws IOException {
+        new Formatter(this.lineSeparator, highlight, this.viewbox).render(this.text, output);
+    }
+
+    /**
+     * Renders all highlights, sorted by their position in the file. The snippets are separated by an empty line.
+     *
+     * @param highlights the highlights to render
+     * @param output where the rendered text is written to
+     * @throws IOException if writing to the output fails
+     */
+    public void renderAll(Collection<Highlight> highlights, Appendable output) throws IOException {
+        this.renderAll(highlights, Function.identity(), (highlight, out) -> {}, output);
+    }
+
+    /**
+     * Renders the highlights of all items, sorted by their position in the file. Items with the same position keep
+     * their order.
+     * <p>
+     * Each snippet is preceded by the header of its item and the snippets are separated by an empty line.
+     *
+     * @param items the items to render
+     * @param toHighlight extracts the highlight of an item
+     * @param header writes the header of an item, it is responsible for terminating it with a line separator
+     * @param output where the rendered text is written to
+     * @param <T> the type of the items
+     * @throws IOException if writing to the output fails
+     */
+    public <T> void renderAll(
+        Collection<? extends T> items,
+        Function<? super T, Highlight> toHighlight,
+        HeaderWriter<? super T> header,
+        Appendable output
+    ) throws IOException {
+        List<Entry<T>> entries = new ArrayList<>(items.size());
+        for (T item : items) {
+            entries.add(new Entry<>(item, toHighlight.apply(item)));
+        }
+        // the sort is stable
+        entries.sort(Comparator.comparing(entry -> entry.highlight().span().start()));
+
+        boolean isFirst = true;
+        for (Entry<T> entry : entries) {
+            if (!isFirst) {
+                output.append(this.lineSeparator).append(this.lineSeparator);
+            }
+
+            isFirst = false;
+            header.write(entry.item(), output);
+            this.render(entry.highlight(), output);
+        }
+    }
+
+    private record Entry<T>(T item, Highlight highlight) {
+    }
+}
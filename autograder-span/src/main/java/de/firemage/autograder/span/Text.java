@@ -11,10 +11,47 @@ import java.util.stream.Stream;
  *
  * @param text the text
  * @param span the span of the text
+ * @param lineIndex the line starts of the text, used to resolve positions without rescanning the text,
+ *                  or null if they should be computed when they are needed
  */
-public record Text(String text, Span span) {
+public record Text(String text, Span span, LineIndex lineIndex) {
+    public Text(String text, Span span) {
+        this(text, span, null);
+    }
+
     public static Text fromString(int lineNumber, String text) {
-        return new Text(text, Span.of(lineNumber, text));
+        return new Text(text, Span.of(lineNumber, text), LineIndex.of(text));
+    }
+
+    /**
+     * Creates a text from a string for which the line starts are already known.
+     *
+     * @param lineNumber the line number where the text starts (0-indexed)
+     * @param text the text
+     * @param lineIndex the index of the text, must have been created for the same text
+     * @return the text
+     */
+    public static Text fromString(int lineNumber, String text, LineIndex lineIndex) {
+        if (lineIndex.length() != text.length()) {
+            throw new IllegalArgumentException("The line index does not belong to the text");
+        }
+
+        return new Text(text, lineIndex.span(lineNumber), lineIndex);
+    }
+
+    /**
+     * Returns the line starts of the text. If the text has been created without them, they are computed on
+     * each call.
+     *
+     * @return the line starts of the text
+     */
+    @Override
+    public LineIndex lineIndex() {
+        if (this.lineIndex == null) {
+            return LineIndex.of(this.text);
+        }
+
+        return this.lineIndex;
     }
 
     public List<Line> lines() {
@@ -31,10 +68,12 @@ public record Text(String text, Span span) {
     }
 
     public Text subText(Span span) {
-        return new Text(
-            this.text.substring(span.start().offset(this.text), span.end().offset(this.text)),
-            span
-        );
+        LineIndex index = this.lineIndex();
+        int start = span.start().offset(index);
+        int end = span.end().offset(index);
+
+        // the line starts of the sub text are taken from this text, so it does not have to be scanned again
+        return new Text(this.text.substring(start, end), span, index.slice(start, end));
     }
 
     public int lineNumberWidth() {
@@ -48,4 +87,26 @@ public record Text(String text, Span span) {
     private static int stringLength(int number) {
         return String.valueOf(number).length();
     }
+
+    // the line index is derived from the text, so it is not part of the identity of the text
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        return other instanceof Text otherText
+            && this.text.equals(otherText.text)
+            && this.span.equals(otherText.span);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.text.hashCode() + this.span.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Text[text=%s, span=%s]".formatted(this.text, this.span);
+    }
 }
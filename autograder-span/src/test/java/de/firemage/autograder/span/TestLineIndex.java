@@ -0,0 +1,74 @@
+package de.firemage.autograder.span;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TestLineIndex {
+    @Test
+    void testOffsetMatchesScan() {
+        String text = "public class Test {\n    int a;\r\n\n}\n";
+        LineIndex lineIndex = LineIndex.of(text);
+
+        assertEquals(5, lineIndex.lineCount());
+        for (int offset = 0; offset <= text.length(); offset++) {
+            Position position = lineIndex.position(offset);
+            assertEquals(offset, lineIndex.offset(position));
+            assertEquals(offset, position.offset(text));
+        }
+    }
+
+    @Test
+    void testSpanMatchesSpanOf() {
+        String text = "public class Test {\n    int a;\n}\n";
+
+        assertEquals(Span.of(3, text), LineIndex.of(text).span(3));
+        assertEquals(Span.of(0, "no newline"), LineIndex.of("no newline").span(0));
+    }
+
+    @Test
+    void testPrecomputedLineStarts() {
+        String text = "a\nbc\n";
+        LineIndex lineIndex = LineIndex.fromLineStarts(new int[] { 0, 2, 5 }, text.length());
+
+        assertEquals(LineIndex.of(text), lineIndex);
+        assertEquals(Text.fromString(0, text), Text.fromString(0, text, lineIndex));
+        assertThrows(IllegalArgumentException.class, () -> Text.fromString(0, "other", lineIndex));
+    }
+
+    @Test
+    void testSliceMatchesIndexOfSubstring() {
+        String text = "a\nbc\n\ndef\n";
+        LineIndex lineIndex = LineIndex.of(text);
+
+        for (int start = 0; start <= text.length(); start++) {
+            for (int end = start; end <= text.length(); end++) {
+                assertEquals(LineIndex.of(text.substring(start, end)), lineIndex.slice(start, end));
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> lineIndex.slice(2, 1));
+        assertThrows(IllegalArgumentException.class, () -> lineIndex.slice(0, text.length() + 1));
+    }
+
+    @Test
+    void testSubTextReusesLineIndex() {
+        String text = "public class Test {\n    int a;\n}\n";
+        Text subText = Text.fromString(0, text).subText(new Span(new Position(1, 4), new Position(2, 1)));
+
+        assertEquals("int a;\n}", subText.text());
+        assertEquals(LineIndex.of(subText.text()), subText.lineIndex());
+        assertEquals(new Text(subText.text(), subText.span()), subText);
+    }
+
+    @Test
+    void testPositionOutsideOfText() {
+        LineIndex lineIndex = LineIndex.of("a\nb");
+
+        assertThrows(IllegalArgumentException.class, () -> lineIndex.offset(new Position(2, 0)));
+        assertThrows(IllegalArgumentException.class, () -> lineIndex.offset(new Position(1, 5)));
+        assertThrows(IllegalArgumentException.class, () -> new Position(2, 0).offset("a\nb"));
+        assertThrows(IllegalArgumentException.class, () -> new Position(1, 5).offset("a\nb"));
+    }
+}
@@ -0,0 +1,70 @@
+package de.firemage.autograder.span;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestSourceRenderer {
+    private static final String SOURCE_CODE = """
+        public class Test {
+            public static void main(String[] args) {
+                System.out.println(1);
+            }
+        }
+        """;
+
+    @Test
+    void testRenderMatchesFormatter() throws IOException {
+        Text text = Text.fromString(0, SOURCE_CODE);
+        Highlight highlight = new Highlight(
+            new Span(new Position(1, 4), new Position(1, 10)),
+            Optional.of("this is a label"),
+            Style.ERROR
+        );
+
+        StringBuilder output = new StringBuilder();
+        new SourceRenderer("\n", text).render(highlight, output);
+
+        assertEquals(new Formatter("\n", highlight).render(text), output.toString());
+    }
+
+    @Test
+    void testRenderAllSorted() throws IOException {
+        Text text = Text.fromString(0, SOURCE_CODE);
+        Highlight second = new Highlight(
+            new Span(new Position(2, 8), new Position(2, 14)),
+            Optional.of("second"),
+            Style.ERROR
+        );
+        Highlight first = new Highlight(
+            new Span(new Position(0, 13), new Position(0, 17)),
+            Optional.of("first"),
+            Style.ERROR
+        );
+
+        StringBuilder output = new StringBuilder();
+        new SourceRenderer("\n", text, 0).renderAll(
+            List.of(second, first),
+            highlight -> highlight,
+            (highlight, out) -> out.append(highlight.label().orElseThrow()).append(":\n"),
+            output
+        );
+
+        assertEquals(
+            """
+            first:
+             1 | public class Test {
+               |              ^^^^ first
+
+            second:
+             3 |         System.out.println(1);
+               |         ^^^^^^ second\
+            """,
+            output.toString()
+        );
+    }
+}